@@ -0,0 +1,82 @@
+package com.backbase.kalah.game;
+
+import com.backbase.kalah.game.enums.BoardType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link BoardCodec} with Java serialization of a {@link BoardEntity} in the middle of a game.
+ * <p>
+ * Run with {@code gradle jmh -PjmhInclude=BoardCodec}; {@code gc.alloc.rate.norm} shows the garbage per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardCodecBenchmark {
+    private Board board;
+    private byte[] encoded;
+    private byte[] serialized;
+
+    @Setup
+    public void setUp() throws IOException {
+        board = new BoardEntity(14, 6);
+        board.move(0);
+        board.incrementVersion();
+        board.move(1);
+        board.incrementVersion();
+        board.changeNextPlayer();
+
+        encoded = BoardCodec.encode(board);
+        serialized = serialize();
+    }
+
+    @Benchmark
+    public Object codecEncode() {
+        return BoardCodec.encode(board);
+    }
+
+    @Benchmark
+    public Object codecDecode() {
+        return BoardCodec.decode(encoded, BoardType.STANDARD);
+    }
+
+    @Benchmark
+    public Object serializationEncode() throws IOException {
+        return serialize();
+    }
+
+    @Benchmark
+    public Object serializationDecode() throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(serialized))) {
+            return in.readObject();
+        }
+    }
+
+    private byte[] serialize() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(board);
+        }
+
+        return bytes.toByteArray();
+    }
+}
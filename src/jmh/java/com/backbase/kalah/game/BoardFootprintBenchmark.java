@@ -0,0 +1,45 @@
+package com.backbase.kalah.game;
+
+import com.backbase.kalah.game.enums.BoardType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the heap cost of a single live game for every {@link BoardType}.
+ * <p>
+ * Run with {@code gradle jmh -PjmhInclude=BoardFootprint}; the {@code gc.alloc.rate.norm} column
+ * reported by the gc profiler is the number of bytes per game.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardFootprintBenchmark {
+    @Param({"STANDARD", "PACKED"})
+    public BoardType boardType;
+
+    @Param({"14"})
+    public int pitCount;
+
+    @Benchmark
+    public Object board() {
+        return Board.create(boardType, pitCount, 6);
+    }
+
+    @Benchmark
+    public Object game() {
+        return new Controller(0, Board.create(boardType, pitCount, 6));
+    }
+}
@@ -0,0 +1,96 @@
+package com.backbase.kalah.game;
+
+import com.backbase.kalah.game.enums.BoardType;
+import com.backbase.kalah.game.enums.GameStatus;
+import com.backbase.kalah.game.enums.PitType;
+import com.backbase.kalah.game.enums.Player;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a single legal move on boards of several sizes: {@code boardMove} is the sowing of {@link Board#move(int)}
+ * with the turn and game over checks but without captures, {@code controllerMove} is {@link Controller#tryMove(int)} with the
+ * game lock and the {@link MoveDelta}.
+ * <p>
+ * Every invocation plays the next legal pit of the player to move and a finished game is replaced by a new one,
+ * so the numbers include the occasional board creation. Run with {@code gradle jmh -PjmhInclude=BoardMove}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardMoveBenchmark {
+    @Param({"6", "14", "30"})
+    public int pitCount;
+
+    @Param({"6", "48"})
+    public int stoneCount;
+
+    @Param({"STANDARD", "PACKED"})
+    public BoardType boardType;
+
+    private Board board;
+    private Controller controller;
+    private int pitId;
+
+    @Setup
+    public void setUp() {
+        newGame();
+    }
+
+    @Benchmark
+    public Object boardMove() {
+        if (board.getStatus() == GameStatus.GAME_OVER)
+            newGame();
+
+        Player player = board.getNextPlayer();
+        PitType lastPitType = board.getPitType(board.move(nextLegalPit()));
+
+        if (lastPitType.getPlayer() != player || lastPitType == PitType.PLAYER_1_PIT || lastPitType == PitType.PLAYER_2_PIT)
+            board.changeNextPlayer();
+
+        if (!board.hasAnyStone(Player.PLAYER_1) || !board.hasAnyStone(Player.PLAYER_2))
+            board.gameOver();
+
+        board.incrementVersion();
+
+        return board;
+    }
+
+    @Benchmark
+    public Object controllerMove() {
+        if (board.getStatus() == GameStatus.GAME_OVER)
+            newGame();
+
+        return controller.tryMove(nextLegalPit());
+    }
+
+    private int nextLegalPit() {
+        for (int i = 0; i < pitCount; i++) {
+            pitId = (pitId + 1) % pitCount;
+
+            if (board.validateMove(pitId).isAccepted())
+                return pitId;
+        }
+
+        throw new IllegalStateException("No legal move");
+    }
+
+    private void newGame() {
+        board = Board.create(boardType, pitCount, stoneCount);
+        controller = new Controller(0, board);
+    }
+}
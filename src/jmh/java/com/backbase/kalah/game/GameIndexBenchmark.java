@@ -0,0 +1,82 @@
+package com.backbase.kalah.game;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the game index of {@link InMemoryDataAccess} against the previous
+ * {@code ConcurrentHashMap<Integer, Controller>} (with its {@code containsKey} + {@code get} lookup)
+ * under a mixed workload of reads, creates and deletes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class GameIndexBenchmark {
+    @Param({"1000000"})
+    public int size;
+
+    @Param({"90", "50"})
+    public int readPercent;
+
+    private ConcurrentHashMap<Integer, Controller> hashMap;
+    private ConcurrentIntMap<Controller> intMap;
+    private Controller controller;
+
+    @Setup
+    public void setUp() {
+        hashMap = new ConcurrentHashMap<>();
+        intMap = new ConcurrentIntMap<>();
+        controller = new Controller(0, new BoardEntity(14, 6));
+
+        for (int key = 0; key < size; key += 2) {
+            hashMap.put(key, controller);
+            intMap.put(key, controller);
+        }
+    }
+
+    @Benchmark
+    public Object concurrentHashMap() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int key = random.nextInt(size);
+        int operation = random.nextInt(100);
+
+        if (operation < readPercent)
+            return hashMap.containsKey(key) ? hashMap.get(key) : null;
+        else if ((operation & 1) == 0)
+            return hashMap.put(key, controller);
+        else
+            return hashMap.remove(key);
+    }
+
+    @Benchmark
+    public Object concurrentIntMap() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int key = random.nextInt(size);
+        int operation = random.nextInt(100);
+
+        if (operation < readPercent)
+            return intMap.get(key);
+        else if ((operation & 1) == 0)
+            return intMap.put(key, controller);
+        else
+            return intMap.remove(key);
+    }
+}
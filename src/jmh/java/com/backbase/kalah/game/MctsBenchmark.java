@@ -0,0 +1,61 @@
+package com.backbase.kalah.game;
+
+import com.backbase.kalah.engine.MctsEngine;
+import com.backbase.kalah.engine.SearchResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the playouts per second of one {@link MctsEngine} search from the start of a game, by the number of
+ * search threads. A search runs a fixed number of playouts, so the score is in playouts per second and scales with
+ * the cores as long as {@code threads} is not more than the number of processors. Run with
+ * {@code gradle jmh -PjmhInclude=Mcts}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MctsBenchmark {
+    private static final int PLAYOUTS = 10000;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    @Param({"14", "30", "62"})
+    public int pitCount;
+
+    private MctsEngine engine;
+    private Position position;
+
+    @Setup
+    public void setUp() {
+        engine = new MctsEngine(threads, PLAYOUTS, 1 << 20);
+        position = new Controller(0, new BoardEntity(pitCount, 6)).getPosition();
+    }
+
+    @TearDown
+    public void tearDown() {
+        engine.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PLAYOUTS)
+    public SearchResult search() {
+        return engine.search(position, TimeUnit.MINUTES.toMillis(10));
+    }
+}
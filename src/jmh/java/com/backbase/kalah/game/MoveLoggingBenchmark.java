@@ -0,0 +1,130 @@
+package com.backbase.kalah.game;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.backbase.kalah.game.enums.GameStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of the REST move path ({@code get}, {@code move}, {@code save}) with logging
+ * disabled ({@code OFF}, level WARN), written by the request threads ({@code SYNC}) and handed to an
+ * {@link AsyncAppender} with the same settings as {@code logback-spring.xml} ({@code ASYNC}).
+ * <p>
+ * Log events are formatted by a real encoder and written to a discarding stream, so the numbers show the cost of
+ * logging without the cost of a terminal. Run with {@code gradle jmh -PjmhInclude=MoveLogging}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class MoveLoggingBenchmark {
+    @Param({"OFF", "SYNC", "ASYNC"})
+    public String logging;
+
+    private LoggerContext context;
+    private InMemoryDataAccess dataAccess;
+
+    @Setup
+    public void setUp() {
+        context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.reset();
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{yyyy-MM-dd HH:mm:ss.SSS} %5p [%t] %logger{39} : %m%n");
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> sink = new OutputStreamAppender<>();
+        sink.setContext(context);
+        sink.setEncoder(encoder);
+        sink.setOutputStream(new DiscardingOutputStream());
+        sink.start();
+
+        Appender<ILoggingEvent> appender = sink;
+
+        if ("ASYNC".equals(logging)) {
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(context);
+            async.setQueueSize(8192);
+            async.setDiscardingThreshold(1638);
+            async.setNeverBlock(true);
+            async.addAppender(sink);
+            async.start();
+            appender = async;
+        }
+
+        ch.qos.logback.classic.Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        root.setLevel("OFF".equals(logging) ? Level.WARN : Level.INFO);
+        root.addAppender(appender);
+
+        dataAccess = new InMemoryDataAccess(1000, false);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.reset();
+    }
+
+    @State(Scope.Thread)
+    public static class Game {
+        private int gameId = -1;
+        private int pitId;
+        private boolean over = true;
+    }
+
+    @Benchmark
+    public Object move(final Game game) {
+        if (game.over)
+            game.gameId = dataAccess.create();
+
+        Controller controller = dataAccess.get(game.gameId);
+        MoveDelta delta = null;
+
+        for (int i = 0; i < 14; i++) {
+            game.pitId = (game.pitId + 1) % 14;
+            delta = controller.tryMove(game.pitId);
+
+            if (delta.isAccepted())
+                break;
+        }
+
+        dataAccess.save(controller);
+        game.over = delta.getStatus() == GameStatus.GAME_OVER;
+
+        return delta;
+    }
+
+    private static final class DiscardingOutputStream extends OutputStream {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    }
+}
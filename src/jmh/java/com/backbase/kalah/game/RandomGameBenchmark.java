@@ -0,0 +1,59 @@
+package com.backbase.kalah.game;
+
+import com.backbase.kalah.game.enums.BoardType;
+import com.backbase.kalah.game.enums.GameStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Plays full games with uniformly random legal moves through {@link Controller#tryMove(int)}, from the creation of
+ * the board to the end of the game. Run with {@code gradle jmh -PjmhInclude=RandomGame}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RandomGameBenchmark {
+    @Param({"14"})
+    public int pitCount;
+
+    @Param({"STANDARD", "PACKED"})
+    public BoardType boardType;
+
+    private final SplittableRandom random = new SplittableRandom(42);
+    private final int[] legalPits = new int[64];
+
+    @Benchmark
+    public int randomGame() {
+        Board board = Board.create(boardType, pitCount, 6);
+        Controller controller = new Controller(0, board);
+        int moves = 0;
+
+        while (board.getStatus() != GameStatus.GAME_OVER) {
+            int count = 0;
+
+            for (int pitId = 0; pitId < pitCount; pitId++) {
+                if (board.validateMove(pitId).isAccepted())
+                    legalPits[count++] = pitId;
+            }
+
+            controller.tryMove(legalPits[random.nextInt(count)]);
+            moves++;
+        }
+
+        return moves;
+    }
+}
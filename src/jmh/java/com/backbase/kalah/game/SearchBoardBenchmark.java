@@ -0,0 +1,119 @@
+package com.backbase.kalah.game;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares search on copied boards ({@link Position#play(int)}) with make/unmake on one {@link SearchBoard}:
+ * {@code *Perft} counts the positions of a full tree of the given depth, {@code *Rollout} plays a random game to the
+ * end and goes back to the start. Run with {@code gradle jmh -PjmhInclude=SearchBoard}; {@code gc.alloc.rate.norm}
+ * of the {@code searchBoard*} benchmarks is zero.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchBoardBenchmark {
+    private static final int MAX_PLY = 1024;
+
+    @Param({"14", "30"})
+    public int pitCount;
+
+    @Param({"4"})
+    public int depth;
+
+    private final SplittableRandom random = new SplittableRandom(42);
+    private Position position;
+    private SearchBoard board;
+    private int[][] moves;
+
+    @Setup
+    public void setUp() {
+        position = new Controller(0, new BoardEntity(pitCount, 6)).getPosition();
+        board = new SearchBoard(position, MAX_PLY);
+        moves = new int[MAX_PLY][pitCount / 2 - 1];
+    }
+
+    @Benchmark
+    public long positionPerft() {
+        return perft(position, depth, 0);
+    }
+
+    @Benchmark
+    public long searchBoardPerft() {
+        return perft(depth, 0);
+    }
+
+    @Benchmark
+    public int positionRollout() {
+        Position current = position;
+        int ply = 0;
+
+        while (!current.isGameOver()) {
+            int[] candidates = moves[ply++];
+            current = current.play(candidates[random.nextInt(current.getLegalMoves(candidates))]);
+        }
+
+        return current.getKalahValue(current.getNextPlayer());
+    }
+
+    @Benchmark
+    public int searchBoardRollout() {
+        while (!board.isGameOver()) {
+            int[] candidates = moves[board.getPly()];
+            board.makeMove(candidates[random.nextInt(board.getLegalMoves(candidates))]);
+        }
+
+        int score = board.getKalahValue(board.getNextPlayer());
+
+        while (board.getPly() > 0)
+            board.unmakeMove();
+
+        return score;
+    }
+
+    private long perft(final Position current, final int remaining, final int ply) {
+        if (remaining == 0 || current.isGameOver())
+            return 1;
+
+        int[] candidates = moves[ply];
+        int count = current.getLegalMoves(candidates);
+        long nodes = 0;
+
+        for (int i = 0; i < count; i++)
+            nodes += perft(current.play(candidates[i]), remaining - 1, ply + 1);
+
+        return nodes;
+    }
+
+    private long perft(final int remaining, final int ply) {
+        if (remaining == 0 || board.isGameOver())
+            return 1;
+
+        int[] candidates = moves[ply];
+        int count = board.getLegalMoves(candidates);
+        long nodes = 0;
+
+        for (int i = 0; i < count; i++) {
+            board.makeMove(candidates[i]);
+            nodes += perft(remaining - 1, ply + 1);
+            board.unmakeMove();
+        }
+
+        return nodes;
+    }
+}
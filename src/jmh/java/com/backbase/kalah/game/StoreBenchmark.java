@@ -0,0 +1,122 @@
+package com.backbase.kalah.game;
+
+import com.backbase.kalah.game.enums.BoardType;
+import com.backbase.kalah.game.enums.GameStatus;
+import com.backbase.kalah.game.enums.StorageType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.Stream;
+
+/**
+ * Concurrent access to the {@link DataAccess} implementations: {@code get} looks up a random game, {@code move}
+ * plays a random pit of a random game like {@code PUT /games/{gameId}/pits/{pitId}} and replaces finished games,
+ * {@code createDelete} creates a game and deletes it again.
+ * <p>
+ * The thread count comes from the command line, {@code gradle jmhScaling} runs this benchmark with 1, 2, 4 and 8
+ * threads ({@code -PjmhThreads=1,2,4,8}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StoreBenchmark {
+    @Param({"MEMORY", "OFF_HEAP", "JOURNAL"})
+    public StorageType storageType;
+
+    @Param({"100000"})
+    public int games;
+
+    private DataAccess dataAccess;
+    private AtomicIntegerArray ids;
+    private Path journalDirectory;
+
+    @Setup
+    public void setUp() throws IOException {
+        if (storageType == StorageType.OFF_HEAP) {
+            dataAccess = new OffHeapDataAccess(games * 2);
+        } else if (storageType == StorageType.JOURNAL) {
+            journalDirectory = Files.createTempDirectory("kalah-jmh");
+            dataAccess = new JournaledDataAccess(journalDirectory, BoardType.STANDARD, 64 << 20, 10, 0, 0);
+        } else {
+            dataAccess = new InMemoryDataAccess(1000, false);
+        }
+
+        ids = new AtomicIntegerArray(games);
+        int first = dataAccess.create(games);
+
+        for (int i = 0; i < games; i++)
+            ids.set(i, first + i);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        if (dataAccess instanceof Closeable)
+            ((Closeable) dataAccess).close();
+
+        if (journalDirectory != null) {
+            try (Stream<Path> files = Files.walk(journalDirectory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    @Benchmark
+    public Object get() {
+        return dataAccess.get(ids.get(ThreadLocalRandom.current().nextInt(games)));
+    }
+
+    @Benchmark
+    public Object move() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int index = random.nextInt(games);
+        int gameId = ids.get(index);
+        Controller controller;
+
+        try {
+            controller = dataAccess.get(gameId);
+        } catch (RuntimeException ex) {
+            return ex;
+        }
+
+        MoveDelta delta = controller.tryMove(random.nextInt(14));
+
+        if (delta.isAccepted())
+            dataAccess.save(controller);
+
+        if (delta.getStatus() == GameStatus.GAME_OVER && ids.compareAndSet(index, gameId, -1)) {
+            dataAccess.delete(gameId);
+            ids.set(index, dataAccess.create());
+        }
+
+        return delta;
+    }
+
+    @Benchmark
+    public int createDelete() {
+        int gameId = dataAccess.create();
+        dataAccess.delete(gameId);
+
+        return gameId;
+    }
+}
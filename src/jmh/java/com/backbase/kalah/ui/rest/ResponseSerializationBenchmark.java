@@ -0,0 +1,179 @@
+package com.backbase.kalah.ui.rest;
+
+import com.backbase.kalah.game.Controller;
+import com.backbase.kalah.game.InMemoryDataAccess;
+import com.backbase.kalah.game.MoveDelta;
+import com.backbase.kalah.ui.rest.entity.CreateResponse;
+import com.backbase.kalah.ui.rest.entity.MoveDeltaResponse;
+import com.backbase.kalah.ui.rest.entity.MoveResponse;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compares the response path of a move before and after the streaming serializers:
+ * {@code legacy*} formats the URL and builds the pit map like the old {@code MoveResponse} and
+ * {@code CreateResponse} did, the other benchmarks use {@link BaseUrlCache} and the entity serializers.
+ * {@code binary*} write the same responses in the {@code application/x-kalah} encoding.
+ * <p>
+ * Run with {@code gradle jmh -PjmhInclude=ResponseSerialization}; {@code gc.alloc.rate.norm} is the
+ * allocation per response.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+    private static final String URI_TEMPLATE = "%s://%s:%d%s/%d";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(1024);
+    private final DataOutputStream dataOut = new DataOutputStream(out);
+    private final BaseUrlCache baseUrls = new BaseUrlCache();
+    private HttpServletRequest request;
+    private Controller controller;
+    private MoveDelta delta;
+    private int gameId;
+
+    @Setup
+    public void setUp() {
+        InMemoryDataAccess dataAccess = InMemoryDataAccess.getInstance();
+
+        gameId = dataAccess.create();
+        controller = dataAccess.get(gameId);
+        delta = controller.move(0);
+
+        request = (HttpServletRequest) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{HttpServletRequest.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getScheme":
+                            return "http";
+                        case "getServerName":
+                            return "localhost";
+                        case "getServerPort":
+                            return 8080;
+                        case "getContextPath":
+                            return "";
+                        case "getServletPath":
+                            return "/games";
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    @Benchmark
+    public int legacyMoveResponse() throws IOException {
+        out.reset();
+        mapper.writeValue(out, new LegacyMoveResponse(gameId, legacyUrl(), controller));
+        return out.size();
+    }
+
+    @Benchmark
+    public int moveResponse() throws IOException {
+        out.reset();
+        mapper.writeValue(out, new MoveResponse(gameId, baseUrls.get(request, gameId), controller.getState()));
+        return out.size();
+    }
+
+    @Benchmark
+    public int binaryMoveResponse() throws IOException {
+        out.reset();
+        new MoveResponse(gameId, baseUrls.get(request, gameId), controller.getState()).writeBinary(dataOut);
+        return out.size();
+    }
+
+    @Benchmark
+    public int moveDeltaResponse() throws IOException {
+        out.reset();
+        mapper.writeValue(out, new MoveDeltaResponse(gameId, baseUrls.get(request, gameId), delta));
+        return out.size();
+    }
+
+    @Benchmark
+    public int binaryMoveDeltaResponse() throws IOException {
+        out.reset();
+        new MoveDeltaResponse(gameId, baseUrls.get(request, gameId), delta).writeBinary(dataOut);
+        return out.size();
+    }
+
+    @Benchmark
+    public int legacyCreateResponse() throws IOException {
+        out.reset();
+        mapper.writeValue(out, new LegacyCreateResponse(gameId, legacyUrl()));
+        return out.size();
+    }
+
+    @Benchmark
+    public int createResponse() throws IOException {
+        out.reset();
+        mapper.writeValue(out, new CreateResponse(gameId, baseUrls.get(request, gameId)));
+        return out.size();
+    }
+
+    private String legacyUrl() {
+        return String.format(URI_TEMPLATE,
+                request.getScheme(),
+                request.getServerName(),
+                request.getServerPort(),
+                request.getContextPath() + request.getServletPath(),
+                gameId);
+    }
+
+    @JsonPropertyOrder({"id", "url", "status"})
+    public static class LegacyMoveResponse {
+        @JsonProperty
+        private String id;
+
+        @JsonProperty
+        private String url;
+
+        @JsonProperty
+        private Map<String, String> status;
+
+        LegacyMoveResponse(int id, String url, Controller controller) {
+            this.id = String.valueOf(id);
+            this.url = url;
+            this.status = new HashMap<>();
+
+            AtomicInteger idx = new AtomicInteger(1);
+            controller.streamBoard().forEach(stoneCount -> status.put(String.valueOf(idx.getAndIncrement()), String.valueOf(stoneCount)));
+        }
+    }
+
+    @JsonPropertyOrder({"id", "uri"})
+    public static class LegacyCreateResponse {
+        @JsonProperty
+        private String id;
+
+        @JsonProperty
+        private String uri;
+
+        LegacyCreateResponse(int id, String uri) {
+            this.id = String.valueOf(id);
+            this.uri = uri;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.backbase.kalah.load;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency and errors of one endpoint. Latencies are recorded in nanoseconds from the time the request was due to be
+ * sent, so time spent waiting for a free worker is part of the latency and a slow server cannot hide it.
+ */
+final class EndpointStats {
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final String name;
+    private final Recorder recorder = new Recorder(3);
+    private final Histogram total = new Histogram(3);
+    private final LongAdder errors = new LongAdder();
+    private final ConcurrentHashMap<Integer, LongAdder> errorsByStatus = new ConcurrentHashMap<>();
+    private long intervalErrors;
+
+    EndpointStats(final String name) {
+        this.name = name;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    void recordSuccess(final long latencyNanos) {
+        recorder.recordValue(Math.max(0, latencyNanos));
+    }
+
+    /**
+     * @param status HTTP status of the response, or -1 for a connection error or timeout
+     */
+    void recordError(final int status) {
+        errors.increment();
+        errorsByStatus.computeIfAbsent(status, key -> new LongAdder()).increment();
+    }
+
+    /**
+     * Moves the latencies recorded since the previous call into the total and prints them as one progress line.
+     */
+    synchronized void printInterval(final PrintStream out, final long elapsedSeconds, final double intervalSeconds) {
+        Histogram interval = recorder.getIntervalHistogram();
+        long errorCount = errors.sum();
+
+        total.add(interval);
+        out.printf("%5ds %-34s %9.1f req/s %6d errors   p50 %8.2f ms   p99 %8.2f ms   max %8.2f ms%n",
+                elapsedSeconds, name, interval.getTotalCount() / intervalSeconds, errorCount - intervalErrors,
+                millis(interval.getValueAtPercentile(50)), millis(interval.getValueAtPercentile(99)), millis(interval.getMaxValue()));
+        intervalErrors = errorCount;
+    }
+
+    /**
+     * Prints the summary of all measured requests.
+     *
+     * @param durationSeconds length of the measurement, for the throughput
+     */
+    synchronized void printSummary(final PrintStream out, final double durationSeconds) {
+        total.add(recorder.getIntervalHistogram());
+
+        long count = total.getTotalCount();
+        long errorCount = errors.sum();
+        long requests = count + errorCount;
+
+        out.printf("%-34s %10d %10.1f %8d %7.3f%% %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                name, requests, requests / durationSeconds, errorCount, requests == 0 ? 0.0 : 100.0 * errorCount / requests,
+                millis(total.getValueAtPercentile(50)), millis(total.getValueAtPercentile(90)),
+                millis(total.getValueAtPercentile(99)), millis(total.getValueAtPercentile(99.9)),
+                millis(total.getValueAtPercentile(99.99)), millis(total.getMaxValue()));
+
+        if (errorCount > 0) {
+            Map<Integer, Long> byStatus = new TreeMap<>();
+            errorsByStatus.forEach((status, counter) -> byStatus.put(status, counter.sum()));
+            out.printf("%-34s errors by status (-1 is a connection error): %s%n", "", byStatus);
+        }
+    }
+
+    /**
+     * Writes the percentile distribution of all measured requests in milliseconds, in the HdrHistogram
+     * {@code .hgrm} format.
+     */
+    synchronized void printDistribution(final PrintStream out) {
+        total.outputPercentileDistribution(out, NANOS_PER_MILLI);
+    }
+
+    private static double millis(final long nanos) {
+        return nanos / NANOS_PER_MILLI;
+    }
+}
@@ -0,0 +1,262 @@
+package com.backbase.kalah.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * LoadGenerator drives a running server with simulated players that each create a game with {@code POST /games}
+ * and play it to the end with {@code PUT /games/{gameId}/pits/{pitId}}.
+ * <p>
+ * The load is open-loop: players arrive at a fixed rate whether or not the server keeps up, and every request is
+ * measured from the time it was due, so a slow server shows up as latency instead of a lower request rate.
+ * Requests that were due during the warmup are not measured. Run with {@code gradle loadTest} against a server
+ * started with {@code gradle installDist} and {@code run.sh}.
+ */
+public final class LoadGenerator {
+    private static final String CREATE_ENDPOINT = "POST /games";
+    private static final String MOVE_ENDPOINT = "PUT /games/{gameId}/pits/{pitId}";
+    private static final long REPORT_INTERVAL_SECONDS = 1;
+    private static final String SUMMARY_HEADER = String.format("%-34s %10s %10s %8s %8s %9s %9s %9s %9s %9s %9s",
+            "endpoint", "requests", "req/s", "errors", "error%", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "p99.99 ms", "max ms");
+
+    private final LoadOptions options;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final EndpointStats create = new EndpointStats(CREATE_ENDPOINT);
+    private final EndpointStats move = new EndpointStats(MOVE_ENDPOINT);
+    private final List<EndpointStats> endpoints = Arrays.asList(create, move);
+    private final LongAdder finishedGames = new LongAdder();
+    private final ExecutorService workers;
+    private final ScheduledExecutorService scheduler;
+    private long startTime;
+    private long measureTime;
+    private long endTime;
+
+    private LoadGenerator(final LoadOptions options) {
+        this.options = options;
+        this.workers = Executors.newFixedThreadPool(options.getWorkers(), daemonThreads("load-worker-"));
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(daemonThreads("load-scheduler-"));
+    }
+
+    public static void main(final String[] args) throws InterruptedException, FileNotFoundException {
+        new LoadGenerator(LoadOptions.parse(args)).run(System.out);
+    }
+
+    private void run(final PrintStream out) throws InterruptedException, FileNotFoundException {
+        out.println("Load test: " + options);
+        out.println("Warming up, requests that are due in the warmup are not measured");
+
+        startTime = System.nanoTime();
+        measureTime = startTime + options.getWarmupNanos();
+        endTime = measureTime + options.getDurationNanos();
+
+        scheduler.scheduleAtFixedRate(() -> printInterval(out), options.getWarmupNanos() + TimeUnit.SECONDS.toNanos(REPORT_INTERVAL_SECONDS),
+                TimeUnit.SECONDS.toNanos(REPORT_INTERVAL_SECONDS), TimeUnit.NANOSECONDS);
+
+        double arrivalInterval = TimeUnit.SECONDS.toNanos(1) / options.getRate();
+
+        for (long arrival = 0; ; arrival++) {
+            long dueTime = startTime + (long) (arrival * arrivalInterval);
+
+            if (dueTime - endTime >= 0)
+                break;
+
+            parkUntil(dueTime);
+            submit(() -> createGame(dueTime));
+        }
+
+        parkUntil(endTime);
+        workers.shutdown();
+        workers.awaitTermination(options.getTimeoutMillis() + TimeUnit.SECONDS.toMillis(1), TimeUnit.MILLISECONDS);
+        workers.shutdownNow();
+        scheduler.shutdownNow();
+
+        printSummary(out);
+    }
+
+    private void createGame(final long dueTime) {
+        JsonNode body = send(create, "POST", options.getUrl() + "/games", dueTime);
+
+        if (body != null) {
+            SimulatedPlayer player = new SimulatedPlayer(body.get("id").asInt(), new SplittableRandom(ThreadLocalRandom.current().nextLong()));
+            move(player, System.nanoTime());
+        }
+    }
+
+    private void move(final SimulatedPlayer player, final long dueTime) {
+        if (dueTime - endTime >= 0)
+            return;
+
+        JsonNode body = send(move, "PUT", options.getUrl() + "/games/" + player.getGameId() + "/pits/" + player.nextPitId() +
+                "?response=BOARD", dueTime);
+
+        if (body == null)
+            return;
+
+        player.update(body);
+
+        if (player.isOver()) {
+            if (dueTime - measureTime >= 0)
+                finishedGames.increment();
+
+            return;
+        }
+
+        long thinkTime = options.getThinkTimeNanos();
+        long nextDueTime = System.nanoTime() + thinkTime;
+
+        if (nextDueTime - endTime >= 0)
+            return;
+
+        if (thinkTime == 0)
+            submit(() -> move(player, nextDueTime));
+        else
+            scheduler.schedule(() -> submit(() -> move(player, nextDueTime)), thinkTime, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Runs the task on a worker; tasks that are submitted after the end of the test are dropped.
+     */
+    private void submit(final Runnable task) {
+        try {
+            workers.execute(task);
+        } catch (RejectedExecutionException ignored) {
+            // the test is over
+        }
+    }
+
+    /**
+     * Sends a request and records its latency from dueTime, or its error.
+     *
+     * @return the JSON body of a successful response, or null after an error
+     */
+    private JsonNode send(final EndpointStats stats, final String method, final String url, final long dueTime) {
+        boolean measured = dueTime - measureTime >= 0;
+        HttpURLConnection connection = null;
+        int status = -1;
+
+        try {
+            connection = (HttpURLConnection) new URL(url).openConnection();
+            connection.setRequestMethod(method);
+            connection.setConnectTimeout(options.getTimeoutMillis());
+            connection.setReadTimeout(options.getTimeoutMillis());
+            connection.setRequestProperty("Content-Type", "application/json");
+            connection.setRequestProperty("Accept", "application/json");
+
+            status = connection.getResponseCode();
+            byte[] body = readFully(status < 400 ? connection.getInputStream() : connection.getErrorStream());
+            long latency = System.nanoTime() - dueTime;
+
+            if (status >= 400) {
+                if (measured)
+                    stats.recordError(status);
+
+                return null;
+            }
+
+            if (measured)
+                stats.recordSuccess(latency);
+
+            return mapper.readTree(body);
+        } catch (IOException ex) {
+            if (connection != null)
+                connection.disconnect();
+
+            if (measured)
+                stats.recordError(status);
+
+            return null;
+        }
+    }
+
+    /**
+     * Reads and closes the body, which returns the connection to the keep-alive pool.
+     */
+    private static byte[] readFully(final InputStream in) throws IOException {
+        if (in == null)
+            return new byte[0];
+
+        try (InputStream body = in) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(512);
+            byte[] buffer = new byte[512];
+            int read;
+
+            while ((read = body.read(buffer)) >= 0)
+                out.write(buffer, 0, read);
+
+            return out.toByteArray();
+        }
+    }
+
+    private void printInterval(final PrintStream out) {
+        long elapsedSeconds = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - measureTime);
+
+        for (EndpointStats stats : endpoints)
+            stats.printInterval(out, elapsedSeconds, REPORT_INTERVAL_SECONDS);
+    }
+
+    private void printSummary(final PrintStream out) throws FileNotFoundException {
+        double durationSeconds = options.getDurationNanos() / (double) TimeUnit.SECONDS.toNanos(1);
+
+        out.println();
+        out.println(SUMMARY_HEADER);
+
+        for (EndpointStats stats : endpoints)
+            stats.printSummary(out, durationSeconds);
+
+        out.printf("%nFinished games: %d (%.1f games/s)%n", finishedGames.sum(), finishedGames.sum() / durationSeconds);
+
+        if (options.getReportDirectory() != null) {
+            File directory = new File(options.getReportDirectory());
+            directory.mkdirs();
+
+            for (EndpointStats stats : endpoints) {
+                File file = new File(directory, stats.getName().replaceAll("[^A-Za-z]+", "-").replaceAll("^-|-$", "") + ".hgrm");
+
+                try (PrintStream distribution = new PrintStream(file)) {
+                    stats.printDistribution(distribution);
+                }
+
+                out.println("Latency distribution of " + stats.getName() + ": " + file);
+            }
+        }
+    }
+
+    private static void parkUntil(final long time) {
+        long remaining;
+
+        while ((remaining = time - System.nanoTime()) > 0)
+            LockSupport.parkNanos(remaining);
+    }
+
+    private static ThreadFactory daemonThreads(final String prefix) {
+        AtomicInteger count = new AtomicInteger();
+
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,118 @@
+package com.backbase.kalah.load;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Command line options of {@link LoadGenerator}, given as {@code --name=value}.
+ */
+final class LoadOptions {
+    private String url = "http://localhost:8080";
+    private double rate = 50;
+    private long durationSeconds = 60;
+    private long warmupSeconds = 10;
+    private int workers = 64;
+    private long thinkTimeMillis = 0;
+    private int timeoutMillis = 5000;
+    private String reportDirectory;
+
+    private LoadOptions() {
+    }
+
+    static LoadOptions parse(final String[] args) {
+        LoadOptions options = new LoadOptions();
+
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+
+            if (!arg.startsWith("--") || separator < 0)
+                throw new IllegalArgumentException("Options must be given as --name=value: " + arg);
+
+            String value = arg.substring(separator + 1);
+
+            switch (arg.substring(2, separator)) {
+                case "url":
+                    options.url = value.endsWith("/") ? value.substring(0, value.length() - 1) : value;
+                    break;
+                case "rate":
+                    options.rate = Double.parseDouble(value);
+                    break;
+                case "duration":
+                    options.durationSeconds = Long.parseLong(value);
+                    break;
+                case "warmup":
+                    options.warmupSeconds = Long.parseLong(value);
+                    break;
+                case "workers":
+                    options.workers = Integer.parseInt(value);
+                    break;
+                case "think-time":
+                    options.thinkTimeMillis = Long.parseLong(value);
+                    break;
+                case "timeout":
+                    options.timeoutMillis = Integer.parseInt(value);
+                    break;
+                case "report-dir":
+                    options.reportDirectory = value.isEmpty() ? null : value;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+
+        if (options.rate <= 0 || options.durationSeconds <= 0 || options.warmupSeconds < 0 || options.workers <= 0 ||
+                options.thinkTimeMillis < 0 || options.timeoutMillis <= 0)
+            throw new IllegalArgumentException("rate, duration, workers and timeout must be positive, warmup and think-time must not be negative");
+
+        return options;
+    }
+
+    /**
+     * @return base URL of the server, without a trailing slash
+     */
+    String getUrl() {
+        return url;
+    }
+
+    /**
+     * @return arrival rate of new players in games per second
+     */
+    double getRate() {
+        return rate;
+    }
+
+    long getDurationNanos() {
+        return TimeUnit.SECONDS.toNanos(durationSeconds);
+    }
+
+    long getWarmupNanos() {
+        return TimeUnit.SECONDS.toNanos(warmupSeconds);
+    }
+
+    /**
+     * @return number of threads that send requests, which is also the number of open connections
+     */
+    int getWorkers() {
+        return workers;
+    }
+
+    long getThinkTimeNanos() {
+        return TimeUnit.MILLISECONDS.toNanos(thinkTimeMillis);
+    }
+
+    int getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    /**
+     * @return directory of the percentile distribution files, or null to skip them
+     */
+    String getReportDirectory() {
+        return reportDirectory;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("url=%s rate=%.1f games/s duration=%ds warmup=%ds workers=%d think-time=%dms timeout=%dms",
+                url, rate, durationSeconds, warmupSeconds, workers, thinkTimeMillis, timeoutMillis);
+    }
+}
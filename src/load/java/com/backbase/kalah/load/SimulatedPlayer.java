@@ -0,0 +1,71 @@
+package com.backbase.kalah.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.SplittableRandom;
+
+/**
+ * SimulatedPlayer plays both sides of one game with uniformly random legal moves. It only knows the board of the
+ * latest {@code BOARD} move response, so every move it picks is legal unless another client moved in between.
+ * <p>
+ * Pit ids are the 1-based ids of the REST API.
+ */
+final class SimulatedPlayer {
+    private static final String PLAYER_1 = "PLAYER_1";
+    private static final String GAME_OVER = "GAME_OVER";
+
+    private final int gameId;
+    private final SplittableRandom random;
+    private int[] pits;
+    private boolean player1 = true;
+    private boolean over;
+
+    SimulatedPlayer(final int gameId, final SplittableRandom random) {
+        this.gameId = gameId;
+        this.random = random;
+    }
+
+    int getGameId() {
+        return gameId;
+    }
+
+    boolean isOver() {
+        return over;
+    }
+
+    /**
+     * Updates the board from the body of a {@code BOARD} move response.
+     */
+    void update(final JsonNode board) {
+        JsonNode pitsNode = board.get("pits");
+
+        if (pits == null)
+            pits = new int[pitsNode.size()];
+
+        for (int i = 0; i < pits.length; i++)
+            pits[i] = pitsNode.get(i).asInt();
+
+        player1 = PLAYER_1.equals(board.get("nextPlayer").asText());
+        over = GAME_OVER.equals(board.get("status").asText());
+    }
+
+    /**
+     * @return a random non-empty pit of the player to move; before the first move pit 1, which is legal on every board
+     */
+    int nextPitId() {
+        if (pits == null)
+            return 1;
+
+        int half = pits.length / 2;
+        int first = player1 ? 0 : half;
+        int pitId = -1;
+        int candidates = 0;
+
+        for (int i = first; i < first + half - 1; i++) {
+            if (pits[i] > 0 && random.nextInt(++candidates) == 0)
+                pitId = i + 1;
+        }
+
+        return pitId;
+    }
+}
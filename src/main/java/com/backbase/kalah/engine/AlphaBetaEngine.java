@@ -0,0 +1,223 @@
+package com.backbase.kalah.engine;
+
+import com.backbase.kalah.exceptions.GameOverException;
+import com.backbase.kalah.game.Position;
+import com.backbase.kalah.game.SearchBoard;
+import com.backbase.kalah.game.enums.Player;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AlphaBetaEngine finds a move with an iterative-deepening negamax search with alpha-beta pruning.
+ * <p>
+ * A move that ends in the player's own Kalah gives the same player another turn, so the score is negated only when
+ * the turn passes. Positions are scored by the difference of the Kalahs, which is exact once the game is over.
+ * Moves are ordered by the best move of the {@link TranspositionTable}, then moves that give an extra turn, then pit
+ * order from the Kalah. Every iteration must finish within the time budget, otherwise the result of the previous
+ * iteration is returned; the first iteration always finishes. The search stops early when an iteration reaches the
+ * end of every line without the table, because deeper iterations can not change the result.
+ * <p>
+ * Every search makes and unmakes its moves on one {@link SearchBoard}, so it does not allocate per position. The
+ * engine keeps no state besides the shared table, so it can search for many games concurrently.
+ */
+public final class AlphaBetaEngine implements Engine {
+    public static final int MAX_DEPTH = 64;
+
+    private static final int INFINITY = Integer.MAX_VALUE - 1;
+    private static final int TIME_CHECK_INTERVAL = 1024;
+
+    private final TranspositionTable table;
+
+    public AlphaBetaEngine(final TranspositionTable table) {
+        this.table = table;
+    }
+
+    /**
+     * Searches the best move of the player to move. Throws GameOverException if the game is over.
+     *
+     * @param position         position to search
+     * @param timeBudgetMillis time for the search
+     * @return {@link SearchResult} of the deepest completed iteration
+     */
+    @Override
+    public SearchResult search(final Position position, final long timeBudgetMillis) {
+        if (position.isGameOver())
+            throw new GameOverException("Selected game is over");
+
+        return new Search(position, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeBudgetMillis)).run();
+    }
+
+    /**
+     * State of one search. It is only used by the thread that runs the search.
+     */
+    private final class Search {
+        private final SearchBoard board;
+        private final long deadline;
+        private final long start = System.nanoTime();
+        private final int[][] moves;
+        private long nodes;
+        private boolean deadlineActive;
+        private boolean horizonReached;
+        private int rootMove;
+
+        private Search(final Position root, final long deadline) {
+            this.board = new SearchBoard(root, MAX_DEPTH);
+            this.deadline = deadline;
+            this.moves = new int[MAX_DEPTH + 1][root.getPitCount() / 2 - 1];
+        }
+
+        private SearchResult run() {
+            int bestMove = -1;
+            int bestScore = 0;
+            int completedDepth = 0;
+
+            for (int depth = 1; depth <= MAX_DEPTH; depth++) {
+                horizonReached = false;
+
+                try {
+                    bestScore = search(depth, -INFINITY, INFINITY, 0);
+                } catch (SearchTimeout ex) {
+                    break;
+                }
+
+                bestMove = rootMove;
+                completedDepth = depth;
+                deadlineActive = true;
+
+                if (!horizonReached || System.nanoTime() - deadline >= 0)
+                    break;
+            }
+
+            return new SearchResult(bestMove, bestScore, completedDepth, nodes, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+
+        private int search(final int depth, int alpha, int beta, final int ply) {
+            if (++nodes % TIME_CHECK_INTERVAL == 0 && deadlineActive && System.nanoTime() - deadline >= 0)
+                throw SearchTimeout.INSTANCE;
+
+            if (board.isGameOver())
+                return evaluate(board);
+
+            if (depth == 0) {
+                horizonReached = true;
+                return evaluate(board);
+            }
+
+            long hash = board.getHash();
+            long entry = table.probe(hash);
+            int hashMove = -1;
+
+            if (entry != TranspositionTable.MISS) {
+                hashMove = TranspositionTable.move(entry);
+
+                if (TranspositionTable.depth(entry) >= depth && ply > 0) {
+                    int score = TranspositionTable.score(entry);
+                    int bound = TranspositionTable.bound(entry);
+                    horizonReached = true;
+
+                    if (bound == TranspositionTable.EXACT)
+                        return score;
+
+                    if (bound == TranspositionTable.LOWER_BOUND)
+                        alpha = Math.max(alpha, score);
+                    else
+                        beta = Math.min(beta, score);
+
+                    if (alpha >= beta)
+                        return score;
+                }
+            }
+
+            int[] candidates = moves[ply];
+            int count = order(board, candidates, board.getLegalMoves(candidates), hashMove);
+            Player player = board.getNextPlayer();
+            int originalAlpha = alpha;
+            int bestScore = -INFINITY;
+            int bestMove = candidates[0];
+
+            for (int i = 0; i < count; i++) {
+                board.makeMove(candidates[i]);
+                int score = board.getNextPlayer() == player
+                        ? search(depth - 1, alpha, beta, ply + 1)
+                        : -search(depth - 1, -beta, -alpha, ply + 1);
+                board.unmakeMove();
+
+                if (score > bestScore) {
+                    bestScore = score;
+                    bestMove = candidates[i];
+                }
+
+                alpha = Math.max(alpha, score);
+
+                if (alpha >= beta)
+                    break;
+            }
+
+            int bound = bestScore <= originalAlpha ? TranspositionTable.UPPER_BOUND
+                    : bestScore >= beta ? TranspositionTable.LOWER_BOUND : TranspositionTable.EXACT;
+            table.store(hash, depth, bestScore, bound, bestMove);
+
+            if (ply == 0)
+                rootMove = bestMove;
+
+            return bestScore;
+        }
+    }
+
+    /**
+     * @return difference of the Kalahs of the player to move and the opponent
+     */
+    private static int evaluate(final SearchBoard board) {
+        return board.getKalahValue(board.getNextPlayer()) - board.getKalahValue(board.getNextPlayer().getNext());
+    }
+
+    /**
+     * Moves the hash move to the front, followed by the moves that give an extra turn. Legal moves are in pit order,
+     * so the rest is reversed to start from the pit next to the Kalah.
+     *
+     * @return count
+     */
+    private static int order(final SearchBoard board, final int[] pitIds, final int count, final int hashMove) {
+        for (int i = 0, j = count - 1; i < j; i++, j--) {
+            int pitId = pitIds[i];
+            pitIds[i] = pitIds[j];
+            pitIds[j] = pitId;
+        }
+
+        int front = 0;
+
+        for (int i = 0; i < count; i++) {
+            if (pitIds[i] == hashMove) {
+                moveTo(pitIds, i, front++);
+                break;
+            }
+        }
+
+        for (int i = front; i < count; i++) {
+            if (board.isExtraTurn(pitIds[i]))
+                moveTo(pitIds, i, front++);
+        }
+
+        return count;
+    }
+
+    /**
+     * Moves the element at {@code from} to {@code to} and shifts the elements in between, keeping their order.
+     */
+    private static void moveTo(final int[] pitIds, final int from, final int to) {
+        int pitId = pitIds[from];
+        System.arraycopy(pitIds, to, pitIds, to + 1, from - to);
+        pitIds[to] = pitId;
+    }
+
+    /**
+     * Ends an iteration when the time budget is over. It has no stack trace, so throwing it is cheap.
+     */
+    private static final class SearchTimeout extends RuntimeException {
+        private static final SearchTimeout INSTANCE = new SearchTimeout();
+
+        private SearchTimeout() {
+            super(null, null, false, false);
+        }
+    }
+}
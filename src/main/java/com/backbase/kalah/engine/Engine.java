@@ -0,0 +1,20 @@
+package com.backbase.kalah.engine;
+
+import com.backbase.kalah.game.Position;
+
+/**
+ * Engine finds a move for the player to move of a {@link Position}.
+ *
+ * @see AlphaBetaEngine
+ * @see MctsEngine
+ */
+public interface Engine {
+    /**
+     * Searches the best move of the player to move. Throws GameOverException if the game is over.
+     *
+     * @param position         position to search
+     * @param timeBudgetMillis time for the search
+     * @return {@link SearchResult} of the search
+     */
+    SearchResult search(final Position position, final long timeBudgetMillis);
+}
@@ -0,0 +1,6 @@
+package com.backbase.kalah.engine;
+
+public enum EngineType {
+    ALPHA_BETA,
+    MCTS
+}
@@ -0,0 +1,280 @@
+package com.backbase.kalah.engine;
+
+import com.backbase.kalah.exceptions.GameOverException;
+import com.backbase.kalah.game.Position;
+import com.backbase.kalah.game.SearchBoard;
+import com.backbase.kalah.game.enums.Player;
+
+import java.io.Closeable;
+import java.util.SplittableRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * MctsEngine finds a move with a Monte Carlo tree search, which does not need an evaluation function and scales to
+ * boards that alpha-beta can not search deep enough.
+ * <p>
+ * Every playout selects children with UCT down to a leaf, expands the leaf once it has been visited before, plays
+ * random moves to the end of the game and adds the result to the selected nodes, from the view of the player that
+ * made the move into the node. The move with the most visits is played.
+ * <p>
+ * The workers of a search share one tree (tree parallelism) and run on the {@link ForkJoinPool} of the engine. The
+ * statistics of a node are updated with atomic adds, and a visit is added on the way down before its result is known,
+ * a virtual loss that makes the other workers try other children. Trees are kept in {@link NodeArena}s that are
+ * reused by later searches, and every worker plays on its own {@link SearchBoard}, so a search does not allocate per
+ * playout. At most {@link #MAX_POOLED_ARENAS} arenas are kept; arenas of more concurrent searches are dropped when
+ * their search ends, so a burst of searches does not retain its arenas.
+ */
+public final class MctsEngine implements Engine, Closeable {
+    public static final long MAX_PLAYOUTS = 1L << 30;
+    public static final int MAX_POOLED_ARENAS = 2;
+
+    private static final double EXPLORATION = Math.sqrt(2);
+    private static final int EXPAND_VISITS = 2;
+    private static final int MAX_PLY = 4096;
+    private static final int WIN = 2;
+    private static final int DRAW = 1;
+    private static final int LOSS = 0;
+
+    private final ForkJoinPool pool;
+    private final int threads;
+    private final long playouts;
+    private final int arenaCapacity;
+    private final BlockingQueue<NodeArena> arenas = new ArrayBlockingQueue<>(MAX_POOLED_ARENAS);
+
+    /**
+     * @param threads       number of workers of a search, or 0 for the number of processors
+     * @param playouts      playout budget of a search
+     * @param arenaCapacity maximum number of tree nodes of a search
+     */
+    public MctsEngine(final int threads, final long playouts, final int arenaCapacity) {
+        if (playouts < 1 || playouts > MAX_PLAYOUTS)
+            throw new IllegalArgumentException("playouts must be between 1 and " + MAX_PLAYOUTS);
+
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.playouts = playouts;
+        this.arenaCapacity = arenaCapacity;
+        this.pool = new ForkJoinPool(this.threads);
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * @return number of arenas kept for later searches
+     */
+    int getPooledArenas() {
+        return arenas.size();
+    }
+
+    /**
+     * Searches within the playout budget of the engine and the time budget, whichever ends first.
+     */
+    @Override
+    public SearchResult search(final Position position, final long timeBudgetMillis) {
+        return search(position, playouts, timeBudgetMillis);
+    }
+
+    /**
+     * Searches the best move of the player to move. Throws GameOverException if the game is over.
+     *
+     * @param position         position to search
+     * @param playouts         playout budget, at most {@link #MAX_PLAYOUTS}
+     * @param timeBudgetMillis time for the search
+     * @return {@link SearchResult} with the number of playouts as nodes and the depth of the tree
+     */
+    public SearchResult search(final Position position, final long playouts, final long timeBudgetMillis) {
+        if (position.isGameOver())
+            throw new GameOverException("Selected game is over");
+
+        NodeArena arena = arenas.poll();
+
+        if (arena == null)
+            arena = new NodeArena(arenaCapacity);
+
+        try {
+            Search search = new Search(position, arena, Math.max(1, Math.min(playouts, MAX_PLAYOUTS)),
+                    System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeBudgetMillis));
+            pool.invoke(search);
+
+            return search.result();
+        } finally {
+            arena.reset();
+            // Drops the arena if the pool is full
+            arenas.offer(arena);
+        }
+    }
+
+    /**
+     * Stops the workers. Searches after close are rejected.
+     */
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * One search, which forks a {@link Worker} per thread and waits for them.
+     */
+    private final class Search extends RecursiveAction {
+        private final Position root;
+        private final NodeArena arena;
+        private final long deadline;
+        private final long start = System.nanoTime();
+        private final AtomicLong remaining;
+        private final AtomicLong completed = new AtomicLong();
+        private final AtomicInteger depth = new AtomicInteger();
+        private final SplittableRandom random = new SplittableRandom();
+
+        private Search(final Position root, final NodeArena arena, final long playouts, final long deadline) {
+            this.root = root;
+            this.arena = arena;
+            this.remaining = new AtomicLong(playouts);
+            this.deadline = deadline;
+        }
+
+        @Override
+        protected void compute() {
+            Worker[] workers = new Worker[threads];
+
+            for (int i = 0; i < threads; i++)
+                workers[i] = new Worker(this, random.split());
+
+            invokeAll(workers);
+        }
+
+        /**
+         * @return the most visited child of the root, scored by its expected result in per mille
+         */
+        private SearchResult result() {
+            int first = arena.firstChild(NodeArena.ROOT);
+            int bestMove = -1;
+            int bestVisits = -1;
+            long bestRewards = 0;
+
+            for (int i = 0; first > 0 && i < arena.childCount(NodeArena.ROOT); i++) {
+                long stats = arena.stats(first + i);
+
+                if (NodeArena.visits(stats) > bestVisits) {
+                    bestVisits = NodeArena.visits(stats);
+                    bestRewards = NodeArena.rewards(stats);
+                    bestMove = arena.move(first + i);
+                }
+            }
+
+            if (bestMove < 0) {
+                int[] pitIds = new int[root.getPitCount() / 2 - 1];
+                root.getLegalMoves(pitIds);
+                bestMove = pitIds[0];
+            }
+
+            int score = bestVisits > 0 ? (int) (bestRewards * 1000 / (WIN * bestVisits)) : 500;
+
+            return new SearchResult(bestMove, score, depth.get(), completed.get(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
+
+    /**
+     * Runs playouts until the budget of its search is used. It is only used by the thread that runs it.
+     */
+    private static final class Worker extends RecursiveAction {
+        private final Search search;
+        private final NodeArena arena;
+        private final SearchBoard board;
+        private final SplittableRandom random;
+        private final int[] moves;
+        private final int[] path = new int[MAX_PLY + 1];
+        private final Player[] movers = new Player[MAX_PLY + 1];
+        private int maxDepth;
+
+        private Worker(final Search search, final SplittableRandom random) {
+            this.search = search;
+            this.arena = search.arena;
+            this.board = new SearchBoard(search.root, MAX_PLY);
+            this.random = random;
+            this.moves = new int[search.root.getPitCount() / 2 - 1];
+        }
+
+        @Override
+        protected void compute() {
+            while (System.nanoTime() - search.deadline < 0 && search.remaining.getAndDecrement() > 0) {
+                playout();
+                search.completed.incrementAndGet();
+            }
+
+            search.depth.accumulateAndGet(maxDepth, Math::max);
+        }
+
+        private void playout() {
+            int node = NodeArena.ROOT;
+            int length = 1;
+            arena.addVisit(node);
+
+            while (!board.isGameOver() && board.getPly() < MAX_PLY) {
+                int first = arena.firstChild(node);
+
+                if (first == NodeArena.UNEXPANDED && (node == NodeArena.ROOT || NodeArena.visits(arena.stats(node)) >= EXPAND_VISITS)
+                        && arena.claim(node))
+                    first = arena.expand(node, moves, board.getLegalMoves(moves));
+
+                if (first <= 0)
+                    break;
+
+                node = select(node, first);
+                arena.addVisit(node);
+                movers[length] = board.getNextPlayer();
+                path[length++] = node;
+                board.makeMove(arena.move(node));
+            }
+
+            maxDepth = Math.max(maxDepth, length - 1);
+
+            while (!board.isGameOver() && board.getPly() < MAX_PLY)
+                board.makeMove(moves[random.nextInt(board.getLegalMoves(moves))]);
+
+            int difference = board.getKalahValue(Player.PLAYER_1) - board.getKalahValue(Player.PLAYER_2);
+
+            for (int i = 1; i < length; i++) {
+                int signed = movers[i] == Player.PLAYER_1 ? difference : -difference;
+                arena.addReward(path[i], signed > 0 ? WIN : signed == 0 ? DRAW : LOSS);
+            }
+
+            while (board.getPly() > 0)
+                board.unmakeMove();
+        }
+
+        /**
+         * @return the child with the highest UCT value, or the first unvisited child
+         */
+        private int select(final int node, final int first) {
+            int count = arena.childCount(node);
+            double logVisits = Math.log(Math.max(1, NodeArena.visits(arena.stats(node))));
+            double bestValue = Double.NEGATIVE_INFINITY;
+            int best = first;
+
+            for (int child = first; child < first + count; child++) {
+                long stats = arena.stats(child);
+                int visits = NodeArena.visits(stats);
+
+                if (visits == 0)
+                    return child;
+
+                double value = NodeArena.rewards(stats) / (double) (WIN * visits) + EXPLORATION * Math.sqrt(logVisits / visits);
+
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = child;
+                }
+            }
+
+            return best;
+        }
+    }
+}
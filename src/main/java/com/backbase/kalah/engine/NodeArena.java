@@ -0,0 +1,145 @@
+package com.backbase.kalah.engine;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * NodeArena is a preallocated search tree of {@link MctsEngine}, reused by one search after the other so a search
+ * does not allocate nodes. A node is an index into parallel arrays; the children of a node are a contiguous block.
+ * <p>
+ * The statistics of a node are one long, the visits in the low 32 bits and the reward in half points (two for a win,
+ * one for a draw) in the high 32 bits, so a visit and a reward are each a single atomic add. A node is expanded by the
+ * thread that wins a CAS on its first child index; its children are written before the index is published.
+ */
+final class NodeArena {
+    static final int ROOT = 0;
+    static final int UNEXPANDED = 0;
+    static final int EXPANDING = -1;
+    static final int FULL = -2;
+
+    private final AtomicLongArray stats;
+    private final AtomicIntegerArray firstChildren;
+    private final int[] childCounts;
+    private final int[] moves;
+    private final AtomicInteger size = new AtomicInteger(1);
+
+    /**
+     * @param capacity maximum number of nodes
+     */
+    NodeArena(final int capacity) {
+        if (capacity < 2)
+            throw new IllegalArgumentException("capacity must be at least 2");
+
+        this.stats = new AtomicLongArray(capacity);
+        this.firstChildren = new AtomicIntegerArray(capacity);
+        this.childCounts = new int[capacity];
+        this.moves = new int[capacity];
+    }
+
+    /**
+     * Removes all nodes except an unexpanded root. The arrays are not cleared, nodes are initialized when they are
+     * allocated again.
+     */
+    void reset() {
+        size.set(1);
+        stats.set(ROOT, 0);
+        firstChildren.set(ROOT, UNEXPANDED);
+    }
+
+    int capacity() {
+        return moves.length;
+    }
+
+    int size() {
+        return Math.min(size.get(), moves.length);
+    }
+
+    /**
+     * @return index of the first child, or {@link #UNEXPANDED}, {@link #EXPANDING} or {@link #FULL}
+     */
+    int firstChild(final int node) {
+        return firstChildren.get(node);
+    }
+
+    /**
+     * Only valid after {@link #firstChild(int)} returned a child index.
+     */
+    int childCount(final int node) {
+        return childCounts[node];
+    }
+
+    /**
+     * @return pit id of the move that leads to the node
+     */
+    int move(final int node) {
+        return moves[node];
+    }
+
+    long stats(final int node) {
+        return stats.get(node);
+    }
+
+    static int visits(final long stats) {
+        return (int) stats;
+    }
+
+    static long rewards(final long stats) {
+        return stats >>> 32;
+    }
+
+    /**
+     * Adds a visit without a reward. Added on the way down, it is a virtual loss that steers other threads to other
+     * children until the reward is added.
+     */
+    void addVisit(final int node) {
+        stats.getAndAdd(node, 1);
+    }
+
+    /**
+     * @param halfPoints two for a win, one for a draw
+     */
+    void addReward(final int node, final int halfPoints) {
+        if (halfPoints > 0)
+            stats.getAndAdd(node, (long) halfPoints << 32);
+    }
+
+    /**
+     * Claims the expansion of an unexpanded node.
+     *
+     * @return true if the calling thread must expand the node
+     */
+    boolean claim(final int node) {
+        return firstChildren.compareAndSet(node, UNEXPANDED, EXPANDING);
+    }
+
+    /**
+     * Allocates the children of a claimed node and publishes them, or marks the node {@link #FULL} if the arena is
+     * full.
+     *
+     * @param node   claimed node
+     * @param pitIds moves of the children
+     * @param count  number of children
+     * @return index of the first child, or {@link #FULL}
+     */
+    int expand(final int node, final int[] pitIds, final int count) {
+        int first = size.getAndAdd(count);
+
+        if (first > moves.length - count) {
+            firstChildren.set(node, FULL);
+            return FULL;
+        }
+
+        for (int i = 0; i < count; i++) {
+            moves[first + i] = pitIds[i];
+            childCounts[first + i] = 0;
+            stats.set(first + i, 0);
+            firstChildren.set(first + i, UNEXPANDED);
+        }
+
+        childCounts[node] = count;
+        firstChildren.set(node, first);
+
+        return first;
+    }
+}
@@ -0,0 +1,62 @@
+package com.backbase.kalah.engine;
+
+/**
+ * Result of a move search: the best move and its score for the player to move.
+ */
+public final class SearchResult {
+    private final int pitId;
+    private final int score;
+    private final int depth;
+    private final long nodes;
+    private final long elapsedMillis;
+
+    SearchResult(final int pitId, final int score, final int depth, final long nodes, final long elapsedMillis) {
+        this.pitId = pitId;
+        this.score = score;
+        this.depth = depth;
+        this.nodes = nodes;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * @return id of the pit to play
+     */
+    public int getPitId() {
+        return pitId;
+    }
+
+    /**
+     * @return expected difference of the Kalahs of the player to move and the opponent for {@link AlphaBetaEngine},
+     * expected result of the player to move in per mille (1000 is a win, 500 a draw) for {@link MctsEngine}
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * @return depth of the deepest completed iteration, or of the deepest tree node of {@link MctsEngine}, in moves
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * @return number of searched positions, including the unfinished iteration, or playouts of {@link MctsEngine}
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * @return duration of the whole search, including the unfinished iteration
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "SearchResult{pitId=" + pitId + ", score=" + score + ", depth=" + depth + ", nodes=" + nodes +
+                ", elapsedMillis=" + elapsedMillis + '}';
+    }
+}
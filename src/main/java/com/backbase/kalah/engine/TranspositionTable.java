@@ -0,0 +1,104 @@
+package com.backbase.kalah.engine;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * TranspositionTable is a fixed-size, lock-free table of search results keyed by {@link com.backbase.kalah.game.Position}
+ * hashes, shared by all searches.
+ * <p>
+ * Every slot is two longs, the packed entry and the hash XOR the entry. A reader accepts a slot only if both longs
+ * give back its hash, so an entry that is torn by two concurrent writers is seen as a miss instead of a wrong result.
+ * A slot is replaced unless it holds the same position from a deeper search.
+ */
+public final class TranspositionTable {
+    public static final long MISS = 0;
+    public static final int EXACT = 1;
+    public static final int LOWER_BOUND = 2;
+    public static final int UPPER_BOUND = 3;
+
+    private static final int MAX_DEPTH = 0xFF;
+    private static final int MAX_MOVE = 0xFFFF - 1;
+
+    private final AtomicLongArray slots;
+    private final int mask;
+
+    /**
+     * @param entries number of entries, rounded up to a power of two
+     */
+    public TranspositionTable(final int entries) {
+        if (entries <= 0 || entries > 1 << 29)
+            throw new IllegalArgumentException("entries must be between 1 and " + (1 << 29));
+
+        int size = entries == 1 ? 1 : Integer.highestOneBit(entries - 1) << 1;
+
+        this.slots = new AtomicLongArray(size * 2);
+        this.mask = size - 1;
+    }
+
+    public int size() {
+        return mask + 1;
+    }
+
+    /**
+     * @param hash hash of the position
+     * @return packed entry of the position, or {@link #MISS}
+     */
+    public long probe(final long hash) {
+        int index = index(hash);
+        long entry = slots.get(index + 1);
+
+        return entry != MISS && (slots.get(index) ^ entry) == hash ? entry : MISS;
+    }
+
+    /**
+     * @param hash  hash of the position
+     * @param depth remaining depth of the search that produced the score
+     * @param score score for the player to move
+     * @param bound {@link #EXACT}, {@link #LOWER_BOUND} or {@link #UPPER_BOUND}
+     * @param move  best move, or -1
+     */
+    public void store(final long hash, final int depth, final int score, final int bound, final int move) {
+        int index = index(hash);
+        long current = slots.get(index + 1);
+
+        if (current != MISS && (slots.get(index) ^ current) == hash && depth(current) > depth)
+            return;
+
+        long entry = (long) bound << 56 | (long) Math.min(depth, MAX_DEPTH) << 48 | (long) (Math.min(move, MAX_MOVE) + 1) << 32
+                | score & 0xFFFFFFFFL;
+
+        slots.lazySet(index, hash ^ entry);
+        slots.lazySet(index + 1, entry);
+    }
+
+    public static int depth(final long entry) {
+        return (int) (entry >>> 48) & 0xFF;
+    }
+
+    public static int bound(final long entry) {
+        return (int) (entry >>> 56) & 0x3;
+    }
+
+    /**
+     * @return best move of the entry, or -1
+     */
+    public static int move(final long entry) {
+        return ((int) (entry >>> 32) & 0xFFFF) - 1;
+    }
+
+    public static int score(final long entry) {
+        return (int) entry;
+    }
+
+    /**
+     * Removes all entries. Concurrent searches may still add entries while the table is cleared.
+     */
+    public void clear() {
+        for (int i = 0; i < slots.length(); i++)
+            slots.lazySet(i, 0);
+    }
+
+    private int index(final long hash) {
+        return ((int) (hash ^ hash >>> 32) & mask) << 1;
+    }
+}
@@ -0,0 +1,7 @@
+package com.backbase.kalah.exceptions;
+
+public class GameChangedException extends KalahException {
+    public GameChangedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.backbase.kalah.exceptions;
+
+public class InvalidGameCountException extends KalahException {
+    public InvalidGameCountException(String message) {
+        super(message);
+    }
+}
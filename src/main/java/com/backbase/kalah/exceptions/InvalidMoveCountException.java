@@ -0,0 +1,7 @@
+package com.backbase.kalah.exceptions;
+
+public class InvalidMoveCountException extends KalahException {
+    public InvalidMoveCountException(String message) {
+        super(message);
+    }
+}
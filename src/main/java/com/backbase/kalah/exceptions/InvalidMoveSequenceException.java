@@ -0,0 +1,14 @@
+package com.backbase.kalah.exceptions;
+
+public class InvalidMoveSequenceException extends KalahException {
+    private final int moveIndex;
+
+    public InvalidMoveSequenceException(int moveIndex, KalahException cause) {
+        super("Move " + moveIndex + " of the sequence was rejected: " + cause.getMessage(), cause);
+        this.moveIndex = moveIndex;
+    }
+
+    public int getMoveIndex() {
+        return moveIndex;
+    }
+}
@@ -1,7 +1,15 @@
 package com.backbase.kalah.exceptions;
 
+/**
+ * Base of the rule violations of the game. Clients cause them all the time, so they are created without a
+ * stack trace; the message says everything about the violation.
+ */
 public class KalahException extends RuntimeException {
     KalahException(String message) {
-        super(message);
+        super(message, null, true, false);
+    }
+
+    KalahException(String message, Throwable cause) {
+        super(message, cause, true, false);
     }
 }
@@ -0,0 +1,228 @@
+package com.backbase.kalah.game;
+
+import com.backbase.kalah.exceptions.InvalidPitIdException;
+import com.backbase.kalah.exceptions.InvalidStoneCountException;
+import com.backbase.kalah.game.enums.BoardType;
+import com.backbase.kalah.game.enums.GameStatus;
+import com.backbase.kalah.game.enums.KalahType;
+import com.backbase.kalah.game.enums.MoveResult;
+import com.backbase.kalah.game.enums.PitType;
+import com.backbase.kalah.game.enums.Player;
+
+import java.io.Serializable;
+import java.util.Optional;
+
+/**
+ * Board is the business-rule entity of a single game.
+ * Implementations only differ in how they store the board state.
+ *
+ * @see BoardEntity
+ * @see PackedBoardEntity
+ */
+interface Board extends Serializable {
+    /**
+     * Creates a new board of the given type
+     *
+     * @param type       storage type of the board
+     * @param pitCount   pitCount is a positive number larger than 6 and it must be a factor of 2
+     * @param stoneCount stoneCount must be greater than zero
+     * @return new {@link Board}
+     */
+    static Board create(final BoardType type, final int pitCount, final int stoneCount) {
+        return type == BoardType.PACKED ? new PackedBoardEntity(pitCount, stoneCount) : new BoardEntity(pitCount, stoneCount);
+    }
+
+    /**
+     * Restores a board of the given type from a stored state
+     *
+     * @param type     storage type of the board
+     * @param geometry geometry of the board
+     * @param pits     stone count of every pit
+     * @param flags    {@link BoardFlags} of the board
+     * @param version  version of the board
+     * @return restored {@link Board}
+     */
+    static Board restore(final BoardType type, final BoardGeometry geometry, final int[] pits, final int flags, final int version) {
+        if (type != BoardType.PACKED)
+            return new BoardEntity(geometry, pits, flags, version);
+
+        byte[] packed = new byte[pits.length];
+
+        for (int pitId = 0; pitId < pits.length; pitId++) {
+            if (pits[pitId] > PackedBoardEntity.MAX_STONES)
+                throw new InvalidStoneCountException("Packed board can not hold more than " + PackedBoardEntity.MAX_STONES + " stones");
+
+            packed[pitId] = (byte) pits[pitId];
+        }
+
+        return new PackedBoardEntity(geometry, packed, (byte) flags, version);
+    }
+
+    /**
+     * @return shared {@link BoardGeometry} of this board
+     */
+    BoardGeometry getGeometry();
+
+    /**
+     * @return a detached copy of this board
+     */
+    Board copy();
+
+    /**
+     * Returns the number of moves applied to this board. It grows with every move and never goes back.
+     *
+     * @return version of the board
+     */
+    int getVersion();
+
+    /**
+     * Increments the version of the board after a move
+     */
+    void incrementVersion();
+
+    /**
+     * Returns a copy of the pits
+     *
+     * @return an {@code int[]} that is not backed by the board
+     */
+    int[] toArray();
+
+    /**
+     * Returns the stone count available inside the given pit.
+     * Throws InvalidPitIdException if the pitId is not valid.
+     *
+     * @param pitId id of the pit
+     * @return stone count of the pit
+     */
+    int getPitValue(final int pitId);
+
+    /**
+     * Removes stones from the given pit and divides them between next pits, skipping the opponent's Kalah.
+     *
+     * @param pitId id of the source pit
+     * @return the id of the last seeded pit
+     */
+    int move(final int pitId);
+
+    /**
+     * @param player player
+     * @return true if the player has at least one stone in one of his pits
+     */
+    boolean hasAnyStone(final Player player);
+
+    /**
+     * @return {@link Player} that must play the next move
+     */
+    Player getNextPlayer();
+
+    /**
+     * @return current {@link GameStatus} of the game
+     */
+    GameStatus getStatus();
+
+    /**
+     * @return winner of the game if there is any
+     */
+    Optional<Player> getWinner();
+
+    /**
+     * Moves all stones of the given pit to given Kalah
+     *
+     * @param pitId     id of the source pit
+     * @param kalahType type of destination Kalah
+     */
+    void moveStonesToKalah(final int pitId, final KalahType kalahType);
+
+    /**
+     * Flushes all stones of the given player to his Kalah
+     *
+     * @param player the source player
+     */
+    void flushToKalah(final Player player);
+
+    /**
+     * Sets game status to {@code GameStatus.GAME_OVER}
+     */
+    void gameOver();
+
+    /**
+     * Sets game winner
+     *
+     * @param winner winner of the game
+     */
+    void setWinner(final Player winner);
+
+    /**
+     * Changes the next player
+     */
+    void changeNextPlayer();
+
+    /**
+     * Returns the last pit index for player 1
+     *
+     * @return index of player 1 Kalah
+     */
+    default int getPlayer1LastPitIndex() {
+        return getGeometry().getPlayer1LastPitIndex();
+    }
+
+    /**
+     * Returns the last pit index for player 2
+     *
+     * @return index of player 2 Kalah
+     */
+    default int getPlayer2LastPitIndex() {
+        return getGeometry().getPlayer2LastPitIndex();
+    }
+
+    /**
+     * Validates a move of the next player without throwing exceptions, with the same rules as {@link #move(int)}
+     * and the game status.
+     *
+     * @param pitId id of the pit
+     * @return {@link MoveResult#ACCEPTED} or the reason of the rejection
+     */
+    default MoveResult validateMove(final int pitId) {
+        if (getStatus() == GameStatus.GAME_OVER)
+            return MoveResult.GAME_OVER;
+
+        if (!getGeometry().isPitId(pitId))
+            return MoveResult.INVALID_PIT_ID;
+
+        return getGeometry().validateMove(getGeometry().getPitType(pitId), getPitValue(pitId), getNextPlayer());
+    }
+
+    /**
+     * Returns the type of given pit.
+     *
+     * @param pitId id of the pit
+     * @return {@link PitType}
+     */
+    default PitType getPitType(final int pitId) {
+        return getGeometry().getPitType(pitId);
+    }
+
+    /**
+     * @param pitId id of the pit
+     * @return {@link Player} that is the owner of the given pitId
+     */
+    default Player getPitPlayer(final int pitId) {
+        return getGeometry().getPitType(pitId).getPlayer();
+    }
+
+    /**
+     * Returns the id of the opposite pit of the pitId.
+     * For example in a 14 pit game, the opposite of {@code pits[0]} is {@code pits[12]}.
+     *
+     * @param pitId id of the pit
+     * @return the id of the opposite pit
+     */
+    default int getOppositePitId(final int pitId) {
+        PitType type = getGeometry().getPitType(pitId);
+
+        if (type == PitType.PLAYER_1_KALAH || type == PitType.PLAYER_2_KALAH)
+            throw new InvalidPitIdException("Selected pit is a Kalah");
+
+        return getGeometry().getPitCount() - 2 - pitId;
+    }
+}
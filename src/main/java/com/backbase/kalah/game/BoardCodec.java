@@ -0,0 +1,247 @@
+package com.backbase.kalah.game;
+
+import com.backbase.kalah.game.enums.BoardType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * BoardCodec is a versioned binary encoding of the state of a {@link Board}.
+ * It is independent of the board implementation, so any {@code DataAccess} can use it to store or transfer games,
+ * and user interfaces use the same encoding for {@link GameState} and {@link MoveDelta}.
+ * <p>
+ * Board and {@link GameState} layout: {@code [byte format][varint pitCount][byte flags][varint version][varint pit]...}.
+ * <br>
+ * {@link MoveDelta} layout: {@code [byte format][varint pitId][byte flags][varint version][varint changeCount]
+ * ([varint pitId][varint pit])...}, where bit 4 of the flags is a capture and bit 5 an extra turn.
+ * <p>
+ * Flags are {@link BoardFlags}. Varints are unsigned LEB128, so a pit with less than 128 stones takes a single byte and
+ * a standard 14 pit board takes 18 bytes.
+ * <p>
+ * Decoding rejects a pit count above {@link #MAX_PIT_COUNT}, unknown flags and negative pits with IOException, so
+ * corrupt input never reaches {@link BoardGeometry#of(int)}.
+ */
+public final class BoardCodec {
+    public static final int FORMAT = 1;
+    public static final int MAX_PIT_COUNT = 1024;
+
+    private static final int CAPTURE_FLAG = 0x10;
+    private static final int EXTRA_TURN_FLAG = 0x20;
+
+    private BoardCodec() {
+    }
+
+    /**
+     * @param board the board
+     * @return encoded state of the board
+     */
+    static byte[] encode(final Board board) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(4 + board.getGeometry().getPitCount());
+
+        try {
+            write(board, new DataOutputStream(bytes));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Throws IllegalArgumentException if the bytes are not a valid encoded board.
+     *
+     * @param bytes encoded state of a board
+     * @param type  storage type of the decoded board
+     * @return decoded {@link Board}
+     */
+    static Board decode(final byte[] bytes, final BoardType type) {
+        try {
+            return read(new DataInputStream(new ByteArrayInputStream(bytes)), type);
+        } catch (IOException ex) {
+            throw new IllegalArgumentException("Invalid encoded board", ex);
+        }
+    }
+
+    /**
+     * Writes the state of the board
+     *
+     * @param board the board
+     * @param out   destination
+     * @throws IOException if the destination can not be written
+     */
+    static void write(final Board board, final DataOutput out) throws IOException {
+        int[] pits = board.toArray();
+
+        out.writeByte(FORMAT);
+        writeVarInt(out, pits.length);
+        out.writeByte(BoardFlags.of(board));
+        writeVarInt(out, board.getVersion());
+
+        for (int pit : pits)
+            writeVarInt(out, pit);
+    }
+
+    /**
+     * Reads the state of a board written by {@link #write(Board, DataOutput)}
+     *
+     * @param in   source
+     * @param type storage type of the decoded board
+     * @return decoded {@link Board}
+     * @throws IOException if the source can not be read, has an unknown format or is not a valid board
+     */
+    static Board read(final DataInput in, final BoardType type) throws IOException {
+        int format = in.readUnsignedByte();
+
+        if (format != FORMAT)
+            throw new IOException("Unsupported board format: " + format);
+
+        BoardGeometry geometry = readGeometry(in);
+        int flags = readFlags(in);
+        int version = readVarInt(in);
+        int[] pits = new int[geometry.getPitCount()];
+
+        for (int pitId = 0; pitId < pits.length; pitId++)
+            pits[pitId] = readPit(in);
+
+        return Board.restore(type, geometry, pits, flags, version);
+    }
+
+    /**
+     * Writes a game state in the board layout
+     *
+     * @param state the state
+     * @param out   destination
+     * @throws IOException if the destination can not be written
+     */
+    public static void write(final GameState state, final DataOutput out) throws IOException {
+        out.writeByte(FORMAT);
+        writeVarInt(out, state.getPitCount());
+        out.writeByte(BoardFlags.encode(state.getStatus(), state.getNextPlayer(), state.getWinner().orElse(null)));
+        writeVarInt(out, state.getVersion());
+
+        for (int pitId = 0; pitId < state.getPitCount(); pitId++)
+            writeVarInt(out, state.getPit(pitId));
+    }
+
+    /**
+     * Reads a game state written by {@link #write(GameState, DataOutput)}
+     *
+     * @param gameId id of the game
+     * @param in     source
+     * @return the state
+     * @throws IOException if the source can not be read, has an unknown format or is not a valid board
+     */
+    public static GameState readState(final int gameId, final DataInput in) throws IOException {
+        int format = in.readUnsignedByte();
+
+        if (format != FORMAT)
+            throw new IOException("Unsupported board format: " + format);
+
+        int[] pits = new int[readGeometry(in).getPitCount()];
+        int flags = readFlags(in);
+        int version = readVarInt(in);
+
+        for (int pitId = 0; pitId < pits.length; pitId++)
+            pits[pitId] = readPit(in);
+
+        return new GameState(gameId, version, pits, flags);
+    }
+
+    /**
+     * Writes the changed pits and the new state of a move
+     *
+     * @param delta the delta
+     * @param out   destination
+     * @throws IOException if the destination can not be written
+     */
+    public static void write(final MoveDelta delta, final DataOutput out) throws IOException {
+        int flags = BoardFlags.encode(delta.getStatus(), delta.getNextPlayer(), delta.getWinner().orElse(null));
+
+        if (delta.isCapture())
+            flags |= CAPTURE_FLAG;
+
+        if (delta.isExtraTurn())
+            flags |= EXTRA_TURN_FLAG;
+
+        out.writeByte(FORMAT);
+        writeVarInt(out, delta.getPitId());
+        out.writeByte(flags);
+        writeVarInt(out, delta.getVersion());
+        writeVarInt(out, delta.getChangeCount());
+
+        for (int i = 0; i < delta.getChangeCount(); i++) {
+            writeVarInt(out, delta.getChangedPitId(i));
+            writeVarInt(out, delta.getChangedValue(i));
+        }
+    }
+
+    private static BoardGeometry readGeometry(final DataInput in) throws IOException {
+        int pitCount = readVarInt(in);
+
+        if (pitCount < 6 || pitCount > MAX_PIT_COUNT || pitCount % 2 != 0)
+            throw new IOException("Invalid pit count: " + pitCount);
+
+        return BoardGeometry.of(pitCount);
+    }
+
+    private static int readFlags(final DataInput in) throws IOException {
+        int flags = in.readUnsignedByte();
+
+        if (!BoardFlags.isValid(flags))
+            throw new IOException("Invalid board flags: " + flags);
+
+        return flags;
+    }
+
+    private static int readPit(final DataInput in) throws IOException {
+        int pit = readVarInt(in);
+
+        if (pit < 0)
+            throw new IOException("Invalid stone count: " + pit);
+
+        return pit;
+    }
+
+    /**
+     * Writes an unsigned LEB128 varint, negative values take five bytes
+     *
+     * @param out   destination
+     * @param value the value
+     * @throws IOException if the destination can not be written
+     */
+    public static void writeVarInt(final DataOutput out, final int value) throws IOException {
+        int remaining = value;
+
+        while ((remaining & ~0x7F) != 0) {
+            out.writeByte((remaining & 0x7F) | 0x80);
+            remaining >>>= 7;
+        }
+
+        out.writeByte(remaining);
+    }
+
+    /**
+     * @param in source
+     * @return the varint written by {@link #writeVarInt(DataOutput, int)}
+     * @throws IOException if the source can not be read or the varint is longer than five bytes
+     */
+    public static int readVarInt(final DataInput in) throws IOException {
+        int value = 0;
+
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+
+            if ((b & 0x80) == 0)
+                return value;
+        }
+
+        throw new IOException("Malformed varint");
+    }
+}
@@ -1,17 +1,12 @@
 package com.backbase.kalah.game;
 
-import com.backbase.kalah.exceptions.InvalidPitCountException;
-import com.backbase.kalah.exceptions.InvalidPitIdException;
-import com.backbase.kalah.exceptions.InvalidPlayerException;
 import com.backbase.kalah.exceptions.InvalidStoneCountException;
 import com.backbase.kalah.game.enums.GameStatus;
 import com.backbase.kalah.game.enums.KalahType;
 import com.backbase.kalah.game.enums.PitType;
 import com.backbase.kalah.game.enums.Player;
 
-import java.io.Serializable;
 import java.util.Optional;
-import java.util.stream.IntStream;
 
 /**
  * BoardEntity is the deepest entity of this program that is not depended on
@@ -19,19 +14,17 @@ import java.util.stream.IntStream;
  * <p>
  * Game rules (Use-Cases) are not controlled here.
  */
-class BoardEntity implements Serializable {
-    private static final long serialVersionUID = 1L;
+class BoardEntity implements Board {
+    private static final long serialVersionUID = 2L;
 
-    private int pitCount;
-    private int player1LastPitIndex;
-    private int player2FirstPitIndex;
-    private int player2LastPitIndex;
+    private BoardGeometry geometry;
 
     private int[] pits;
 
     private GameStatus status = GameStatus.RUNNING;
     private Player nextPlayer;
     private Player winner = null;
+    private int version = 0;
 
     /**
      * Instantiates a new BoardEntity.
@@ -42,48 +35,84 @@ class BoardEntity implements Serializable {
      * @param stoneCount stoneCount must be greater than zero"
      */
     BoardEntity(final int pitCount, final int stoneCount) {
-        checkPitCount(pitCount);
+        this.geometry = BoardGeometry.of(pitCount);
 
         if (stoneCount < 1)
             throw new InvalidStoneCountException("stoneCount must be greater than zero");
 
         this.pits = new int[pitCount];
-        this.pitCount = pitCount;
-        this.player1LastPitIndex = pitCount / 2 - 1;
-        this.player2FirstPitIndex = player1LastPitIndex + 1;
-        this.player2LastPitIndex = pitCount - 1;
         this.nextPlayer = Player.PLAYER_1;
 
-        IntStream.range(0, pitCount)
-                .filter(pitId -> pitId != player1LastPitIndex && pitId != player2LastPitIndex)
-                .forEach(pitId -> pits[pitId] = stoneCount);
+        for (int pitId = 0; pitId < pitCount; pitId++)
+            pits[pitId] = stoneCount;
+
+        pits[geometry.getPlayer1LastPitIndex()] = 0;
+        pits[geometry.getPlayer2LastPitIndex()] = 0;
     }
 
     /**
-     * Returns the pits array
+     * Instantiates a board from a stored state
      *
-     * @return an {@code int[]}
+     * @param geometry geometry of the board
+     * @param pits     pits of the board, the array is owned by the new board
+     * @param flags    {@link BoardFlags} of the board
+     * @param version  version of the board
      */
-    int[] getPits() {
-        return pits;
+    BoardEntity(final BoardGeometry geometry, final int[] pits, final int flags, final int version) {
+        this.geometry = geometry;
+        this.pits = pits;
+        this.status = BoardFlags.status(flags);
+        this.nextPlayer = BoardFlags.nextPlayer(flags);
+        this.winner = BoardFlags.winner(flags);
+        this.version = version;
     }
 
     /**
-     * Returns the last pit index for player 1
+     * Instantiates a copy of the given board
      *
-     * @return value of parameter {@code player1LastPitIndex}
+     * @param board source board
      */
-    int getPlayer1LastPitIndex() {
-        return player1LastPitIndex;
+    private BoardEntity(final BoardEntity board) {
+        this.geometry = board.geometry;
+        this.pits = board.pits.clone();
+        this.status = board.status;
+        this.nextPlayer = board.nextPlayer;
+        this.winner = board.winner;
+        this.version = board.version;
     }
 
     /**
-     * Returns the last pit index for player 2
+     * Returns the pits array
      *
-     * @return value of parameter {@code player2LastPitIndex}
+     * @return an {@code int[]}
      */
-    int getPlayer2LastPitIndex() {
-        return player2LastPitIndex;
+    int[] getPits() {
+        return pits;
+    }
+
+    @Override
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    @Override
+    public Board copy() {
+        return new BoardEntity(this);
+    }
+
+    @Override
+    public int getVersion() {
+        return version;
+    }
+
+    @Override
+    public void incrementVersion() {
+        version++;
+    }
+
+    @Override
+    public int[] toArray() {
+        return pits.clone();
     }
 
     /**
@@ -93,71 +122,48 @@ class BoardEntity implements Serializable {
      * @param pitId id of the pit
      * @return value of the pitId cell from pits array
      */
-    int getPitValue(final int pitId) {
-        checkPitId(pitId);
+    @Override
+    public int getPitValue(final int pitId) {
+        geometry.checkPitId(pitId);
         return pits[pitId];
     }
 
-    /**
-     * Returns the value of the opposite pit of the pitId.
-     * For example in a 14 pit game, the opposite of {@code pits[0]} is {@code pits[12]}. In this case
-     * if we call this method with {@code pitId = 0} this method will return the stone count of {@code pits[12]}
-     *
-     * @param pitId id of the pit
-     * @return the value of the opposite pit
-     */
-    int getOppositePitId(final int pitId) {
-        checkPitId(pitId);
-        PitType type = getPitType(pitId);
-
-        if (type == PitType.PLAYER_1_KALAH || type == PitType.PLAYER_2_KALAH)
-            throw new InvalidPitIdException("Selected pit is a Kalah");
-
-        return pitCount - 2 - pitId;
-    }
-
     /**
      * Removes stones from {@code pits[pitId]} and divides them between next pits.
      * According to business rules, opponents Kalah is restricted in this action and
      * the method will skip apponents Kalah.
+     * <p>
+     * Full laps around the board are distributed arithmetically and only the remainder is sown
+     * stone by stone, so a move costs O(pitCount) regardless of the stone count.
      *
      * @param pitId id of the source pit
      * @return the id of the last seeded pit
      */
-    int move(final int pitId) {
-        PitType type = getPitType(pitId);
-        int pitValue = getPitValue(pitId);
+    @Override
+    public int move(final int pitId) {
+        PitType type = geometry.getPitType(pitId);
+        int pitValue = pits[pitId];
 
-        if (type.getPlayer() != nextPlayer) {
-            throw new InvalidPlayerException(nextPlayer + "'s turn");
-        }
+        geometry.checkMove(type, pitValue, nextPlayer);
 
-        if (type == PitType.PLAYER_1_KALAH || type == PitType.PLAYER_2_KALAH) {
-            throw new InvalidPitIdException("Selected pit is a Kalah");
-        }
-
-        if (pitValue == 0) {
-            throw new InvalidPitIdException("Selected pit is empty");
-        }
-
-
-        PitType restrictedType = type == PitType.PLAYER_1_PIT ? PitType.PLAYER_2_KALAH : PitType.PLAYER_1_KALAH;
-        int nextPit = pitId;
+        int pitCount = geometry.getPitCount();
+        int laps = pitValue / (pitCount - 1);
+        int remainder = pitValue % (pitCount - 1);
 
         pits[pitId] = 0;
 
-        while (pitValue > 0) {
-            nextPit++;
+        if (laps > 0) {
+            for (int i = 0; i < pitCount; i++)
+                pits[i] += laps;
 
-            if (nextPit > player2LastPitIndex)
-                nextPit = 0;
+            pits[geometry.getKalahIndex(nextPlayer.getNext())] -= laps;
+        }
 
-            PitType nextPitType = getPitType(nextPit);
+        int nextPit = pitId;
 
-            if (nextPitType != restrictedType) {
-                pitValue--;
-                pits[nextPit]++;
-            }
+        for (int i = 0; i < remainder; i++) {
+            nextPit = geometry.getNextPit(nextPlayer, nextPit);
+            pits[nextPit]++;
         }
 
         return nextPit;
@@ -167,56 +173,33 @@ class BoardEntity implements Serializable {
      * @param player player
      * @return true if the player has at least one stone in one of his pits
      */
-    boolean hasAnyStone(final Player player) {
-        int start = player == Player.PLAYER_1 ? 0 : player2FirstPitIndex;
-        int end = player == Player.PLAYER_1 ? player1LastPitIndex : player2LastPitIndex;
+    @Override
+    public boolean hasAnyStone(final Player player) {
+        int end = geometry.getKalahIndex(player);
 
-        return IntStream.range(start, end).anyMatch(pitId -> pits[pitId] > 0);
-    }
+        for (int pitId = geometry.getFirstPitIndex(player); pitId < end; pitId++) {
+            if (pits[pitId] > 0)
+                return true;
+        }
 
-    /**
-     * @param pitId id of the pit
-     * @return {@link Player} that is the owner of the given pitId
-     */
-    Player getPitPlayer(final int pitId) {
-        if (pitId >= 0 && pitId <= player1LastPitIndex) {
-            return Player.PLAYER_1;
-        } else if (pitId >= player2FirstPitIndex && pitId <= player2LastPitIndex) {
-            return Player.PLAYER_2;
-        } else throw new InvalidPitIdException("pitId must be between 0 and " + player2LastPitIndex);
+        return false;
     }
 
     /**
      * @return {@link Player} that must play the next move
      */
-    Player getNextPlayer() {
+    @Override
+    public Player getNextPlayer() {
         return nextPlayer;
     }
 
-    /**
-     * Returns the type of given pit.
-     *
-     * @param pitId id of the pit
-     * @return {@link PitType}
-     */
-    PitType getPitType(final int pitId) {
-        if (pitId == player1LastPitIndex) {
-            return PitType.PLAYER_1_KALAH;
-        } else if (pitId == player2LastPitIndex) {
-            return PitType.PLAYER_2_KALAH;
-        } else if (pitId >= 0 && pitId < player1LastPitIndex) {
-            return PitType.PLAYER_1_PIT;
-        } else if (pitId >= player2FirstPitIndex && pitId < player2LastPitIndex) {
-            return PitType.PLAYER_2_PIT;
-        } else throw new InvalidPitIdException("pitId must be between 0 and " + player2LastPitIndex);
-    }
-
     /**
      * Returns the current status of the game
      *
      * @return {@link GameStatus}
      */
-    GameStatus getStatus() {
+    @Override
+    public GameStatus getStatus() {
         return status;
     }
 
@@ -225,7 +208,8 @@ class BoardEntity implements Serializable {
      *
      * @return {@link Optional<Player>}
      */
-    Optional<Player> getWinner() {
+    @Override
+    public Optional<Player> getWinner() {
         return Optional.ofNullable(winner);
     }
 
@@ -235,10 +219,11 @@ class BoardEntity implements Serializable {
      * @param pitId     id of the source pit
      * @param kalahType type of destination Kalah
      */
-    void moveStonesToKalah(final int pitId, final KalahType kalahType) {
-        checkPitId(pitId);
+    @Override
+    public void moveStonesToKalah(final int pitId, final KalahType kalahType) {
+        geometry.checkPitId(pitId);
 
-        int kalahId = kalahType == KalahType.PLAYER_1_KALAH ? player1LastPitIndex : player2LastPitIndex;
+        int kalahId = kalahType == KalahType.PLAYER_1_KALAH ? geometry.getPlayer1LastPitIndex() : geometry.getPlayer2LastPitIndex();
 
         pits[kalahId] += pits[pitId];
         pits[pitId] = 0;
@@ -249,20 +234,21 @@ class BoardEntity implements Serializable {
      *
      * @param player the source player
      */
-    void flushToKalah(final Player player) {
-        int start = player == Player.PLAYER_1 ? 0 : player2FirstPitIndex;
-        int end = player == Player.PLAYER_1 ? player1LastPitIndex : player2LastPitIndex;
+    @Override
+    public void flushToKalah(final Player player) {
+        int end = geometry.getKalahIndex(player);
 
-        IntStream.range(start, end).forEach(pitId -> {
+        for (int pitId = geometry.getFirstPitIndex(player); pitId < end; pitId++) {
             pits[end] += pits[pitId];
             pits[pitId] = 0;
-        });
+        }
     }
 
     /**
      * Sets game status to {@code GameStatus.GAME_OVER}
      */
-    void gameOver() {
+    @Override
+    public void gameOver() {
         this.status = GameStatus.GAME_OVER;
     }
 
@@ -271,36 +257,16 @@ class BoardEntity implements Serializable {
      *
      * @param winner winner of the game
      */
-    void setWinner(final Player winner) {
+    @Override
+    public void setWinner(final Player winner) {
         this.winner = winner;
     }
 
     /**
      * Changes the next player
      */
-    void changeNextPlayer() {
+    @Override
+    public void changeNextPlayer() {
         this.nextPlayer = nextPlayer.getNext();
     }
-
-    /**
-     * Checks and validates the given pitId. Throws InvalidPitIdException in case of any violations.
-     * pitId must be between 0 and {@code player2LastPitIndex}
-     *
-     * @param pitId id of the pit
-     */
-    private void checkPitId(final int pitId) {
-        if (pitId < 0 || pitId > player2LastPitIndex)
-            throw new InvalidPitIdException("pitId must be between 0 and " + player2LastPitIndex);
-    }
-
-    /**
-     * Checks and validates the given pitCount. Throws InvalidPitCountException in case of any violations.
-     * pitCount minimum value is 6 and it must be a factor of 2
-     *
-     * @param pitCount the pitCount
-     */
-    private void checkPitCount(final int pitCount) {
-        if (pitCount < 6 || pitCount % 2 != 0)
-            throw new InvalidPitCountException("pitCount minimum value is 6 and it must be a factor of 2");
-    }
 }
\ No newline at end of file
@@ -0,0 +1,77 @@
+package com.backbase.kalah.game;
+
+import com.backbase.kalah.game.enums.GameStatus;
+import com.backbase.kalah.game.enums.Player;
+
+/**
+ * BoardFlags packs the status, next player and winner of a board into the low 4 bits of an {@code int}.
+ * It is the flag encoding of packed boards, off-heap slots and snapshots.
+ */
+final class BoardFlags {
+    static final int GAME_OVER = 0x01;
+    static final int PLAYER_2_NEXT = 0x02;
+    static final int WINNER_SHIFT = 2;
+    static final int WINNER_MASK = 0x03 << WINNER_SHIFT;
+
+    private BoardFlags() {
+    }
+
+    /**
+     * @param board the board
+     * @return flags of the given board
+     */
+    static int of(final Board board) {
+        return encode(board.getStatus(), board.getNextPlayer(), board.getWinner().orElse(null));
+    }
+
+    /**
+     * @param status     status of the game
+     * @param nextPlayer player that must play the next move
+     * @param winner     winner of the game, or {@code null}
+     * @return packed flags
+     */
+    static int encode(final GameStatus status, final Player nextPlayer, final Player winner) {
+        int flags = status == GameStatus.GAME_OVER ? GAME_OVER : 0;
+
+        if (nextPlayer == Player.PLAYER_2)
+            flags |= PLAYER_2_NEXT;
+
+        return withWinner(flags, winner);
+    }
+
+    static GameStatus status(final int flags) {
+        return (flags & GAME_OVER) == 0 ? GameStatus.RUNNING : GameStatus.GAME_OVER;
+    }
+
+    /**
+     * @param flags flags read from outside of the process
+     * @return true if only the flag bits are set and the winner is a player or none
+     */
+    static boolean isValid(final int flags) {
+        return (flags & ~(GAME_OVER | PLAYER_2_NEXT | WINNER_MASK)) == 0
+                && (flags & WINNER_MASK) >>> WINNER_SHIFT <= Player.values().length;
+    }
+
+    static Player nextPlayer(final int flags) {
+        return (flags & PLAYER_2_NEXT) == 0 ? Player.PLAYER_1 : Player.PLAYER_2;
+    }
+
+    /**
+     * @param flags packed flags
+     * @return the winner or {@code null}
+     */
+    static Player winner(final int flags) {
+        int winner = (flags & WINNER_MASK) >>> WINNER_SHIFT;
+        return winner == 0 ? null : Player.values()[winner - 1];
+    }
+
+    /**
+     * @param flags  packed flags
+     * @param winner the winner or {@code null}
+     * @return the flags with the given winner
+     */
+    static int withWinner(final int flags, final Player winner) {
+        int value = winner == null ? 0 : winner.ordinal() + 1;
+        return (flags & ~WINNER_MASK) | (value << WINNER_SHIFT);
+    }
+}
@@ -0,0 +1,252 @@
+package com.backbase.kalah.game;
+
+import com.backbase.kalah.exceptions.InvalidPitCountException;
+import com.backbase.kalah.exceptions.InvalidPitIdException;
+import com.backbase.kalah.game.enums.MoveResult;
+import com.backbase.kalah.game.enums.PitType;
+import com.backbase.kalah.game.enums.Player;
+
+import java.io.Serializable;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * BoardGeometry holds everything that only depends on the pit count of a board:
+ * Kalah indexes, the pit type of every pit and the sowing order of each player.
+ * <p>
+ * Geometries are immutable and interned, so all boards with the same pit count share one instance.
+ */
+final class BoardGeometry implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final ConcurrentHashMap<Integer, BoardGeometry> geometries = new ConcurrentHashMap<>();
+    private static final String PLAYER_1_TURN_MESSAGE = Player.PLAYER_1 + "'s turn";
+    private static final String PLAYER_2_TURN_MESSAGE = Player.PLAYER_2 + "'s turn";
+    private static final String KALAH_PIT_MESSAGE = "Selected pit is a Kalah";
+    private static final String EMPTY_PIT_MESSAGE = "Selected pit is empty";
+
+    private final int pitCount;
+    private final transient int player1LastPitIndex;
+    private final transient int player2FirstPitIndex;
+    private final transient int player2LastPitIndex;
+    private final transient PitType[] pitTypes;
+    private final transient int[][] nextPits;
+    private final transient String invalidPitIdMessage;
+    private final transient long[] hashKeys;
+    private final transient long[] lapHashKeys;
+
+    private BoardGeometry(final int pitCount) {
+        this.pitCount = pitCount;
+        this.player1LastPitIndex = pitCount / 2 - 1;
+        this.player2FirstPitIndex = player1LastPitIndex + 1;
+        this.player2LastPitIndex = pitCount - 1;
+        this.pitTypes = new PitType[pitCount];
+        this.nextPits = new int[Player.values().length][pitCount];
+        this.invalidPitIdMessage = "pitId must be between 0 and " + player2LastPitIndex;
+        this.hashKeys = new long[pitCount];
+        this.lapHashKeys = new long[Player.values().length];
+
+        for (int pitId = 0; pitId < pitCount; pitId++) {
+            if (pitId == player1LastPitIndex)
+                pitTypes[pitId] = PitType.PLAYER_1_KALAH;
+            else if (pitId == player2LastPitIndex)
+                pitTypes[pitId] = PitType.PLAYER_2_KALAH;
+            else if (pitId < player1LastPitIndex)
+                pitTypes[pitId] = PitType.PLAYER_1_PIT;
+            else
+                pitTypes[pitId] = PitType.PLAYER_2_PIT;
+        }
+
+        for (Player player : Player.values()) {
+            int restrictedPit = getKalahIndex(player.getNext());
+
+            for (int pitId = 0; pitId < pitCount; pitId++) {
+                int nextPit = (pitId + 1) % pitCount;
+                nextPits[player.ordinal()][pitId] = nextPit == restrictedPit ? (nextPit + 1) % pitCount : nextPit;
+            }
+        }
+
+        SplittableRandom random = new SplittableRandom(pitCount);
+
+        for (int pitId = 0; pitId < pitCount; pitId++)
+            hashKeys[pitId] = random.nextLong();
+
+        for (Player player : Player.values()) {
+            int restrictedPit = getKalahIndex(player.getNext());
+
+            for (int pitId = 0; pitId < pitCount; pitId++) {
+                if (pitId != restrictedPit)
+                    lapHashKeys[player.ordinal()] += hashKeys[pitId];
+            }
+        }
+    }
+
+    /**
+     * Returns the shared geometry of the given pitCount.
+     * Throws InvalidPitCountException for pitCounts smaller than 6 and for pitCounts that are not a factor of 2.
+     *
+     * @param pitCount pitCount is a positive number larger than 6 and it must be a factor of 2
+     * @return instance of {@link BoardGeometry}
+     */
+    static BoardGeometry of(final int pitCount) {
+        if (pitCount < 6 || pitCount % 2 != 0)
+            throw new InvalidPitCountException("pitCount minimum value is 6 and it must be a factor of 2");
+
+        return geometries.computeIfAbsent(pitCount, BoardGeometry::new);
+    }
+
+    int getPitCount() {
+        return pitCount;
+    }
+
+    int getPlayer1LastPitIndex() {
+        return player1LastPitIndex;
+    }
+
+    int getPlayer2FirstPitIndex() {
+        return player2FirstPitIndex;
+    }
+
+    int getPlayer2LastPitIndex() {
+        return player2LastPitIndex;
+    }
+
+    /**
+     * @param player owner of the Kalah
+     * @return index of the player's Kalah
+     */
+    int getKalahIndex(final Player player) {
+        return player == Player.PLAYER_1 ? player1LastPitIndex : player2LastPitIndex;
+    }
+
+    /**
+     * @param player owner of the pits
+     * @return index of the player's first pit
+     */
+    int getFirstPitIndex(final Player player) {
+        return player == Player.PLAYER_1 ? 0 : player2FirstPitIndex;
+    }
+
+    /**
+     * Returns the type of given pit. Throws InvalidPitIdException if the pitId is not valid.
+     *
+     * @param pitId id of the pit
+     * @return {@link PitType}
+     */
+    PitType getPitType(final int pitId) {
+        checkPitId(pitId);
+        return pitTypes[pitId];
+    }
+
+    /**
+     * Returns the pit that receives the stone after {@code pitId} when {@code player} is sowing.
+     * The opponent's Kalah is already skipped.
+     *
+     * @param player the sowing player
+     * @param pitId  id of the current pit
+     * @return id of the next pit
+     */
+    int getNextPit(final Player player, final int pitId) {
+        return nextPits[player.ordinal()][pitId];
+    }
+
+    /**
+     * Returns the random key of a pit for the hash of {@link Position}. The hash is the sum of the stone count of
+     * every pit times its key, so moving stones changes it by the stone count times the keys of the changed pits.
+     *
+     * @param pitId id of the pit
+     * @return key of the pit
+     */
+    long getHashKey(final int pitId) {
+        return hashKeys[pitId];
+    }
+
+    /**
+     * @param player the sowing player
+     * @return sum of the hash keys of the pits that get a stone in a full lap of the player
+     */
+    long getLapHashKey(final Player player) {
+        return lapHashKeys[player.ordinal()];
+    }
+
+    /**
+     * Validates a move before sowing. Throws InvalidPlayerException if the pit does not belong to
+     * {@code nextPlayer} and InvalidPitIdException if the pit is a Kalah or is empty.
+     *
+     * @param type       type of the source pit
+     * @param pitValue   stone count of the source pit
+     * @param nextPlayer player that must play the next move
+     */
+    void checkMove(final PitType type, final int pitValue, final Player nextPlayer) {
+        MoveResult result = validateMove(type, pitValue, nextPlayer);
+
+        if (!result.isAccepted())
+            throw result.toException(getRejectionMessage(result, nextPlayer));
+    }
+
+    /**
+     * Validates a move before sowing without throwing exceptions
+     *
+     * @param type       type of the source pit
+     * @param pitValue   stone count of the source pit
+     * @param nextPlayer player that must play the next move
+     * @return {@link MoveResult#ACCEPTED} or the reason of the rejection
+     */
+    MoveResult validateMove(final PitType type, final int pitValue, final Player nextPlayer) {
+        if (type.getPlayer() != nextPlayer)
+            return MoveResult.WRONG_PLAYER;
+
+        if (type == PitType.PLAYER_1_KALAH || type == PitType.PLAYER_2_KALAH)
+            return MoveResult.KALAH_PIT;
+
+        if (pitValue == 0)
+            return MoveResult.EMPTY_PIT;
+
+        return MoveResult.ACCEPTED;
+    }
+
+    /**
+     * Returns the message of a rejected move. {@link MoveResult#GAME_OVER} and {@link MoveResult#VERSION_CONFLICT}
+     * depend on the board, so callers add their messages themselves.
+     *
+     * @param result     reason of the rejection
+     * @param nextPlayer player that must play the next move
+     * @return message of the rejection
+     */
+    String getRejectionMessage(final MoveResult result, final Player nextPlayer) {
+        switch (result) {
+            case INVALID_PIT_ID:
+                return invalidPitIdMessage;
+            case WRONG_PLAYER:
+                return nextPlayer == Player.PLAYER_1 ? PLAYER_1_TURN_MESSAGE : PLAYER_2_TURN_MESSAGE;
+            case KALAH_PIT:
+                return KALAH_PIT_MESSAGE;
+            case EMPTY_PIT:
+                return EMPTY_PIT_MESSAGE;
+            default:
+                throw new IllegalArgumentException("No message for " + result);
+        }
+    }
+
+    /**
+     * @param pitId id of the pit
+     * @return true if the pitId is between 0 and {@code player2LastPitIndex}
+     */
+    boolean isPitId(final int pitId) {
+        return pitId >= 0 && pitId < pitCount;
+    }
+
+    /**
+     * Checks and validates the given pitId. Throws InvalidPitIdException in case of any violations.
+     * pitId must be between 0 and {@code player2LastPitIndex}
+     *
+     * @param pitId id of the pit
+     */
+    void checkPitId(final int pitId) {
+        if (!isPitId(pitId))
+            throw new InvalidPitIdException(invalidPitIdMessage);
+    }
+
+    private Object readResolve() {
+        return of(pitCount);
+    }
+}
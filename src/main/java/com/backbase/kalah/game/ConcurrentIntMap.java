@@ -0,0 +1,239 @@
+package com.backbase.kalah.game;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * ConcurrentIntMap is a concurrent hash map with primitive {@code int} keys, so lookups never box the key.
+ * <p>
+ * The map is split into segments. Every segment is an open-addressing table with linear probing.
+ * Reads are lock-free and need a single probe sequence; writes lock only their own segment.
+ * Removed entries stay as tombstones until the segment is rehashed.
+ * {@link Integer#MIN_VALUE} is reserved and can not be used as a key; the map never contains it.
+ *
+ * @param <V> type of the values
+ */
+final class ConcurrentIntMap<V> {
+    private static final int FREE = Integer.MIN_VALUE;
+    private static final int SEGMENT_SHIFT = 26;
+    private static final int SEGMENT_COUNT = 1 << (32 - SEGMENT_SHIFT);
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Segment<V>[] segments;
+
+    @SuppressWarnings("unchecked")
+    ConcurrentIntMap() {
+        segments = new Segment[SEGMENT_COUNT];
+
+        for (int i = 0; i < SEGMENT_COUNT; i++)
+            segments[i] = new Segment<>();
+    }
+
+    /**
+     * @param key the key
+     * @return value of the key or {@code null} if the map does not contain the key
+     */
+    V get(final int key) {
+        if (key == FREE)
+            return null;
+
+        int hash = hash(key);
+        return segments[hash >>> SEGMENT_SHIFT].get(key, hash);
+    }
+
+    /**
+     * @param key   the key
+     * @param value the value, must not be {@code null}
+     * @return previous value of the key or {@code null}
+     */
+    V put(final int key, final V value) {
+        if (key == FREE)
+            throw new IllegalArgumentException("Integer.MIN_VALUE can not be used as a key");
+
+        if (value == null)
+            throw new NullPointerException("value is null");
+
+        int hash = hash(key);
+        return segments[hash >>> SEGMENT_SHIFT].put(key, hash, value);
+    }
+
+    /**
+     * @param key the key
+     * @return removed value or {@code null} if the map did not contain the key
+     */
+    V remove(final int key) {
+        if (key == FREE)
+            return null;
+
+        int hash = hash(key);
+        return segments[hash >>> SEGMENT_SHIFT].remove(key, hash);
+    }
+
+    /**
+     * @return number of entries
+     */
+    int size() {
+        int size = 0;
+
+        for (Segment<V> segment : segments)
+            size += segment.size;
+
+        return size;
+    }
+
+    /**
+     * Visits every entry. The iteration is weakly consistent: entries that are added or removed
+     * while it is running may or may not be visited.
+     *
+     * @param visitor the visitor
+     */
+    void forEach(final Visitor<V> visitor) {
+        for (Segment<V> segment : segments) {
+            Table<V> table = segment.table;
+
+            for (int i = 0; i <= table.mask; i++) {
+                int key = table.keys.get(i);
+                V value = table.values.get(i);
+
+                if (key != FREE && value != null)
+                    visitor.visit(key, value);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    interface Visitor<V> {
+        void visit(final int key, final V value);
+    }
+
+    /**
+     * Murmur3 finalizer, spreads sequential ids over segments and table slots
+     */
+    private static int hash(final int key) {
+        int h = key;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private static final class Table<V> {
+        private final AtomicIntegerArray keys;
+        private final AtomicReferenceArray<V> values;
+        private final int mask;
+
+        Table(final int capacity) {
+            this.keys = new AtomicIntegerArray(capacity);
+            this.values = new AtomicReferenceArray<>(capacity);
+            this.mask = capacity - 1;
+
+            for (int i = 0; i < capacity; i++)
+                keys.lazySet(i, FREE);
+        }
+
+        /**
+         * @return slot of the key or the first free slot of its probe sequence
+         */
+        int find(final int key, final int hash) {
+            int index = hash & mask;
+
+            while (true) {
+                int current = keys.get(index);
+
+                if (current == key || current == FREE)
+                    return index;
+
+                index = (index + 1) & mask;
+            }
+        }
+    }
+
+    /**
+     * A value is always written before its key, so a reader that sees a key also sees its value.
+     */
+    private static final class Segment<V> {
+        private volatile Table<V> table = new Table<>(INITIAL_CAPACITY);
+        private volatile int size;
+        private int used;
+
+        V get(final int key, final int hash) {
+            Table<V> table = this.table;
+            int index = table.find(key, hash);
+
+            return table.keys.get(index) == key ? table.values.get(index) : null;
+        }
+
+        synchronized V put(final int key, final int hash, final V value) {
+            Table<V> table = this.table;
+            int index = table.find(key, hash);
+
+            if (table.keys.get(index) == key) {
+                V previous = table.values.getAndSet(index, value);
+
+                if (previous == null)
+                    size++;
+
+                return previous;
+            }
+
+            if ((used + 1) * 4 > (table.mask + 1) * 3) {
+                table = rehash();
+                index = table.find(key, hash);
+            }
+
+            table.values.set(index, value);
+            table.keys.set(index, key);
+            used++;
+            size++;
+
+            return null;
+        }
+
+        synchronized V remove(final int key, final int hash) {
+            Table<V> table = this.table;
+            int index = table.find(key, hash);
+
+            if (table.keys.get(index) != key)
+                return null;
+
+            V previous = table.values.getAndSet(index, null);
+
+            if (previous != null)
+                size--;
+
+            return previous;
+        }
+
+        /**
+         * Copies live entries into a new table that is at most half full and drops tombstones.
+         * The new table is published only after it is complete, so readers keep using the old one until then.
+         */
+        private Table<V> rehash() {
+            Table<V> old = this.table;
+            int capacity = INITIAL_CAPACITY;
+
+            while (capacity < (size + 1) * 2)
+                capacity <<= 1;
+
+            Table<V> table = new Table<>(capacity);
+
+            for (int i = 0; i <= old.mask; i++) {
+                int key = old.keys.get(i);
+                V value = old.values.get(i);
+
+                if (key != FREE && value != null) {
+                    int index = table.find(key, hash(key));
+                    table.values.lazySet(index, value);
+                    table.keys.lazySet(index, key);
+                }
+            }
+
+            used = size;
+            this.table = table;
+
+            return table;
+        }
+    }
+}
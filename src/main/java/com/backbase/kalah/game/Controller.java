@@ -1,37 +1,71 @@
 package com.backbase.kalah.game;
 
-import com.backbase.kalah.exceptions.GameOverException;
+import com.backbase.kalah.exceptions.InvalidMoveSequenceException;
 import com.backbase.kalah.game.enums.GameStatus;
+import com.backbase.kalah.game.enums.MoveResult;
 import com.backbase.kalah.game.enums.PitType;
 import com.backbase.kalah.game.enums.Player;
+import com.backbase.kalah.metrics.Metrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 import java.util.stream.IntStream;
 
 /**
- * Controller is the Use-Case layer of the application
+ * Controller is the Use-Case layer of the application.
+ * <p>
+ * Moves on the same game are serialized by a per-game lock (or a lock stripe provided by the store),
+ * so moves on different games do not wait for each other.
  */
 public class Controller {
-    private static final String INFO_TEMPLATE = "[Move] [GameId: %d] [PitId: %d] [Status: %s] [Winner: %s]";
+    private static final String INFO_TEMPLATE = "[Move] [GameId: {}] [PitId: {}] [Status: {}] [Winner: {}]";
+    private static final String BATCH_INFO_TEMPLATE = "[Moves] [GameId: {}] [Count: {}] [Status: {}] [Winner: {}]";
+    private static final int MOVE_CAPTURE = 0x01;
+    private static final int MOVE_EXTRA_TURN = 0x02;
+    private static final int MOVE_OPPOSITE_SINGLE = 0x04;
+    private static final int MOVE_LAST_PIT_SHIFT = 3;
+    private static final int ANY_VERSION = -1;
+    private static final Logger logger = LoggerFactory.getLogger(Controller.class);
+    private static final LongAdder contentionCount = new LongAdder();
 
-    private Logger logger = LoggerFactory.getLogger(Controller.class);
-    private BoardEntity board;
+    private final ReentrantLock lock;
+    private final MoveListener listener;
+    private Board board;
     private int gameId;
+    private volatile long lastAccessTick;
 
     /**
      * Creates a new {@link Controller}
      *
      * @param gameId id of the game
-     * @param board  associated {@link BoardEntity}
+     * @param board  associated {@link Board}
      */
-    Controller(final int gameId, final BoardEntity board) {
+    Controller(final int gameId, final Board board) {
+        this(gameId, board, new ReentrantLock(), null);
+    }
+
+    /**
+     * Creates a new {@link Controller} that uses the given lock. Stores that hand out several
+     * controllers for the same game must give them the same lock.
+     *
+     * @param gameId   id of the game
+     * @param board    associated {@link Board}
+     * @param lock     lock that serializes moves on the game
+     * @param listener {@link MoveListener} to notify after every move, or {@code null}
+     */
+    Controller(final int gameId, final Board board, final ReentrantLock lock, final MoveListener listener) {
         if (board == null)
             throw new NullPointerException("board is null");
 
         this.gameId = gameId;
         this.board = board;
+        this.lock = lock;
+        this.listener = listener;
     }
 
     /**
@@ -44,30 +78,327 @@ public class Controller {
     }
 
     /**
-     * Streams the pits value of the associated {@link BoardEntity}
+     * Returns the number of moves applied to the game
+     *
+     * @return version of the board
+     */
+    public int getVersion() {
+        return board.getVersion();
+    }
+
+    /**
+     * Returns a consistent snapshot of the game, taken while no move is in progress
+     *
+     * @return {@link GameState} of the game
+     */
+    public GameState getState() {
+        lock();
+        try {
+            return new GameState(gameId, board);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns a consistent snapshot of the game and passes it to {@code action} before the lock is released, so no
+     * move of the game can happen between the snapshot and the action. The action must not block.
+     *
+     * @param action called with the snapshot while the game lock is held
+     * @return {@link GameState} of the game
+     */
+    public GameState getState(final Consumer<GameState> action) {
+        lock();
+        try {
+            GameState state = new GameState(gameId, board);
+            action.accept(state);
+
+            return state;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns a detached copy of the board for move search, taken while no move is in progress
+     *
+     * @return {@link Position} of the game
+     */
+    public Position getPosition() {
+        lock();
+        try {
+            return new Position(board.copy());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the status of the game without waiting for a move in progress
+     *
+     * @return current {@link GameStatus}
+     */
+    GameStatus getStatus() {
+        return board.getStatus();
+    }
+
+    /**
+     * Records an access to the game. Stores call it with a coarse clock tick, so repeated
+     * accesses within a tick do not write to the controller.
+     *
+     * @param tick current tick of the store
+     */
+    void touch(final long tick) {
+        if (lastAccessTick != tick)
+            lastAccessTick = tick;
+    }
+
+    /**
+     * @return tick of the latest {@link #touch(long)}
+     */
+    long getLastAccessTick() {
+        return lastAccessTick;
+    }
+
+    /**
+     * Returns a detached copy of the board, taken while no move is in progress
+     *
+     * @return copy of the associated {@link Board}
+     */
+    Board copyBoard() {
+        lock();
+        try {
+            return board.copy();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of times a thread had to wait for another thread's move on the same game.
+     * The counter is shared between all games.
+     *
+     * @return total lock contention count
+     */
+    public static long getContentionCount() {
+        return contentionCount.sum();
+    }
+
+    /**
+     * Streams a consistent snapshot of the pits value of the associated {@link Board}
      *
      * @return instance of {@link IntStream}
      */
     public IntStream streamBoard() {
-        return Arrays.stream(board.getPits());
+        int[] pits;
+
+        lock();
+        try {
+            pits = board.toArray();
+        } finally {
+            lock.unlock();
+        }
+
+        return Arrays.stream(pits);
     }
 
     /**
      * This is the main method that implements use-cases. Calling this method will cause to
      * a move. Board status will change if everything goes well. Otherwise, proper Exception
      * will be thrown. Application rules are applied in this method.
+     * Concurrent moves on the same game are applied one after the other.
      *
      * @param pitId id of the pit
+     * @return {@link MoveDelta} of the move
      */
-    public void move(final int pitId) {
-        if (board.getStatus() == GameStatus.GAME_OVER)
-            throw new GameOverException("Selected game is over. Winner: " + board.getWinner().map(Enum::name).orElse("Not available"));
+    public MoveDelta move(final int pitId) {
+        MoveDelta delta = tryMove(pitId, true);
+
+        if (!delta.isAccepted())
+            throw delta.getResult().toException(delta.getRejectionMessage());
+
+        return delta;
+    }
+
+    /**
+     * Same as {@link #move(int)}, but an illegal move is returned as a rejected {@link MoveDelta} instead of an exception.
+     * Illegal moves are normal traffic, so this is the cheaper way for user interfaces to report them.
+     * The changed pits of the returned delta are not recorded.
+     *
+     * @param pitId id of the pit
+     * @return {@link MoveDelta} of the move, {@link MoveDelta#isAccepted()} is false if the move was rejected
+     */
+    public MoveDelta tryMove(final int pitId) {
+        return tryMove(pitId, false);
+    }
+
+    /**
+     * Same as {@link #tryMove(int)}, and records the changed pits of the returned delta if {@code withChanges} is true.
+     *
+     * @param pitId       id of the pit
+     * @param withChanges true if the caller reads {@link MoveDelta#getChangeCount()} and the changed pits
+     * @return {@link MoveDelta} of the move, {@link MoveDelta#isAccepted()} is false if the move was rejected
+     */
+    public MoveDelta tryMove(final int pitId, final boolean withChanges) {
+        return tryMove(pitId, ANY_VERSION, withChanges);
+    }
+
+    /**
+     * Same as {@link #tryMove(int)}, but the move is only applied if the game is still at {@code version}. Callers
+     * that chose the move from an earlier {@link #getPosition()} pass {@link Position#getVersion()}, so a move of
+     * another client in between is rejected with {@link MoveResult#VERSION_CONFLICT} instead of being overwritten.
+     *
+     * @param pitId   id of the pit
+     * @param version version of the game the move was chosen for
+     * @return {@link MoveDelta} of the move, {@link MoveDelta#isAccepted()} is false if the move was rejected
+     */
+    public MoveDelta tryMoveAtVersion(final int pitId, final int version) {
+        return tryMove(pitId, version, false);
+    }
+
+    private MoveDelta tryMove(final int pitId, final int version, final boolean withChanges) {
+        boolean metered = Metrics.isEnabled();
+        long start = metered ? System.nanoTime() : 0;
+        MoveDelta delta;
+
+        lock();
+        try {
+            MoveResult result = version == ANY_VERSION || version == board.getVersion()
+                    ? board.validateMove(pitId) : MoveResult.VERSION_CONFLICT;
+
+            if (!result.isAccepted()) {
+                if (metered)
+                    GameMetrics.moveRejected(result);
+
+                return MoveDelta.rejected(gameId, pitId, result, rejectionMessage(board, result), board);
+            }
+
+            delta = applyMoveWithDelta(pitId);
+
+            if (listener != null)
+                listener.onMove(this, delta);
+
+            delta.seal(withChanges);
+        } finally {
+            lock.unlock();
+        }
+
+        if (metered)
+            GameMetrics.moveAccepted(delta, start);
+
+        if (logger.isInfoEnabled())
+            logger.info(INFO_TEMPLATE, gameId, pitId, delta.getStatus(), delta.getWinner().map(Enum::name).orElse("Not available"));
+
+        return delta;
+    }
+
+    /**
+     * Applies a sequence of moves as a single unit. Either all moves are applied, or none of them is applied and
+     * InvalidMoveSequenceException reports the index of the first illegal move.
+     * Moves of other threads can not interleave with the sequence, and listeners are notified after every move.
+     *
+     * @param pitIds ids of the pits, in order
+     */
+    public void move(final int[] pitIds) {
+        GameStatus status;
+        Optional<Player> winner;
+        boolean finished;
+
+        lock();
+        try {
+            boolean running = board.getStatus() != GameStatus.GAME_OVER;
+            Board scratch = board.copy();
+
+            for (int i = 0; i < pitIds.length; i++) {
+                MoveResult result = scratch.validateMove(pitIds[i]);
+
+                if (!result.isAccepted()) {
+                    if (Metrics.isEnabled())
+                        GameMetrics.moveRejected(result);
+
+                    throw new InvalidMoveSequenceException(i, result.toException(rejectionMessage(scratch, result)));
+                }
+
+                applyMove(scratch, pitIds[i]);
+            }
+
+            for (int pitId : pitIds) {
+                if (listener != null) {
+                    MoveDelta delta = applyMoveWithDelta(pitId);
+                    listener.onMove(this, delta);
+                    delta.seal(false);
+                } else applyMove(board, pitId);
+            }
+
+            status = board.getStatus();
+            winner = board.getWinner();
+            finished = running && status == GameStatus.GAME_OVER;
+        } finally {
+            lock.unlock();
+        }
+
+        if (Metrics.isEnabled()) {
+            GameMetrics.moves.add(pitIds.length);
+
+            if (finished)
+                GameMetrics.gameFinished(status, winner.orElse(null));
+        }
+
+        if (logger.isInfoEnabled())
+            logger.info(BATCH_INFO_TEMPLATE, gameId, pitIds.length, status, winner.map(Enum::name).orElse("Not available"));
+    }
+
+    /**
+     * Applies an already recorded move again, for example while a store is recovering.
+     * Listeners are not notified and nothing is logged.
+     *
+     * @param pitId id of the pit
+     */
+    void replay(final int pitId) {
+        lock();
+        try {
+            applyMove(board, pitId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Applies the move on the associated board and records what it did. The board is not copied; the changed pits
+     * are only built if they are read before the delta is sealed. Caller must hold the game lock.
+     *
+     * @param pitId id of the pit
+     * @return {@link MoveDelta} of the move
+     */
+    private MoveDelta applyMoveWithDelta(final int pitId) {
+        Player player = board.getNextPlayer();
+        int stones = board.getPitValue(pitId);
+        int outcome = applyMove(board, pitId);
+
+        return MoveDelta.of(gameId, pitId, player, stones, outcome >>> MOVE_LAST_PIT_SHIFT, board,
+                (outcome & MOVE_CAPTURE) != 0, (outcome & MOVE_OPPOSITE_SINGLE) != 0, (outcome & MOVE_EXTRA_TURN) != 0);
+    }
+
+    /**
+     * Applies the move on the given board. Caller must hold the game lock if the board is the associated one.
+     *
+     * @param board the board
+     * @param pitId id of the pit
+     * @return {@code MOVE_CAPTURE}, {@code MOVE_OPPOSITE_SINGLE} and {@code MOVE_EXTRA_TURN} flags of the move, and
+     * the last pit above {@code MOVE_LAST_PIT_SHIFT}
+     */
+    private int applyMove(final Board board, final int pitId) {
+        MoveResult result = board.validateMove(pitId);
+
+        if (!result.isAccepted())
+            throw result.toException(rejectionMessage(board, result));
 
         PitType pitType = board.getPitType(pitId);
 
         int lastPitId = board.move(pitId);
         int lastPitValue = board.getPitValue(lastPitId);
         PitType lastPitType = board.getPitType(lastPitId);
+        int outcome = lastPitId << MOVE_LAST_PIT_SHIFT;
 
         if (lastPitValue == 1 && lastPitType == pitType) {
             int oppositePitId = board.getOppositePitId(lastPitId);
@@ -76,31 +407,70 @@ public class Controller {
             if (oppositePitValue > 0) {
                 board.moveStonesToKalah(lastPitId, pitType.getKalahType());
                 board.moveStonesToKalah(oppositePitId, pitType.getKalahType());
+                outcome |= oppositePitValue == 1 ? MOVE_CAPTURE | MOVE_OPPOSITE_SINGLE : MOVE_CAPTURE;
             }
         }
 
-        updateTurn(lastPitType);
-        updateStatus();
+        if (!updateTurn(board, lastPitType))
+            outcome |= MOVE_EXTRA_TURN;
+
+        updateStatus(board);
+        board.incrementVersion();
+
+        if (board.getStatus() == GameStatus.GAME_OVER)
+            outcome &= ~MOVE_EXTRA_TURN;
+
+        return outcome;
+    }
+
+    /**
+     * @param board  the board
+     * @param result reason of the rejection
+     * @return message of the rejected move
+     */
+    static String rejectionMessage(final Board board, final MoveResult result) {
+        if (result == MoveResult.GAME_OVER)
+            return "Selected game is over. Winner: " + board.getWinner().map(Enum::name).orElse("Not available");
+
+        if (result == MoveResult.VERSION_CONFLICT)
+            return "Game was changed by another move. Version: " + board.getVersion();
 
-        logger.info(String.format(INFO_TEMPLATE, gameId, pitId, board.getStatus(), board.getWinner().map(Enum::name).orElse("Not available")));
+        return board.getGeometry().getRejectionMessage(result, board.getNextPlayer());
+    }
+
+    /**
+     * Acquires the game lock and counts the acquisitions that had to wait for another thread.
+     */
+    private void lock() {
+        if (!lock.tryLock()) {
+            contentionCount.increment();
+            lock.lock();
+        }
     }
 
     /**
      * Checks the latest move and decides about changing the next player of the associated board.
      *
+     * @param board       the board
      * @param lastPitType {@link PitType} of the last pit of latest move
+     * @return true if the turn passed to the other player
      */
-    private void updateTurn(PitType lastPitType) {
+    static boolean updateTurn(final Board board, final PitType lastPitType) {
         if ((board.getNextPlayer() != Player.PLAYER_1 || lastPitType != PitType.PLAYER_1_KALAH) &&
                 (board.getNextPlayer() != Player.PLAYER_2 || lastPitType != PitType.PLAYER_2_KALAH)) {
             board.changeNextPlayer();
+            return true;
         }
+
+        return false;
     }
 
     /**
      * Checks the board and updates the game status and game winner according to it
+     *
+     * @param board the board
      */
-    private void updateStatus() {
+    static void updateStatus(final Board board) {
         if (!board.hasAnyStone(Player.PLAYER_1)) {
             board.flushToKalah(Player.PLAYER_2);
             board.gameOver();
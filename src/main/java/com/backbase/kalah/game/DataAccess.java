@@ -8,6 +8,15 @@ public interface DataAccess {
      */
     int create();
 
+    /**
+     * Creates {@code count} new records with contiguous ids.
+     * Throws InvalidGameCountException if the count is not greater than zero.
+     *
+     * @param count number of records to create
+     * @return id of the first new record, the others follow it without gaps
+     */
+    int create(final int count);
+
     /**
      * Removes a record from the data storage
      *
@@ -29,4 +38,24 @@ public interface DataAccess {
      * @return Founded record
      */
     Controller get(final int id);
+
+    /**
+     * @return number of games in the data storage
+     */
+    int getGameCount();
+
+    /**
+     * Registers a listener that is notified after every move of every game of this storage.
+     * Listeners are called while the game lock is held, see {@link MoveListener}.
+     *
+     * @param listener the listener
+     */
+    void addMoveListener(final MoveListener listener);
+
+    /**
+     * Unregisters a listener
+     *
+     * @param listener the listener
+     */
+    void removeMoveListener(final MoveListener listener);
 }
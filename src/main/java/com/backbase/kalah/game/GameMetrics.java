@@ -0,0 +1,70 @@
+package com.backbase.kalah.game;
+
+import com.backbase.kalah.game.enums.GameStatus;
+import com.backbase.kalah.game.enums.MoveResult;
+import com.backbase.kalah.game.enums.Player;
+import com.backbase.kalah.metrics.Counter;
+import com.backbase.kalah.metrics.Metrics;
+import com.backbase.kalah.metrics.Timer;
+
+/**
+ * GameMetrics holds the metrics of the game layer. Callers check {@link Metrics#isEnabled()} first,
+ * so nothing here is called on the move path while metrics are disabled.
+ */
+final class GameMetrics {
+    private static final String DRAW = "DRAW";
+
+    static final Counter moves = Metrics.counter("kalah_moves_total", "Accepted moves, including moves of sequences");
+    static final Timer moveDuration = Metrics.timer("kalah_move_duration_seconds",
+            "Duration of accepted single moves, including the wait for the game lock");
+    static final Counter gamesCreated = Metrics.counter("kalah_games_created_total", "Created games");
+    static final Counter gamesDeleted = Metrics.counter("kalah_games_deleted_total", "Deleted games");
+
+    private static final Counter[] rejectedMoves = new Counter[MoveResult.values().length];
+    private static final Counter[] finishedGames = new Counter[Player.values().length + 1];
+
+    static {
+        for (MoveResult result : MoveResult.values()) {
+            if (!result.isAccepted())
+                rejectedMoves[result.ordinal()] = Metrics.counter("kalah_moves_rejected_total", "Moves rejected by the game rules", "reason", result.name());
+        }
+
+        for (Player player : Player.values())
+            finishedGames[player.ordinal()] = Metrics.counter("kalah_games_finished_total", "Finished games by winner", "winner", player.name());
+
+        finishedGames[Player.values().length] = Metrics.counter("kalah_games_finished_total", "Finished games by winner", "winner", DRAW);
+
+        Metrics.counter("kalah_lock_contention_total", "Moves that waited for another move of the same game", Controller::getContentionCount);
+    }
+
+    private GameMetrics() {
+    }
+
+    /**
+     * @param result reason of the rejection
+     */
+    static void moveRejected(final MoveResult result) {
+        rejectedMoves[result.ordinal()].increment();
+    }
+
+    /**
+     * @param delta the accepted move
+     * @param start {@link System#nanoTime()} before the move waited for the game lock
+     */
+    static void moveAccepted(final MoveDelta delta, final long start) {
+        moveDuration.record(System.nanoTime() - start);
+        moves.increment();
+        gameFinished(delta.getStatus(), delta.getWinner().orElse(null));
+    }
+
+    /**
+     * Counts the game if the status is {@link GameStatus#GAME_OVER}
+     *
+     * @param status status after the latest move
+     * @param winner winner of the game, {@code null} for a draw
+     */
+    static void gameFinished(final GameStatus status, final Player winner) {
+        if (status == GameStatus.GAME_OVER)
+            finishedGames[winner == null ? Player.values().length : winner.ordinal()].increment();
+    }
+}
@@ -0,0 +1,85 @@
+package com.backbase.kalah.game;
+
+import com.backbase.kalah.game.enums.GameStatus;
+import com.backbase.kalah.game.enums.Player;
+
+import java.util.Optional;
+
+/**
+ * GameState is an immutable, consistent snapshot of a game
+ */
+public final class GameState {
+    private final int gameId;
+    private final int version;
+    private final int[] pits;
+    private final GameStatus status;
+    private final Player nextPlayer;
+    private final Player winner;
+
+    /**
+     * @param gameId id of the game
+     * @param board  the board, the caller must hold the game lock
+     */
+    GameState(final int gameId, final Board board) {
+        this.gameId = gameId;
+        this.version = board.getVersion();
+        this.pits = board.toArray();
+        this.status = board.getStatus();
+        this.nextPlayer = board.getNextPlayer();
+        this.winner = board.getWinner().orElse(null);
+    }
+
+    /**
+     * @param gameId  id of the game
+     * @param version version of the board
+     * @param pits    pits of the board, the array is owned by the state
+     * @param flags   {@link BoardFlags} of the board
+     */
+    GameState(final int gameId, final int version, final int[] pits, final int flags) {
+        this.gameId = gameId;
+        this.version = version;
+        this.pits = pits;
+        this.status = BoardFlags.status(flags);
+        this.nextPlayer = BoardFlags.nextPlayer(flags);
+        this.winner = BoardFlags.winner(flags);
+    }
+
+    public int getGameId() {
+        return gameId;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public int getPitCount() {
+        return pits.length;
+    }
+
+    /**
+     * @param pitId id of the pit
+     * @return stone count of the pit
+     */
+    public int getPit(final int pitId) {
+        return pits[pitId];
+    }
+
+    /**
+     * @return a copy of the pits
+     */
+    public int[] getPits() {
+        return pits.clone();
+    }
+
+    public GameStatus getStatus() {
+        return status;
+    }
+
+    public Player getNextPlayer() {
+        return nextPlayer;
+    }
+
+    public Optional<Player> getWinner() {
+        return Optional.ofNullable(winner);
+    }
+}
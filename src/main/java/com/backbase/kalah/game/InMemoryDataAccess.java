@@ -1,11 +1,20 @@
 package com.backbase.kalah.game;
 
 import com.backbase.kalah.exceptions.GameNotFoundException;
+import com.backbase.kalah.exceptions.InvalidGameCountException;
+import com.backbase.kalah.game.enums.BoardType;
+import com.backbase.kalah.game.enums.GameStatus;
+import com.backbase.kalah.metrics.Metrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
 
 /**
  * This class implements {@link DataAccess} interface.
@@ -13,44 +22,172 @@ import java.util.concurrent.atomic.AtomicInteger;
  * For example we can implement an oracle data handler using any type of framework like JPA.
  *
  * This implementation is a dummy one that simply stores the game inside the memory.
+ * <p>
+ * Games can be evicted: finished games after a grace period and running games after an inactivity TTL,
+ * both counted from the last access. A background sweeper advances a {@link TimingWheel} once per tick and
+ * only checks the games that are due, so eviction never scans the whole store.
  */
 public class InMemoryDataAccess implements DataAccess {
     private static final InMemoryDataAccess instance = new InMemoryDataAccess();
-    private static final String LOG_CREATE_TEMPLATE = "[New game created] [GameId: %d]";
-    private static final String LOG_DELETE_TEMPLATE = "[Game deleted] [GameId: %d]";
-    private static final String LOG_SAVE_TEMPLATE = "[Game saved] [GameId: %d]";
+    private static final String LOG_CREATE_TEMPLATE = "[New game created] [GameId: {}]";
+    private static final String LOG_CREATE_BULK_TEMPLATE = "[New games created] [FirstGameId: {}] [Count: {}]";
+    private static final String LOG_DELETE_TEMPLATE = "[Game deleted] [GameId: {}]";
+    private static final String LOG_SAVE_TEMPLATE = "[Game saved] [GameId: {}]";
+    private static final String LOG_EVICT_TEMPLATE = "[Game evicted] [GameId: {}] [Status: {}]";
 
     private static final int PIT_COUNT = 14;
     private static final int STONE_COUNT = 6;
+    private static final int PARALLEL_THRESHOLD = 1024;
+    private static final long TICK_MILLIS = 1000;
+    private static final int WHEEL_SIZE = 512;
 
     private Logger logger = LoggerFactory.getLogger(InMemoryDataAccess.class);
-    private ConcurrentHashMap<Integer, Controller> dataStorage = new ConcurrentHashMap<>();
+    private ConcurrentIntMap<Controller> dataStorage = new ConcurrentIntMap<>();
     private AtomicInteger idRepo = new AtomicInteger(0);
+    private volatile BoardType boardType = BoardType.STANDARD;
+
+    private final long tickMillis;
+    private final boolean sweep;
+    private final MoveListenerRegistry moveListeners = new MoveListenerRegistry();
+    private final TimingWheel wheel = new TimingWheel(WHEEL_SIZE);
+    private final LongAdder gameOverEvictionCount = new LongAdder();
+    private final LongAdder idleEvictionCount = new LongAdder();
+    private ScheduledExecutorService sweeper;
+    private volatile long tick;
+    private volatile long gameOverTtlTicks;
+    private volatile long idleTtlTicks;
 
     public static InMemoryDataAccess getInstance() {
         return instance;
     }
 
     private InMemoryDataAccess() {
+        this(TICK_MILLIS, true);
+    }
+
+    /**
+     * @param tickMillis duration of a sweeper tick
+     * @param sweep      starts a sweeper thread when eviction is enabled, otherwise ticks are advanced by {@link #advance()}
+     */
+    InMemoryDataAccess(final long tickMillis, final boolean sweep) {
+        this.tickMillis = tickMillis;
+        this.sweep = sweep;
+    }
+
+    /**
+     * Selects the {@link Board} implementation of the games that are created from now on
+     *
+     * @param boardType type of the new boards
+     */
+    public void setBoardType(final BoardType boardType) {
+        this.boardType = boardType;
+    }
+
+    /**
+     * Enables eviction of the games that are created from now on. A TTL of zero disables that kind of eviction.
+     *
+     * @param gameOverTtlMillis time a finished game is kept after its last access
+     * @param idleTtlMillis     time a running game is kept after its last access
+     */
+    public synchronized void setEviction(final long gameOverTtlMillis, final long idleTtlMillis) {
+        this.gameOverTtlTicks = toTicks(gameOverTtlMillis);
+        this.idleTtlTicks = toTicks(idleTtlMillis);
+
+        if (sweep && sweeper == null && (gameOverTtlTicks > 0 || idleTtlTicks > 0)) {
+            sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "game-sweeper");
+                thread.setDaemon(true);
+                return thread;
+            });
+            sweeper.scheduleAtFixedRate(this::advance, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * @return number of finished games evicted after their grace period
+     */
+    public long getGameOverEvictionCount() {
+        return gameOverEvictionCount.sum();
+    }
+
+    /**
+     * @return number of running games evicted after their inactivity TTL
+     */
+    public long getIdleEvictionCount() {
+        return idleEvictionCount.sum();
+    }
+
+    @Override
+    public int getGameCount() {
+        return dataStorage.size();
     }
 
     @Override
     public int create() {
         int gameId = idRepo.getAndIncrement();
 
-        BoardEntity boardEntity = new BoardEntity(PIT_COUNT, STONE_COUNT);
-        Controller controller = new Controller(gameId, boardEntity);
+        Board board = Board.create(boardType, PIT_COUNT, STONE_COUNT);
+        Controller controller = new Controller(gameId, board, new ReentrantLock(), this::onMove);
+        long now = tick;
 
+        controller.touch(now);
         dataStorage.put(gameId, controller);
-        logger.info(String.format(LOG_CREATE_TEMPLATE, gameId));
+
+        if (idleTtlTicks > 0)
+            wheel.schedule(gameId, now + idleTtlTicks);
+
+        if (Metrics.isEnabled())
+            GameMetrics.gamesCreated.increment();
+
+        if (logger.isInfoEnabled())
+            logger.info(LOG_CREATE_TEMPLATE, gameId);
 
         return gameId;
     }
 
+    /**
+     * Reserves a block of ids with a single atomic add and initializes the games in parallel
+     *
+     * @param count number of games to create
+     * @return id of the first game
+     */
+    @Override
+    public int create(final int count) {
+        if (count < 1)
+            throw new InvalidGameCountException("count must be greater than zero");
+
+        int first = reserveIds(idRepo, count);
+        BoardType type = boardType;
+        long now = tick;
+        IntStream ids = IntStream.range(first, first + count);
+
+        (count < PARALLEL_THRESHOLD ? ids : ids.parallel()).forEach(gameId -> {
+            Controller controller = new Controller(gameId, Board.create(type, PIT_COUNT, STONE_COUNT), new ReentrantLock(), this::onMove);
+            controller.touch(now);
+            dataStorage.put(gameId, controller);
+        });
+
+        if (idleTtlTicks > 0)
+            wheel.schedule(first, count, now + idleTtlTicks);
+
+        if (Metrics.isEnabled())
+            GameMetrics.gamesCreated.add(count);
+
+        logger.info(LOG_CREATE_BULK_TEMPLATE, first, count);
+
+        return first;
+    }
+
     @Override
     public void delete(int gameId) {
-        if (dataStorage.remove(gameId) != null)
-            logger.info(String.format(LOG_DELETE_TEMPLATE, gameId));
+        if (dataStorage.remove(gameId) == null)
+            return;
+
+        if (Metrics.isEnabled())
+            GameMetrics.gamesDeleted.increment();
+
+        if (logger.isInfoEnabled())
+            logger.info(LOG_DELETE_TEMPLATE, gameId);
     }
 
     /**
@@ -61,14 +198,90 @@ public class InMemoryDataAccess implements DataAccess {
      */
     @Override
     public void save(Controller controller) {
-        logger.info(String.format(LOG_SAVE_TEMPLATE, controller.getGameId()));
+        if (logger.isInfoEnabled())
+            logger.info(LOG_SAVE_TEMPLATE, controller.getGameId());
     }
 
     @Override
     public Controller get(int id) {
-        if (!dataStorage.containsKey(id))
+        Controller controller = dataStorage.get(id);
+
+        if (controller == null)
             throw new GameNotFoundException("Selected game was not found");
 
-        return dataStorage.get(id);
+        controller.touch(tick);
+
+        return controller;
+    }
+
+    @Override
+    public void addMoveListener(final MoveListener listener) {
+        moveListeners.add(listener);
+    }
+
+    @Override
+    public void removeMoveListener(final MoveListener listener) {
+        moveListeners.remove(listener);
+    }
+
+    /**
+     * Advances the clock by one tick and evicts the due games of the new tick.
+     * Games that are not due yet are scheduled again for their current deadline.
+     */
+    void advance() {
+        long now = ++tick;
+
+        for (int gameId : wheel.drain(now)) {
+            Controller controller = dataStorage.get(gameId);
+
+            if (controller == null)
+                continue;
+
+            GameStatus status = controller.getStatus();
+            long ttl = status == GameStatus.GAME_OVER ? gameOverTtlTicks : idleTtlTicks;
+
+            if (ttl <= 0)
+                continue;
+
+            long deadline = controller.getLastAccessTick() + ttl;
+
+            if (deadline > now) {
+                wheel.schedule(gameId, deadline);
+            } else if (dataStorage.remove(gameId) != null) {
+                (status == GameStatus.GAME_OVER ? gameOverEvictionCount : idleEvictionCount).increment();
+                logger.info(LOG_EVICT_TEMPLATE, gameId, status);
+            }
+        }
+    }
+
+    /**
+     * Schedules a game that has just finished for its grace period and notifies the registered listeners
+     */
+    private void onMove(final Controller controller, final MoveDelta delta) {
+        if (gameOverTtlTicks > 0 && delta.getStatus() == GameStatus.GAME_OVER)
+            wheel.schedule(controller.getGameId(), tick + gameOverTtlTicks);
+
+        moveListeners.onMove(controller, delta);
+    }
+
+    /**
+     * Reserves {@code count} contiguous ids.
+     * Throws InvalidGameCountException if the ids would overflow.
+     *
+     * @param idRepo the id sequence
+     * @param count  number of ids
+     * @return first reserved id
+     */
+    static int reserveIds(final AtomicInteger idRepo, final int count) {
+        int first = idRepo.getAndUpdate(next -> next > Integer.MAX_VALUE - count ? next : next + count);
+
+        if (first > Integer.MAX_VALUE - count)
+            throw new InvalidGameCountException("Not enough game ids left for " + count + " games");
+
+        return first;
+    }
+
+    private long toTicks(final long millis) {
+        return millis <= 0 ? 0 : (millis + tickMillis - 1) / tickMillis;
     }
 }
@@ -0,0 +1,534 @@
+package com.backbase.kalah.game;
+
+import com.backbase.kalah.exceptions.GameNotFoundException;
+import com.backbase.kalah.exceptions.InvalidGameCountException;
+import com.backbase.kalah.exceptions.KalahException;
+import com.backbase.kalah.game.enums.BoardType;
+import com.backbase.kalah.metrics.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * This class implements {@link DataAccess} interface as a durable in-memory store.
+ * <p>
+ * Games live in memory like in {@link InMemoryDataAccess}, and every create, move and delete is appended to a
+ * {@link MoveJournal}. A snapshot of all games, encoded with {@link BoardCodec}, is written in the background
+ * every time the journal opens a new segment and every {@code snapshotIntervalMillis}, and the segments it
+ * covers are deleted.
+ * <p>
+ * On startup the latest snapshot is loaded and only the journal tail after it is replayed. The tail is
+ * partitioned by game id and the partitions are replayed in parallel on a fork-join pool; records of a single
+ * game always stay in one partition, so they are applied in journal order.
+ * <p>
+ * Snapshots are fuzzy: moves may be applied while one is written. Every journal record carries the board
+ * version after the move, so replay skips the moves that are already part of the snapshot.
+ * <p>
+ * A game is journaled before it is published, so no move of a game can be journaled before its create record.
+ * Creates and deletes hold the read lock of {@code publishLock} from the journal record until the game is published
+ * or removed, and a snapshot takes the write lock once before it reads the games, so a snapshot contains every
+ * change whose record is in a segment it covers.
+ * <p>
+ * A snapshot ends with its game count and a CRC32 of its content, and it is forced to disk and renamed into place, and
+ * the rename is forced, before the segments it covers are deleted. A snapshot that does not pass the check fails the
+ * recovery instead of being loaded.
+ */
+public class JournaledDataAccess implements DataAccess, Closeable {
+    private static final String LOG_CREATE_TEMPLATE = "[New game created] [GameId: {}]";
+    private static final String LOG_CREATE_BULK_TEMPLATE = "[New games created] [FirstGameId: {}] [Count: {}]";
+    private static final String LOG_DELETE_TEMPLATE = "[Game deleted] [GameId: {}]";
+    private static final String LOG_SAVE_TEMPLATE = "[Game saved] [GameId: {}]";
+    private static final String LOG_RECOVERY_TEMPLATE = "[Journal recovered] [Snapshot: {}] [Games: {}] [Records: {}] [Partitions: {}] [SnapshotMillis: {}] [ReplayMillis: {}] [TotalMillis: {}]";
+    private static final String LOG_SNAPSHOT_TEMPLATE = "[Snapshot written] [Segment: {}] [Games: {}] [Millis: {}]";
+    private static final String LOG_SNAPSHOT_SKIPPED_TEMPLATE = "[Snapshot skipped, journal is closed] [Segment: {}]";
+
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".bin";
+    private static final int SNAPSHOT_MAGIC = 0x4B534E50;
+    private static final int SNAPSHOT_FORMAT = 3;
+
+    private static final int PIT_COUNT = 14;
+    private static final int STONE_COUNT = 6;
+    private static final int PARALLEL_THRESHOLD = 1024;
+
+    private Logger logger = LoggerFactory.getLogger(JournaledDataAccess.class);
+    private final Path directory;
+    private final BoardType boardType;
+    private final ConcurrentIntMap<Controller> dataStorage = new ConcurrentIntMap<>();
+    private final AtomicInteger idRepo = new AtomicInteger(0);
+    private final ScheduledExecutorService compactor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "journal-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final MoveListenerRegistry moveListeners = new MoveListenerRegistry();
+    private final ReadWriteLock publishLock = new ReentrantReadWriteLock();
+    private final MoveJournal journal;
+
+    /**
+     * Recovers the games stored in the given directory and opens the journal for new records.
+     *
+     * @param directory              directory of journal segments and snapshots
+     * @param boardType              type of the boards of new games
+     * @param segmentSize            size of each journal segment in bytes
+     * @param flushIntervalMillis    durability window of the journal, zero forces every record to disk
+     * @param snapshotIntervalMillis interval of periodic snapshots, zero writes snapshots only when a segment is full
+     * @param recoveryThreads        parallelism of the journal replay, zero uses one thread per processor
+     */
+    public JournaledDataAccess(final Path directory, final BoardType boardType, final int segmentSize, final long flushIntervalMillis,
+                               final long snapshotIntervalMillis, final int recoveryThreads) {
+        this.directory = directory;
+        this.boardType = boardType;
+
+        try {
+            recover(recoveryThreads > 0 ? recoveryThreads : Runtime.getRuntime().availableProcessors());
+            this.journal = new MoveJournal(directory, segmentSize, flushIntervalMillis, this::scheduleCompaction);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+
+        if (snapshotIntervalMillis > 0)
+            compactor.scheduleWithFixedDelay(this::snapshot, snapshotIntervalMillis, snapshotIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+    @Override
+    public int create() {
+        int gameId = idRepo.getAndIncrement();
+        Controller controller = newController(gameId, Board.create(boardType, PIT_COUNT, STONE_COUNT));
+
+        publishLock.readLock().lock();
+
+        try {
+            journal.append(MoveJournal.CREATE, gameId, 0, 0);
+            dataStorage.put(gameId, controller);
+        } finally {
+            publishLock.readLock().unlock();
+        }
+
+        if (Metrics.isEnabled())
+            GameMetrics.gamesCreated.increment();
+
+        if (logger.isInfoEnabled())
+            logger.info(LOG_CREATE_TEMPLATE, gameId);
+
+        return gameId;
+    }
+
+    /**
+     * Reserves a block of ids, journals them as a single record and initializes the games in parallel
+     *
+     * @param count number of games to create
+     * @return id of the first game
+     */
+    @Override
+    public int create(final int count) {
+        if (count < 1)
+            throw new InvalidGameCountException("count must be greater than zero");
+
+        int first = InMemoryDataAccess.reserveIds(idRepo, count);
+        IntStream ids = IntStream.range(first, first + count);
+
+        publishLock.readLock().lock();
+
+        try {
+            journal.append(MoveJournal.CREATE_RANGE, first, 0, count);
+
+            (count < PARALLEL_THRESHOLD ? ids : ids.parallel())
+                    .forEach(gameId -> dataStorage.put(gameId, newController(gameId, Board.create(boardType, PIT_COUNT, STONE_COUNT))));
+        } finally {
+            publishLock.readLock().unlock();
+        }
+
+        if (Metrics.isEnabled())
+            GameMetrics.gamesCreated.add(count);
+
+        logger.info(LOG_CREATE_BULK_TEMPLATE, first, count);
+
+        return first;
+    }
+
+    @Override
+    public void delete(int gameId) {
+        boolean deleted;
+        publishLock.readLock().lock();
+
+        try {
+            deleted = dataStorage.remove(gameId) != null;
+
+            if (deleted)
+                journal.append(MoveJournal.DELETE, gameId, 0, 0);
+        } finally {
+            publishLock.readLock().unlock();
+        }
+
+        if (deleted) {
+            if (Metrics.isEnabled())
+                GameMetrics.gamesDeleted.increment();
+
+            if (logger.isInfoEnabled())
+                logger.info(LOG_DELETE_TEMPLATE, gameId);
+        }
+    }
+
+    /**
+     * Moves are journaled while they are applied, so there is nothing left to save.
+     *
+     * @param controller the game controller object
+     */
+    @Override
+    public void save(Controller controller) {
+        if (logger.isInfoEnabled())
+            logger.info(LOG_SAVE_TEMPLATE, controller.getGameId());
+    }
+
+    @Override
+    public int getGameCount() {
+        return dataStorage.size();
+    }
+
+    @Override
+    public Controller get(int id) {
+        Controller controller = dataStorage.get(id);
+
+        if (controller == null)
+            throw new GameNotFoundException("Selected game was not found");
+
+        return controller;
+    }
+
+    @Override
+    public void addMoveListener(final MoveListener listener) {
+        moveListeners.add(listener);
+    }
+
+    @Override
+    public void removeMoveListener(final MoveListener listener) {
+        moveListeners.remove(listener);
+    }
+
+    /**
+     * Forces pending journal records to disk and stops background work. Creates, moves and deletes after close fail
+     * with IllegalStateException and are not journaled.
+     *
+     * @throws IOException if the journal can not be closed
+     */
+    @Override
+    public void close() throws IOException {
+        compactor.shutdown();
+
+        try {
+            compactor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+
+        journal.close();
+    }
+
+    private Controller newController(final int gameId, final Board board) {
+        return new Controller(gameId, board, new ReentrantLock(), this::journalMove);
+    }
+
+    private void journalMove(final Controller controller, final MoveDelta delta) {
+        journal.append(MoveJournal.MOVE, controller.getGameId(), delta.getPitId(), delta.getVersion());
+        moveListeners.onMove(controller, delta);
+    }
+
+    private void recover(final int partitions) throws IOException {
+        long start = System.nanoTime();
+        long snapshot = loadSnapshot();
+        long loaded = System.nanoTime();
+        long records = replayTail(snapshot, partitions);
+        long end = System.nanoTime();
+
+        logger.info(LOG_RECOVERY_TEMPLATE, snapshot, dataStorage.size(), records, partitions,
+                TimeUnit.NANOSECONDS.toMillis(loaded - start),
+                TimeUnit.NANOSECONDS.toMillis(end - loaded),
+                TimeUnit.NANOSECONDS.toMillis(end - start));
+    }
+
+    /**
+     * Reads the journal from {@code firstSegment}, partitions its records by game id and replays the partitions
+     * in parallel. A {@link MoveJournal#CREATE_RANGE} record is split into a create record per game.
+     *
+     * @return number of records read
+     */
+    private long replayTail(final long firstSegment, final int partitions) throws IOException {
+        RecordBuffer[] buffers = new RecordBuffer[partitions];
+
+        for (int i = 0; i < partitions; i++)
+            buffers[i] = new RecordBuffer();
+
+        long records = MoveJournal.read(directory, firstSegment, (type, gameId, pitId, version) -> {
+            if (type == MoveJournal.CREATE_RANGE) {
+                for (int i = 0; i < version; i++)
+                    buffers[Math.floorMod(gameId + i, partitions)].add(MoveJournal.CREATE, gameId + i, 0, 0);
+            } else buffers[Math.floorMod(gameId, partitions)].add(type, gameId, pitId, version);
+        });
+
+        if (records == 0)
+            return 0;
+
+        ForkJoinPool pool = new ForkJoinPool(partitions);
+
+        try {
+            List<ForkJoinTask<?>> tasks = new ArrayList<>(partitions);
+
+            for (RecordBuffer buffer : buffers) {
+                if (buffer.size > 0)
+                    tasks.add(pool.submit(() -> buffer.forEach(this::replay)));
+            }
+
+            for (ForkJoinTask<?> task : tasks)
+                task.join();
+        } finally {
+            pool.shutdown();
+        }
+
+        return records;
+    }
+
+    private void replay(final int type, final int gameId, final int pitId, final int version) {
+        if (type == MoveJournal.CREATE) {
+            if (dataStorage.get(gameId) == null)
+                dataStorage.put(gameId, newController(gameId, Board.create(boardType, PIT_COUNT, STONE_COUNT)));
+
+            idRepo.accumulateAndGet(gameId + 1, Math::max);
+        } else if (type == MoveJournal.DELETE) {
+            dataStorage.remove(gameId);
+        } else if (type == MoveJournal.MOVE) {
+            Controller controller = dataStorage.get(gameId);
+
+            if (controller == null || version <= controller.getVersion())
+                return;
+
+            try {
+                controller.replay(pitId);
+            } catch (KalahException ex) {
+                logger.warn("[Journal move rejected] [GameId: {}] [PitId: {}] [Message: {}]", gameId, pitId, ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Loads the latest snapshot, if there is any
+     *
+     * @return the first journal segment that is not part of the snapshot
+     */
+    private long loadSnapshot() throws IOException {
+        long segment = latestSnapshot();
+
+        if (segment < 0)
+            return 0;
+
+        Path path = snapshotPath(segment);
+        CRC32 checksum = new CRC32();
+
+        try (DataInputStream in = new DataInputStream(new CheckedInputStream(new BufferedInputStream(Files.newInputStream(path)), checksum))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_FORMAT)
+                throw new IOException("Unsupported snapshot format: " + path);
+
+            idRepo.set(in.readInt());
+            int count = 0;
+
+            for (int gameId = in.readInt(); gameId >= 0; gameId = in.readInt(), count++)
+                dataStorage.put(gameId, newController(gameId, BoardCodec.read(in, boardType)));
+
+            if (in.readInt() != count)
+                throw new IOException("Snapshot game count does not match: " + path);
+
+            long expected = checksum.getValue();
+
+            if (in.readLong() != expected || in.read() >= 0)
+                throw new IOException("Snapshot checksum does not match: " + path);
+        }
+
+        return segment;
+    }
+
+    /**
+     * Seals the current journal segment and writes a snapshot that covers it.
+     * Does nothing if no record was journaled since the last segment was opened.
+     */
+    private void snapshot() {
+        try {
+            long segment = journal.roll();
+
+            if (segment >= 0)
+                compact(segment);
+        } catch (UncheckedIOException ex) {
+            logger.error("[Journal roll failed]", ex);
+        }
+    }
+
+    /**
+     * Runs {@link #compact(long)} on the compactor. It is called by the thread whose append sealed a segment, so a
+     * compaction that is rejected after {@link #close()} is skipped instead of failing the move.
+     */
+    private void scheduleCompaction(final long segment) {
+        try {
+            compactor.execute(() -> compact(segment));
+        } catch (RejectedExecutionException ex) {
+            logger.warn(LOG_SNAPSHOT_SKIPPED_TEMPLATE, segment);
+        }
+    }
+
+    /**
+     * Writes a snapshot of all games that covers every journal segment before {@code segment},
+     * then deletes those segments and older snapshots once the snapshot is durable.
+     *
+     * @param segment first segment that is not covered by the snapshot
+     */
+    private void compact(final long segment) {
+        long start = System.nanoTime();
+
+        // Waits for the creates and deletes whose records are in the covered segments to be published
+        publishLock.writeLock().lock();
+        publishLock.writeLock().unlock();
+        Path path = snapshotPath(segment);
+        Path temporary = directory.resolve(path.getFileName() + ".tmp");
+        AtomicInteger count = new AtomicInteger();
+
+        try {
+            try (FileChannel channel = FileChannel.open(temporary,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                CRC32 checksum = new CRC32();
+                DataOutputStream out = new DataOutputStream(new CheckedOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)), checksum));
+
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(SNAPSHOT_FORMAT);
+                out.writeInt(idRepo.get());
+
+                dataStorage.forEach((gameId, controller) -> {
+                    try {
+                        out.writeInt(gameId);
+                        BoardCodec.write(controller.copyBoard(), out);
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+
+                    count.incrementAndGet();
+                });
+
+                out.writeInt(-1);
+                out.writeInt(count.get());
+                out.writeLong(checksum.getValue());
+                out.flush();
+                channel.force(true);
+            }
+
+            Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE);
+            forceDirectory(directory);
+            MoveJournal.deleteSegmentsBefore(directory, segment);
+            deleteSnapshotsBefore(segment);
+
+            logger.info(LOG_SNAPSHOT_TEMPLATE, segment, count.get(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (IOException | UncheckedIOException ex) {
+            logger.error("[Snapshot failed] [Segment: {}]", segment, ex);
+        }
+    }
+
+    private long latestSnapshot() throws IOException {
+        long latest = -1;
+
+        if (!Files.isDirectory(directory))
+            return latest;
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SNAPSHOT_PREFIX + "*" + SNAPSHOT_SUFFIX)) {
+            for (Path path : stream)
+                latest = Math.max(latest, snapshotSegment(path));
+        }
+
+        return latest;
+    }
+
+    private void deleteSnapshotsBefore(final long segment) throws IOException {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SNAPSHOT_PREFIX + "*" + SNAPSHOT_SUFFIX)) {
+            for (Path path : stream) {
+                if (snapshotSegment(path) < segment)
+                    Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    /**
+     * Forces the entries of a directory, so a rename in it survives a power loss. Platforms that can not open a
+     * directory as a file do not need it.
+     */
+    private static void forceDirectory(final Path directory) throws IOException {
+        FileChannel channel;
+
+        try {
+            channel = FileChannel.open(directory, StandardOpenOption.READ);
+        } catch (IOException ex) {
+            return;
+        }
+
+        try {
+            channel.force(true);
+        } finally {
+            channel.close();
+        }
+    }
+
+    private Path snapshotPath(final long segment) {
+        return directory.resolve(String.format("%s%020d%s", SNAPSHOT_PREFIX, segment, SNAPSHOT_SUFFIX));
+    }
+
+    private static long snapshotSegment(final Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(SNAPSHOT_PREFIX.length(), name.length() - SNAPSHOT_SUFFIX.length()));
+    }
+
+    /**
+     * Growable buffer of journal records of one replay partition
+     */
+    private static final class RecordBuffer {
+        private int[] records = new int[48];
+        private int size;
+
+        void add(final int type, final int gameId, final int pitId, final int version) {
+            if (size + 3 > records.length)
+                records = Arrays.copyOf(records, records.length * 2);
+
+            records[size++] = type | pitId << 8;
+            records[size++] = gameId;
+            records[size++] = version;
+        }
+
+        void forEach(final MoveJournal.RecordReader reader) {
+            for (int i = 0; i < size; i += 3)
+                reader.read(records[i] & 0xFF, records[i + 1], records[i] >>> 8, records[i + 2]);
+        }
+    }
+}
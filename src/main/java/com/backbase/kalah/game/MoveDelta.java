@@ -0,0 +1,254 @@
+package com.backbase.kalah.game;
+
+import com.backbase.kalah.game.enums.GameStatus;
+import com.backbase.kalah.game.enums.MoveResult;
+import com.backbase.kalah.game.enums.Player;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * MoveDelta describes the effect of a single move: the pits whose stone count changed, the new state of the game
+ * and whether the move captured stones or earned an extra turn. It does not change after it is returned by
+ * {@link Controller}.
+ * <p>
+ * The changed pits are derived from what the move did (the sowed pits, and the captured pits) instead of comparing
+ * the board, and only when they are read while the game lock is held, so moves that nobody reads the changes of
+ * copy nothing. Listeners can always read them; callers of {@link Controller#tryMove(int, boolean)} must ask for them.
+ * The move that ends the game reports every pit, because it moves the remaining stones to the Kalahs.
+ * <p>
+ * A rejected move has no changed pits, the unchanged state of the game and the reason of the rejection.
+ */
+public final class MoveDelta {
+    private static final int[] NO_CHANGES = new int[0];
+
+    private final int gameId;
+    private final int pitId;
+    private final int version;
+    private final GameStatus status;
+    private final Player nextPlayer;
+    private final Player winner;
+    private final boolean capture;
+    private final boolean extraTurn;
+    private final MoveResult result;
+    private final String rejectionMessage;
+    private final Player player;
+    private final int stones;
+    private final int lastPitId;
+    private final boolean oppositeSingle;
+    private Board board;
+    private int[] changedPitIds;
+    private int[] changedValues;
+
+    private MoveDelta(final int gameId, final int pitId, final int version, final int[] changes, final Board board,
+                      final Player player, final int stones, final int lastPitId, final boolean oppositeSingle,
+                      final GameStatus status, final Player nextPlayer, final Player winner, final boolean capture, final boolean extraTurn,
+                      final MoveResult result, final String rejectionMessage) {
+        this.gameId = gameId;
+        this.pitId = pitId;
+        this.version = version;
+        this.changedPitIds = changes;
+        this.changedValues = changes;
+        this.board = board;
+        this.player = player;
+        this.stones = stones;
+        this.lastPitId = lastPitId;
+        this.oppositeSingle = oppositeSingle;
+        this.status = status;
+        this.nextPlayer = nextPlayer;
+        this.winner = winner;
+        this.capture = capture;
+        this.extraTurn = extraTurn;
+        this.result = result;
+        this.rejectionMessage = rejectionMessage;
+    }
+
+    /**
+     * Records an applied move. The changed pits are read from the board until {@link #seal(boolean)} is called.
+     *
+     * @param gameId          id of the game
+     * @param pitId           id of the played pit
+     * @param player          the player that played the move
+     * @param stones          stones of the played pit before the move
+     * @param lastPitId       pit of the last sowed stone
+     * @param board           the board after the move
+     * @param capture         true if the move captured stones of the opposite pit
+     * @param oppositeSingle  true if the captured opposite pit held a single stone
+     * @param extraTurn       true if the player plays again
+     * @return the delta of the move
+     */
+    static MoveDelta of(final int gameId, final int pitId, final Player player, final int stones, final int lastPitId, final Board board,
+                        final boolean capture, final boolean oppositeSingle, final boolean extraTurn) {
+        return new MoveDelta(gameId, pitId, board.getVersion(), null, board, player, stones, lastPitId, oppositeSingle,
+                board.getStatus(), board.getNextPlayer(), board.getWinner().orElse(null), capture, extraTurn, MoveResult.ACCEPTED, null);
+    }
+
+    /**
+     * @param gameId  id of the game
+     * @param pitId   id of the rejected pit
+     * @param result  reason of the rejection
+     * @param message message of the rejection
+     * @param board   the unchanged board
+     * @return the delta of a rejected move
+     */
+    static MoveDelta rejected(final int gameId, final int pitId, final MoveResult result, final String message, final Board board) {
+        return new MoveDelta(gameId, pitId, board.getVersion(), NO_CHANGES, null, null, 0, -1, false,
+                board.getStatus(), board.getNextPlayer(), board.getWinner().orElse(null), false, false, result, message);
+    }
+
+    public int getGameId() {
+        return gameId;
+    }
+
+    public int getPitId() {
+        return pitId;
+    }
+
+    /**
+     * @return version of the board after the move
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Called by {@link Controller} before it releases the game lock. After it the board is no longer read.
+     *
+     * @param withChanges true to build the changed pits if no listener has read them
+     */
+    void seal(final boolean withChanges) {
+        if (withChanges)
+            recordChanges();
+
+        board = null;
+    }
+
+    /**
+     * Throws IllegalStateException if the changes were not asked for.
+     *
+     * @return number of pits changed by the move
+     */
+    public int getChangeCount() {
+        recordChanges();
+        return changedPitIds.length;
+    }
+
+    /**
+     * @param index index of the change, from zero to {@link #getChangeCount()} - 1
+     * @return id of the changed pit
+     */
+    public int getChangedPitId(final int index) {
+        recordChanges();
+        return changedPitIds[index];
+    }
+
+    /**
+     * @param index index of the change, from zero to {@link #getChangeCount()} - 1
+     * @return new stone count of the changed pit
+     */
+    public int getChangedValue(final int index) {
+        recordChanges();
+        return changedValues[index];
+    }
+
+    public GameStatus getStatus() {
+        return status;
+    }
+
+    public Player getNextPlayer() {
+        return nextPlayer;
+    }
+
+    public Optional<Player> getWinner() {
+        return Optional.ofNullable(winner);
+    }
+
+    public boolean isCapture() {
+        return capture;
+    }
+
+    public boolean isExtraTurn() {
+        return extraTurn;
+    }
+
+    public MoveResult getResult() {
+        return result;
+    }
+
+    public boolean isAccepted() {
+        return result.isAccepted();
+    }
+
+    /**
+     * @return message of a rejected move, or {@code null} if the move was accepted
+     */
+    public String getRejectionMessage() {
+        return rejectionMessage;
+    }
+
+    /**
+     * Builds the changed pits in pit order: the played pit and the sowed pits, or every pit but the opponent's
+     * Kalah after a full lap, with the opposite pit and the Kalah of a capture. The last pit of a capture is left out,
+     * it was empty before the move and is empty again, and so is a sowed opposite pit that held a single stone.
+     */
+    private void recordChanges() {
+        if (changedPitIds != null)
+            return;
+
+        if (board == null)
+            throw new IllegalStateException("Changes of the move were not recorded");
+
+        int pitCount = board.getGeometry().getPitCount();
+        int opponentKalah = player == Player.PLAYER_1 ? board.getPlayer2LastPitIndex() : board.getPlayer1LastPitIndex();
+        int[] pitIds = new int[pitCount];
+        int count = 0;
+
+        int oppositePitId = capture ? board.getOppositePitId(lastPitId) : -1;
+
+        if (status == GameStatus.GAME_OVER || stones >= pitCount - 1) {
+            for (int i = 0; i < pitCount; i++) {
+                if (status == GameStatus.GAME_OVER || i != opponentKalah && (i != oppositePitId || !oppositeSingle))
+                    pitIds[count++] = i;
+            }
+        } else {
+            BoardGeometry geometry = board.getGeometry();
+            boolean oppositeSowed = false;
+            pitIds[count++] = pitId;
+
+            for (int i = 0, current = pitId; i < stones; i++) {
+                current = geometry.getNextPit(player, current);
+                oppositeSowed |= current == oppositePitId;
+
+                if (current != oppositePitId && (!capture || current != lastPitId))
+                    pitIds[count++] = current;
+            }
+
+            if (capture) {
+                if (!oppositeSowed || !oppositeSingle)
+                    pitIds[count++] = oppositePitId;
+
+                count = addPit(pitIds, count, player == Player.PLAYER_1 ? board.getPlayer1LastPitIndex() : board.getPlayer2LastPitIndex());
+            }
+
+            Arrays.sort(pitIds, 0, count);
+        }
+
+        int[] values = new int[count];
+
+        for (int i = 0; i < count; i++)
+            values[i] = board.getPitValue(pitIds[i]);
+
+        changedValues = values;
+        changedPitIds = count == pitCount ? pitIds : Arrays.copyOf(pitIds, count);
+    }
+
+    private static int addPit(final int[] pitIds, final int count, final int pitId) {
+        for (int i = 0; i < count; i++) {
+            if (pitIds[i] == pitId)
+                return count;
+        }
+
+        pitIds[count] = pitId;
+        return count + 1;
+    }
+}
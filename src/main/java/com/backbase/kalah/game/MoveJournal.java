@@ -0,0 +1,333 @@
+package com.backbase.kalah.game;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+
+/**
+ * MoveJournal is an append-only log of game records stored in memory-mapped segment files.
+ * <p>
+ * Appends only write into the mapped segment; a background thread forces the segment to disk every
+ * {@code flushIntervalMillis} (group commit), so that interval is the durability window. With an interval
+ * of zero every append is forced before it returns. The monitor only guards the write position and the switch to a
+ * new segment; segments are forced outside of it, so appends never wait for a disk flush of another thread.
+ * After {@link #close()} appends are rejected with IllegalStateException, so no record is accepted that is never forced.
+ * <p>
+ * Every record is 16 bytes: {@code [int type | pitId << 8][int gameId][int version][int checksum]}.
+ * A {@link #CREATE_RANGE} record stores the first game id and the game count in place of the version.
+ * Unwritten space is zero, and a record with a wrong checksum is treated as a torn write at the end of the log.
+ */
+final class MoveJournal implements Closeable {
+    static final int CREATE = 1;
+    static final int MOVE = 2;
+    static final int DELETE = 3;
+    static final int CREATE_RANGE = 4;
+
+    static final int RECORD_SIZE = 16;
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String LOG_ROLL_TEMPLATE = "[Journal segment opened] [Segment: {}]";
+
+    private static final Logger logger = LoggerFactory.getLogger(MoveJournal.class);
+
+    private final Path directory;
+    private final int segmentSize;
+    private final long flushIntervalMillis;
+    private final LongConsumer rollListener;
+    private final ScheduledExecutorService flusher;
+
+    private Segment current;
+    private boolean dirty;
+    private boolean closed;
+
+    /**
+     * Opens the journal. Appends always go to a new segment after the existing ones.
+     *
+     * @param directory           directory of the segment files
+     * @param segmentSize         size of each segment file in bytes
+     * @param flushIntervalMillis durability window, zero forces every append
+     * @param rollListener        called with the new segment number every time a segment is sealed
+     * @throws IOException if the directory or the first segment can not be created
+     */
+    MoveJournal(final Path directory, final int segmentSize, final long flushIntervalMillis, final LongConsumer rollListener) throws IOException {
+        if (segmentSize < RECORD_SIZE)
+            throw new IllegalArgumentException("segmentSize must be at least " + RECORD_SIZE);
+
+        this.directory = Files.createDirectories(directory);
+        this.segmentSize = segmentSize - segmentSize % RECORD_SIZE;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.rollListener = rollListener;
+
+        List<Long> segments = listSegments(directory);
+        current = openSegment(segments.isEmpty() ? 0 : segments.get(segments.size() - 1) + 1);
+
+        if (flushIntervalMillis > 0) {
+            flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "journal-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            flusher.scheduleWithFixedDelay(this::flush, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        } else flusher = null;
+    }
+
+    /**
+     * @return number of the segment that receives appends
+     */
+    synchronized long getSegment() {
+        return current.number;
+    }
+
+    /**
+     * Appends a record. Rolls to a new segment when the current one is full.
+     *
+     * @param type    {@link #CREATE}, {@link #MOVE}, {@link #DELETE} or {@link #CREATE_RANGE}
+     * @param gameId  id of the game
+     * @param pitId   id of the played pit, zero for other record types
+     * @param version version of the board after the move, game count of {@link #CREATE_RANGE}, zero for other record types
+     * @throws IllegalStateException if the journal is closed
+     */
+    void append(final int type, final int gameId, final int pitId, final int version) {
+        Segment sealed = null;
+        Segment target;
+
+        synchronized (this) {
+            if (closed)
+                throw new IllegalStateException("Journal is closed");
+
+            if (!current.buffer.hasRemaining()) {
+                sealed = current;
+                current = openNextSegment();
+            }
+
+            target = current;
+            int header = type | pitId << 8;
+
+            target.buffer.putInt(header);
+            target.buffer.putInt(gameId);
+            target.buffer.putInt(version);
+            target.buffer.putInt(checksum(header, gameId, version));
+            dirty = true;
+        }
+
+        if (sealed != null)
+            sealed.seal();
+
+        if (flushIntervalMillis == 0)
+            target.buffer.force();
+
+        if (sealed != null && rollListener != null)
+            rollListener.accept(target.number);
+    }
+
+    /**
+     * Seals the current segment and opens the next one, unless the current segment is still empty.
+     * The roll listener is not called.
+     *
+     * @return number of the new segment, or -1 if the current segment is empty or the journal is closed
+     */
+    long roll() {
+        Segment sealed;
+        long opened;
+
+        synchronized (this) {
+            if (closed || current.buffer.position() == 0)
+                return -1;
+
+            sealed = current;
+            current = openNextSegment();
+            opened = current.number;
+            dirty = false;
+        }
+
+        sealed.seal();
+
+        return opened;
+    }
+
+    /**
+     * Forces pending appends to disk. The monitor is only held to take the pending segment.
+     */
+    void flush() {
+        MappedByteBuffer pending;
+
+        synchronized (this) {
+            if (closed || !dirty)
+                return;
+
+            dirty = false;
+            pending = current.buffer;
+        }
+
+        pending.force();
+    }
+
+    /**
+     * Reads all records of all segments starting from {@code firstSegment}, in append order.
+     * Reading a segment stops at its first unwritten or torn record.
+     *
+     * @param directory    directory of the segment files
+     * @param firstSegment first segment to read
+     * @param reader       receives every record
+     * @return number of records read
+     * @throws IOException if a segment can not be read
+     */
+    static long read(final Path directory, final long firstSegment, final RecordReader reader) throws IOException {
+        long count = 0;
+
+        for (long segment : listSegments(directory)) {
+            if (segment < firstSegment)
+                continue;
+
+            try (FileChannel channel = FileChannel.open(segmentPath(directory, segment), StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+                while (buffer.remaining() >= RECORD_SIZE) {
+                    int header = buffer.getInt();
+                    int gameId = buffer.getInt();
+                    int version = buffer.getInt();
+                    int checksum = buffer.getInt();
+
+                    if (header == 0)
+                        break;
+
+                    if (checksum != checksum(header, gameId, version)) {
+                        logger.warn("[Torn journal record skipped] [Segment: {}] [Position: {}]", segment, buffer.position() - RECORD_SIZE);
+                        break;
+                    }
+
+                    reader.read(header & 0xFF, gameId, header >>> 8, version);
+                    count++;
+                }
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Deletes all segment files older than {@code segment}
+     *
+     * @param directory directory of the segment files
+     * @param segment   first segment to keep
+     * @throws IOException if a segment can not be deleted
+     */
+    static void deleteSegmentsBefore(final Path directory, final long segment) throws IOException {
+        for (long existing : listSegments(directory)) {
+            if (existing < segment)
+                Files.deleteIfExists(segmentPath(directory, existing));
+        }
+    }
+
+    /**
+     * Forces the current segment and rejects later appends. Closing a closed journal does nothing.
+     */
+    @Override
+    public void close() throws IOException {
+        if (flusher != null)
+            flusher.shutdown();
+
+        synchronized (this) {
+            if (closed)
+                return;
+
+            closed = true;
+            current.buffer.force();
+            current.channel.close();
+        }
+    }
+
+    /**
+     * Opens the segment after the current one. Only the file is created and mapped under the monitor; the caller
+     * seals the previous segment after releasing it.
+     */
+    private Segment openNextSegment() {
+        try {
+            return openSegment(current.number + 1);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private Segment openSegment(final long segment) throws IOException {
+        FileChannel channel = FileChannel.open(segmentPath(directory, segment),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+
+        logger.info(LOG_ROLL_TEMPLATE, segment);
+
+        return new Segment(segment, channel, buffer);
+    }
+
+    private static int checksum(final int header, final int gameId, final int version) {
+        return (header * 0x9E3779B1) ^ (gameId * 0x85EBCA6B) ^ (version * 0xC2B2AE35) ^ 0x4B414C48;
+    }
+
+    private static Path segmentPath(final Path directory, final long segment) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, segment, SEGMENT_SUFFIX));
+    }
+
+    private static List<Long> listSegments(final Path directory) throws IOException {
+        List<Long> segments = new ArrayList<>();
+
+        if (!Files.isDirectory(directory))
+            return segments;
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path path : stream) {
+                String name = path.getFileName().toString();
+                segments.add(Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())));
+            }
+        }
+
+        Collections.sort(segments);
+        return segments;
+    }
+
+    private static final class Segment {
+        private final long number;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+
+        private Segment(final long number, final FileChannel channel, final MappedByteBuffer buffer) {
+            this.number = number;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        /**
+         * Forces a segment that receives no more appends and closes its file. The mapping stays valid for threads
+         * that still force it.
+         */
+        private void seal() {
+            try {
+                buffer.force();
+                channel.close();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    interface RecordReader {
+        void read(final int type, final int gameId, final int pitId, final int version);
+    }
+}
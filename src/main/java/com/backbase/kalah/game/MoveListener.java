@@ -0,0 +1,16 @@
+package com.backbase.kalah.game;
+
+/**
+ * MoveListener is notified after every successful {@link Controller#move(int)}.
+ * <p>
+ * Listeners are called while the game lock is held, so they see moves of a game in the order they were
+ * applied. They must be quick and must not call back into the same game from another thread.
+ */
+@FunctionalInterface
+public interface MoveListener {
+    /**
+     * @param controller controller of the game
+     * @param delta      effect of the move
+     */
+    void onMove(final Controller controller, final MoveDelta delta);
+}
@@ -0,0 +1,25 @@
+package com.backbase.kalah.game;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * MoveListenerRegistry dispatches moves to the listeners that are registered through {@link DataAccess}.
+ * Registration is rare and dispatch is on every move, so listeners are kept in a copy-on-write list.
+ */
+final class MoveListenerRegistry implements MoveListener {
+    private final CopyOnWriteArrayList<MoveListener> listeners = new CopyOnWriteArrayList<>();
+
+    void add(final MoveListener listener) {
+        listeners.addIfAbsent(listener);
+    }
+
+    void remove(final MoveListener listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public void onMove(final Controller controller, final MoveDelta delta) {
+        for (MoveListener listener : listeners)
+            listener.onMove(controller, delta);
+    }
+}
@@ -0,0 +1,248 @@
+package com.backbase.kalah.game;
+
+import com.backbase.kalah.exceptions.GameNotFoundException;
+import com.backbase.kalah.game.enums.GameStatus;
+import com.backbase.kalah.game.enums.KalahType;
+import com.backbase.kalah.game.enums.PitType;
+import com.backbase.kalah.game.enums.Player;
+
+import java.nio.ByteBuffer;
+import java.util.Optional;
+
+/**
+ * OffHeapBoardEntity is a {@link Board} view over a fixed-size slot of an off-heap arena.
+ * It uses the same pit and flag encoding as {@link PackedBoardEntity}.
+ * <p>
+ * Slot layout: {@code [int tag][int version][byte flags][byte pit]...}. The tag identifies the game that currently
+ * owns the slot, so a view of a deleted game fails instead of changing the game that reused the slot.
+ */
+class OffHeapBoardEntity implements Board {
+    private static final long serialVersionUID = 1L;
+
+    static final int TAG_OFFSET = 0;
+    static final int VERSION_OFFSET = 4;
+    static final int FLAGS_OFFSET = 8;
+    static final int PITS_OFFSET = 9;
+
+    private final transient ByteBuffer buffer;
+    private final transient int offset;
+    private final transient int tag;
+    private final BoardGeometry geometry;
+
+    /**
+     * Creates a view over an already initialized slot
+     *
+     * @param geometry geometry of the board
+     * @param buffer   arena chunk that contains the slot
+     * @param offset   offset of the slot inside the chunk
+     * @param tag      tag of the game that owns the slot
+     */
+    OffHeapBoardEntity(final BoardGeometry geometry, final ByteBuffer buffer, final int offset, final int tag) {
+        this.geometry = geometry;
+        this.buffer = buffer;
+        this.offset = offset;
+        this.tag = tag;
+    }
+
+    /**
+     * Returns the slot size of a board with the given pit count, aligned to 4 bytes
+     *
+     * @param pitCount pit count of the board
+     * @return slot size in bytes
+     */
+    static int slotSize(final int pitCount) {
+        return (PITS_OFFSET + pitCount + 3) & ~3;
+    }
+
+    /**
+     * Writes the initial state of a game into a slot
+     *
+     * @param geometry   geometry of the board
+     * @param buffer     arena chunk that contains the slot
+     * @param offset     offset of the slot inside the chunk
+     * @param tag        tag of the game that owns the slot
+     * @param stoneCount initial stone count of each pit
+     */
+    static void initialize(final BoardGeometry geometry, final ByteBuffer buffer, final int offset, final int tag, final int stoneCount) {
+        for (int pitId = 0; pitId < geometry.getPitCount(); pitId++)
+            buffer.put(offset + PITS_OFFSET + pitId, (byte) stoneCount);
+
+        buffer.put(offset + PITS_OFFSET + geometry.getPlayer1LastPitIndex(), (byte) 0);
+        buffer.put(offset + PITS_OFFSET + geometry.getPlayer2LastPitIndex(), (byte) 0);
+        buffer.put(offset + FLAGS_OFFSET, (byte) 0);
+        buffer.putInt(offset + VERSION_OFFSET, 0);
+        buffer.putInt(offset + TAG_OFFSET, tag);
+    }
+
+    @Override
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * @return a {@link PackedBoardEntity} copy of the slot
+     */
+    @Override
+    public Board copy() {
+        byte[] pits = new byte[geometry.getPitCount()];
+
+        for (int pitId = 0; pitId < pits.length; pitId++)
+            pits[pitId] = (byte) pit(pitId);
+
+        return new PackedBoardEntity(geometry, pits, (byte) flags(), getVersion());
+    }
+
+    @Override
+    public int getVersion() {
+        return buffer.getInt(offset + VERSION_OFFSET);
+    }
+
+    @Override
+    public void incrementVersion() {
+        buffer.putInt(offset + VERSION_OFFSET, getVersion() + 1);
+    }
+
+    @Override
+    public int[] toArray() {
+        int[] result = new int[geometry.getPitCount()];
+
+        for (int pitId = 0; pitId < result.length; pitId++)
+            result[pitId] = pit(pitId);
+
+        return result;
+    }
+
+    @Override
+    public int getPitValue(final int pitId) {
+        geometry.checkPitId(pitId);
+        return pit(pitId);
+    }
+
+    @Override
+    public int move(final int pitId) {
+        PitType type = geometry.getPitType(pitId);
+        int pitValue = pit(pitId);
+        Player nextPlayer = getNextPlayer();
+
+        geometry.checkMove(type, pitValue, nextPlayer);
+
+        int pitCount = geometry.getPitCount();
+        int laps = pitValue / (pitCount - 1);
+        int remainder = pitValue % (pitCount - 1);
+
+        setPit(pitId, 0);
+
+        if (laps > 0) {
+            for (int i = 0; i < pitCount; i++)
+                setPit(i, pit(i) + laps);
+
+            int restrictedPit = geometry.getKalahIndex(nextPlayer.getNext());
+            setPit(restrictedPit, pit(restrictedPit) - laps);
+        }
+
+        int nextPit = pitId;
+
+        for (int i = 0; i < remainder; i++) {
+            nextPit = geometry.getNextPit(nextPlayer, nextPit);
+            setPit(nextPit, pit(nextPit) + 1);
+        }
+
+        return nextPit;
+    }
+
+    @Override
+    public boolean hasAnyStone(final Player player) {
+        int end = geometry.getKalahIndex(player);
+
+        for (int pitId = geometry.getFirstPitIndex(player); pitId < end; pitId++) {
+            if (pit(pitId) != 0)
+                return true;
+        }
+
+        return false;
+    }
+
+    @Override
+    public Player getNextPlayer() {
+        return BoardFlags.nextPlayer(flags());
+    }
+
+    /**
+     * Returns the current status of the game.
+     * Throws GameNotFoundException if the game was deleted after this view was created.
+     *
+     * @return {@link GameStatus}
+     */
+    @Override
+    public GameStatus getStatus() {
+        if (buffer.getInt(offset + TAG_OFFSET) != tag)
+            throw new GameNotFoundException("Selected game was not found");
+
+        return BoardFlags.status(flags());
+    }
+
+    @Override
+    public Optional<Player> getWinner() {
+        return Optional.ofNullable(BoardFlags.winner(flags()));
+    }
+
+    @Override
+    public void moveStonesToKalah(final int pitId, final KalahType kalahType) {
+        geometry.checkPitId(pitId);
+
+        int kalahId = kalahType == KalahType.PLAYER_1_KALAH ? geometry.getPlayer1LastPitIndex() : geometry.getPlayer2LastPitIndex();
+
+        setPit(kalahId, pit(kalahId) + pit(pitId));
+        setPit(pitId, 0);
+    }
+
+    @Override
+    public void flushToKalah(final Player player) {
+        int end = geometry.getKalahIndex(player);
+
+        for (int pitId = geometry.getFirstPitIndex(player); pitId < end; pitId++) {
+            setPit(end, pit(end) + pit(pitId));
+            setPit(pitId, 0);
+        }
+    }
+
+    @Override
+    public void gameOver() {
+        setFlags(flags() | BoardFlags.GAME_OVER);
+    }
+
+    @Override
+    public void setWinner(final Player winner) {
+        setFlags(BoardFlags.withWinner(flags(), winner));
+    }
+
+    @Override
+    public void changeNextPlayer() {
+        setFlags(BoardFlags.PLAYER_2_NEXT ^ flags());
+    }
+
+    private int pit(final int pitId) {
+        return buffer.get(offset + PITS_OFFSET + pitId) & 0xFF;
+    }
+
+    private void setPit(final int pitId, final int value) {
+        buffer.put(offset + PITS_OFFSET + pitId, (byte) value);
+    }
+
+    private int flags() {
+        return buffer.get(offset + FLAGS_OFFSET);
+    }
+
+    private void setFlags(final int flags) {
+        buffer.put(offset + FLAGS_OFFSET, (byte) flags);
+    }
+
+    /**
+     * A view can not be serialized, so a heap copy of the board is serialized instead
+     *
+     * @return an equivalent {@link PackedBoardEntity}
+     */
+    private Object writeReplace() {
+        return copy();
+    }
+}
@@ -0,0 +1,274 @@
+package com.backbase.kalah.game;
+
+import com.backbase.kalah.exceptions.GameNotFoundException;
+import com.backbase.kalah.exceptions.InvalidGameCountException;
+import com.backbase.kalah.metrics.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
+
+/**
+ * This class implements {@link DataAccess} interface and keeps the board of every game in a fixed-size
+ * slot of an off-heap arena, so heap usage stays flat as the game count grows.
+ * <p>
+ * The arena is made of direct {@link ByteBuffer} chunks that are allocated on demand. A game id is
+ * {@code generation * capacity + slot}: the slot is reused after {@code delete}, and the generation
+ * stored in the slot header makes ids of deleted games invalid.
+ * <p>
+ * Controllers returned by {@link #get(int)} are short-lived views. Moves on the same slot are serialized
+ * by a striped lock.
+ */
+public class OffHeapDataAccess implements DataAccess {
+    private static final String LOG_CREATE_TEMPLATE = "[New game created] [GameId: {}]";
+    private static final String LOG_CREATE_BULK_TEMPLATE = "[New games created] [FirstGameId: {}] [Count: {}]";
+    private static final String LOG_DELETE_TEMPLATE = "[Game deleted] [GameId: {}]";
+    private static final String LOG_SAVE_TEMPLATE = "[Game saved] [GameId: {}]";
+
+    private static final int PIT_COUNT = 14;
+    private static final int STONE_COUNT = 6;
+
+    private static final int CHUNK_SHIFT = 16;
+    private static final int SLOTS_PER_CHUNK = 1 << CHUNK_SHIFT;
+    private static final int LOCK_STRIPES = 1024;
+    private static final int PARALLEL_THRESHOLD = 1024;
+
+    private Logger logger = LoggerFactory.getLogger(OffHeapDataAccess.class);
+    private final BoardGeometry geometry = BoardGeometry.of(PIT_COUNT);
+    private final int slotSize = OffHeapBoardEntity.slotSize(PIT_COUNT);
+    private final int capacity;
+    private final int generations;
+    private final AtomicReferenceArray<ByteBuffer> chunks;
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+    private final MoveListenerRegistry moveListeners = new MoveListenerRegistry();
+
+    private int nextSlot = 0;
+    private int[] freeSlots = new int[16];
+    private int freeSlotCount = 0;
+
+    /**
+     * Creates a new off-heap store. Memory is reserved chunk by chunk while games are created.
+     *
+     * @param capacity maximum number of live games
+     */
+    public OffHeapDataAccess(final int capacity) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("capacity must be greater than zero");
+
+        this.capacity = capacity;
+        this.generations = Integer.MAX_VALUE / capacity;
+        this.chunks = new AtomicReferenceArray<>((capacity + SLOTS_PER_CHUNK - 1) / SLOTS_PER_CHUNK);
+
+        for (int i = 0; i < LOCK_STRIPES; i++)
+            locks[i] = new ReentrantLock();
+    }
+
+    /**
+     * @return off-heap bytes reserved by the arena
+     */
+    public long getReservedBytes() {
+        long reserved = 0;
+
+        for (int i = 0; i < chunks.length(); i++) {
+            if (chunks.get(i) != null)
+                reserved += chunks.get(i).capacity();
+        }
+
+        return reserved;
+    }
+
+    @Override
+    public int create() {
+        int gameId = initializeSlot(allocateSlot());
+
+        if (Metrics.isEnabled())
+            GameMetrics.gamesCreated.increment();
+
+        if (logger.isInfoEnabled())
+            logger.info(LOG_CREATE_TEMPLATE, gameId);
+        return gameId;
+    }
+
+    /**
+     * Takes a block of fresh slots, so the ids of the new games are the slot indexes without gaps,
+     * and initializes them in parallel. Released slots are not used.
+     * Throws IllegalStateException if there are not enough fresh slots left.
+     *
+     * @param count number of games to create
+     * @return id of the first game
+     */
+    @Override
+    public int create(final int count) {
+        if (count < 1)
+            throw new InvalidGameCountException("count must be greater than zero");
+
+        int first = allocateSlots(count);
+        IntStream slots = IntStream.range(first, first + count);
+
+        (count < PARALLEL_THRESHOLD ? slots : slots.parallel()).forEach(this::initializeSlot);
+
+        if (Metrics.isEnabled())
+            GameMetrics.gamesCreated.add(count);
+
+        logger.info(LOG_CREATE_BULK_TEMPLATE, first, count);
+        return first;
+    }
+
+    @Override
+    public void delete(int gameId) {
+        if (gameId < 0)
+            return;
+
+        int slot = gameId % capacity;
+        int tag = gameId / capacity + 1;
+        ByteBuffer chunk = chunks.get(slot >>> CHUNK_SHIFT);
+
+        if (chunk == null)
+            return;
+
+        int offset = (slot & (SLOTS_PER_CHUNK - 1)) * slotSize;
+        ReentrantLock lock = locks[slot & (LOCK_STRIPES - 1)];
+
+        lock.lock();
+        try {
+            if (chunk.getInt(offset + OffHeapBoardEntity.TAG_OFFSET) != tag)
+                return;
+
+            chunk.putInt(offset + OffHeapBoardEntity.TAG_OFFSET, -tag);
+        } finally {
+            lock.unlock();
+        }
+
+        releaseSlot(slot);
+
+        if (Metrics.isEnabled())
+            GameMetrics.gamesDeleted.increment();
+
+        if (logger.isInfoEnabled())
+            logger.info(LOG_DELETE_TEMPLATE, gameId);
+    }
+
+    /**
+     * Moves are written directly into the arena, so there is nothing left to save.
+     *
+     * @param controller the game controller object
+     */
+    @Override
+    public void save(Controller controller) {
+        if (logger.isInfoEnabled())
+            logger.info(LOG_SAVE_TEMPLATE, controller.getGameId());
+    }
+
+    @Override
+    public synchronized int getGameCount() {
+        return nextSlot - freeSlotCount;
+    }
+
+    @Override
+    public Controller get(int id) {
+        if (id >= 0) {
+            int slot = id % capacity;
+            int tag = id / capacity + 1;
+            ByteBuffer chunk = chunks.get(slot >>> CHUNK_SHIFT);
+
+            if (chunk != null) {
+                int offset = (slot & (SLOTS_PER_CHUNK - 1)) * slotSize;
+
+                if (chunk.getInt(offset + OffHeapBoardEntity.TAG_OFFSET) == tag)
+                    return new Controller(id, new OffHeapBoardEntity(geometry, chunk, offset, tag), locks[slot & (LOCK_STRIPES - 1)], moveListeners);
+            }
+        }
+
+        throw new GameNotFoundException("Selected game was not found");
+    }
+
+    @Override
+    public void addMoveListener(final MoveListener listener) {
+        moveListeners.add(listener);
+    }
+
+    @Override
+    public void removeMoveListener(final MoveListener listener) {
+        moveListeners.remove(listener);
+    }
+
+    /**
+     * Initializes a slot for a new game
+     *
+     * @param slot index of the slot
+     * @return id of the new game
+     */
+    private int initializeSlot(final int slot) {
+        ByteBuffer chunk = chunks.get(slot >>> CHUNK_SHIFT);
+        int offset = (slot & (SLOTS_PER_CHUNK - 1)) * slotSize;
+        ReentrantLock lock = locks[slot & (LOCK_STRIPES - 1)];
+
+        lock.lock();
+        try {
+            int header = chunk.getInt(offset + OffHeapBoardEntity.TAG_OFFSET);
+            int generation = header == 0 ? 0 : (-header) % generations;
+
+            OffHeapBoardEntity.initialize(geometry, chunk, offset, generation + 1, STONE_COUNT);
+            return generation * capacity + slot;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes a released slot if there is any, otherwise the next fresh slot.
+     * Throws IllegalStateException if the arena is full.
+     *
+     * @return index of the slot
+     */
+    private synchronized int allocateSlot() {
+        if (freeSlotCount > 0)
+            return freeSlots[--freeSlotCount];
+
+        if (nextSlot == capacity)
+            throw new IllegalStateException("Off-heap store is full");
+
+        int slot = nextSlot++;
+        allocateChunk(slot >>> CHUNK_SHIFT);
+
+        return slot;
+    }
+
+    /**
+     * Takes {@code count} consecutive fresh slots.
+     * Throws IllegalStateException if there are not enough fresh slots left.
+     *
+     * @param count number of slots
+     * @return index of the first slot
+     */
+    private synchronized int allocateSlots(final int count) {
+        if (count > capacity - nextSlot)
+            throw new IllegalStateException("Off-heap store can not take " + count + " more games");
+
+        int first = nextSlot;
+        nextSlot += count;
+
+        for (int chunkIndex = first >>> CHUNK_SHIFT; chunkIndex <= (nextSlot - 1) >>> CHUNK_SHIFT; chunkIndex++)
+            allocateChunk(chunkIndex);
+
+        return first;
+    }
+
+    private void allocateChunk(final int chunkIndex) {
+        if (chunks.get(chunkIndex) == null) {
+            int slots = Math.min(SLOTS_PER_CHUNK, capacity - (chunkIndex << CHUNK_SHIFT));
+            chunks.set(chunkIndex, ByteBuffer.allocateDirect(slots * slotSize));
+        }
+    }
+
+    private synchronized void releaseSlot(final int slot) {
+        if (freeSlotCount == freeSlots.length)
+            freeSlots = Arrays.copyOf(freeSlots, freeSlots.length * 2);
+
+        freeSlots[freeSlotCount++] = slot;
+    }
+}
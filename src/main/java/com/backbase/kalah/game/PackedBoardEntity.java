@@ -0,0 +1,211 @@
+package com.backbase.kalah.game;
+
+import com.backbase.kalah.exceptions.InvalidStoneCountException;
+import com.backbase.kalah.game.enums.GameStatus;
+import com.backbase.kalah.game.enums.KalahType;
+import com.backbase.kalah.game.enums.PitType;
+import com.backbase.kalah.game.enums.Player;
+
+import java.util.Optional;
+
+/**
+ * PackedBoardEntity is a compact {@link Board} for hosting a large number of games.
+ * <p>
+ * Pits are stored as unsigned bytes, so the total stone count of the board is limited to {@link #MAX_STONES}.
+ * Status, next player and winner are packed into a single {@link BoardFlags} byte and the geometry is shared.
+ */
+class PackedBoardEntity implements Board {
+    private static final long serialVersionUID = 1L;
+
+    static final int MAX_STONES = 0xFF;
+
+    private final BoardGeometry geometry;
+    private final byte[] pits;
+    private byte flags;
+    private int version;
+
+    /**
+     * Instantiates a new PackedBoardEntity.
+     * Throws InvalidPitCountException for pitCounts smaller than 6 and for pitCounts that are not a factor of 2.
+     * Throws InvalidStoneCountException if the stoneCount is not greater than zero or the board would
+     * hold more than {@link #MAX_STONES} stones.
+     *
+     * @param pitCount   pitCount is a positive number larger than 6 and it must be a factor of 2
+     * @param stoneCount stoneCount must be greater than zero
+     */
+    PackedBoardEntity(final int pitCount, final int stoneCount) {
+        this.geometry = BoardGeometry.of(pitCount);
+
+        if (stoneCount < 1)
+            throw new InvalidStoneCountException("stoneCount must be greater than zero");
+
+        if (stoneCount > MAX_STONES / (pitCount - 2))
+            throw new InvalidStoneCountException("Packed board can not hold more than " + MAX_STONES + " stones");
+
+        this.pits = new byte[pitCount];
+
+        for (int pitId = 0; pitId < pitCount; pitId++)
+            pits[pitId] = (byte) stoneCount;
+
+        pits[geometry.getPlayer1LastPitIndex()] = 0;
+        pits[geometry.getPlayer2LastPitIndex()] = 0;
+    }
+
+    /**
+     * Instantiates a PackedBoardEntity from already encoded state. The given array is used directly.
+     *
+     * @param geometry geometry of the board
+     * @param pits     pits as unsigned bytes
+     * @param flags    packed status, next player and winner
+     * @param version  version of the board
+     */
+    PackedBoardEntity(final BoardGeometry geometry, final byte[] pits, final byte flags, final int version) {
+        this.geometry = geometry;
+        this.pits = pits;
+        this.flags = flags;
+        this.version = version;
+    }
+
+    /**
+     * @return pits as unsigned bytes, backed by the board
+     */
+    byte[] getPackedPits() {
+        return pits;
+    }
+
+    /**
+     * @return packed status, next player and winner
+     */
+    byte getFlags() {
+        return flags;
+    }
+
+    @Override
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    @Override
+    public Board copy() {
+        return new PackedBoardEntity(geometry, pits.clone(), flags, version);
+    }
+
+    @Override
+    public int getVersion() {
+        return version;
+    }
+
+    @Override
+    public void incrementVersion() {
+        version++;
+    }
+
+    @Override
+    public int[] toArray() {
+        int[] result = new int[pits.length];
+
+        for (int pitId = 0; pitId < pits.length; pitId++)
+            result[pitId] = pits[pitId] & 0xFF;
+
+        return result;
+    }
+
+    @Override
+    public int getPitValue(final int pitId) {
+        geometry.checkPitId(pitId);
+        return pits[pitId] & 0xFF;
+    }
+
+    @Override
+    public int move(final int pitId) {
+        PitType type = geometry.getPitType(pitId);
+        int pitValue = pits[pitId] & 0xFF;
+        Player nextPlayer = getNextPlayer();
+
+        geometry.checkMove(type, pitValue, nextPlayer);
+
+        int pitCount = geometry.getPitCount();
+        int laps = pitValue / (pitCount - 1);
+        int remainder = pitValue % (pitCount - 1);
+
+        pits[pitId] = 0;
+
+        if (laps > 0) {
+            for (int i = 0; i < pitCount; i++)
+                pits[i] += laps;
+
+            pits[geometry.getKalahIndex(nextPlayer.getNext())] -= laps;
+        }
+
+        int nextPit = pitId;
+
+        for (int i = 0; i < remainder; i++) {
+            nextPit = geometry.getNextPit(nextPlayer, nextPit);
+            pits[nextPit]++;
+        }
+
+        return nextPit;
+    }
+
+    @Override
+    public boolean hasAnyStone(final Player player) {
+        int end = geometry.getKalahIndex(player);
+
+        for (int pitId = geometry.getFirstPitIndex(player); pitId < end; pitId++) {
+            if (pits[pitId] != 0)
+                return true;
+        }
+
+        return false;
+    }
+
+    @Override
+    public Player getNextPlayer() {
+        return BoardFlags.nextPlayer(flags);
+    }
+
+    @Override
+    public GameStatus getStatus() {
+        return BoardFlags.status(flags);
+    }
+
+    @Override
+    public Optional<Player> getWinner() {
+        return Optional.ofNullable(BoardFlags.winner(flags));
+    }
+
+    @Override
+    public void moveStonesToKalah(final int pitId, final KalahType kalahType) {
+        geometry.checkPitId(pitId);
+
+        int kalahId = kalahType == KalahType.PLAYER_1_KALAH ? geometry.getPlayer1LastPitIndex() : geometry.getPlayer2LastPitIndex();
+
+        pits[kalahId] += pits[pitId];
+        pits[pitId] = 0;
+    }
+
+    @Override
+    public void flushToKalah(final Player player) {
+        int end = geometry.getKalahIndex(player);
+
+        for (int pitId = geometry.getFirstPitIndex(player); pitId < end; pitId++) {
+            pits[end] += pits[pitId];
+            pits[pitId] = 0;
+        }
+    }
+
+    @Override
+    public void gameOver() {
+        flags |= BoardFlags.GAME_OVER;
+    }
+
+    @Override
+    public void setWinner(final Player winner) {
+        flags = (byte) BoardFlags.withWinner(flags, winner);
+    }
+
+    @Override
+    public void changeNextPlayer() {
+        flags ^= BoardFlags.PLAYER_2_NEXT;
+    }
+}
@@ -0,0 +1,171 @@
+package com.backbase.kalah.game;
+
+import com.backbase.kalah.game.enums.GameStatus;
+import com.backbase.kalah.game.enums.MoveResult;
+import com.backbase.kalah.game.enums.PitType;
+import com.backbase.kalah.game.enums.Player;
+
+/**
+ * Position is a detached board of a game for move search. {@link #play(int)} applies the rules of
+ * {@link Controller#move(int)} to a copy of the board, so searching never changes the game.
+ * <p>
+ * Every position has a 64 bit hash: the sum of the stone count of every pit times a random key of the pit, plus a key
+ * for the player to move. A move changes the hash by the stones it took, sowed and captured, so it is updated in
+ * O(stones sowed in the last lap) instead of O(pitCount); only a finished game is hashed again.
+ * <p>
+ * Every {@link #play(int)} copies the board; deep searches use a {@link SearchBoard} made from the position instead.
+ */
+public final class Position {
+    static final long PLAYER_2_HASH_KEY = 0x9E3779B97F4A7C15L;
+
+    private final Board board;
+    private final long hash;
+
+    Position(final Board board) {
+        this(board, hash(board));
+    }
+
+    private Position(final Board board, final long hash) {
+        this.board = board;
+        this.hash = hash;
+    }
+
+    /**
+     * @return hash of the pits and the player to move
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * @return version of the game when the position was taken from it, also for positions made by {@link #play(int)};
+     * see {@link Controller#tryMoveAtVersion(int, int)}
+     */
+    public int getVersion() {
+        return board.getVersion();
+    }
+
+    public int getPitCount() {
+        return board.getGeometry().getPitCount();
+    }
+
+    public int getPitValue(final int pitId) {
+        return board.getPitValue(pitId);
+    }
+
+    public Player getNextPlayer() {
+        return board.getNextPlayer();
+    }
+
+    public boolean isGameOver() {
+        return board.getStatus() == GameStatus.GAME_OVER;
+    }
+
+    /**
+     * @param player owner of the Kalah
+     * @return stone count of the player's Kalah
+     */
+    public int getKalahValue(final Player player) {
+        return board.getPitValue(board.getGeometry().getKalahIndex(player));
+    }
+
+    /**
+     * Writes the legal moves of the player to move, in pit order.
+     *
+     * @param pitIds destination, at least {@code getPitCount() / 2 - 1} long
+     * @return number of legal moves, zero if the game is over
+     */
+    public int getLegalMoves(final int[] pitIds) {
+        if (isGameOver())
+            return 0;
+
+        BoardGeometry geometry = board.getGeometry();
+        Player player = board.getNextPlayer();
+        int end = geometry.getKalahIndex(player);
+        int count = 0;
+
+        for (int pitId = geometry.getFirstPitIndex(player); pitId < end; pitId++) {
+            if (board.getPitValue(pitId) > 0)
+                pitIds[count++] = pitId;
+        }
+
+        return count;
+    }
+
+    /**
+     * @param pitId id of a pit of the player to move
+     * @return true if the last stone of the move lands in the player's Kalah, which gives the player another turn
+     */
+    public boolean isExtraTurn(final int pitId) {
+        BoardGeometry geometry = board.getGeometry();
+        int distance = geometry.getKalahIndex(board.getNextPlayer()) - pitId;
+
+        return board.getPitValue(pitId) % (geometry.getPitCount() - 1) == distance;
+    }
+
+    /**
+     * Returns the position after the given move. Throws the exception of {@link MoveResult} for an illegal move.
+     *
+     * @param pitId id of the pit
+     * @return new {@link Position}
+     */
+    public Position play(final int pitId) {
+        MoveResult result = board.validateMove(pitId);
+
+        if (!result.isAccepted())
+            throw result.toException(Controller.rejectionMessage(board, result));
+
+        Board next = board.copy();
+        BoardGeometry geometry = next.getGeometry();
+        Player player = next.getNextPlayer();
+        PitType pitType = geometry.getPitType(pitId);
+        int stones = next.getPitValue(pitId);
+        int lapLength = geometry.getPitCount() - 1;
+        long nextHash = hash - stones * geometry.getHashKey(pitId) + (stones / lapLength) * geometry.getLapHashKey(player);
+
+        int lastPitId = next.move(pitId);
+
+        for (int i = stones % lapLength, sowed = pitId; i > 0; i--) {
+            sowed = geometry.getNextPit(player, sowed);
+            nextHash += geometry.getHashKey(sowed);
+        }
+
+        PitType lastPitType = geometry.getPitType(lastPitId);
+
+        if (next.getPitValue(lastPitId) == 1 && lastPitType == pitType) {
+            int oppositePitId = next.getOppositePitId(lastPitId);
+            int captured = next.getPitValue(oppositePitId);
+
+            if (captured > 0) {
+                next.moveStonesToKalah(lastPitId, pitType.getKalahType());
+                next.moveStonesToKalah(oppositePitId, pitType.getKalahType());
+                nextHash += (captured + 1) * geometry.getHashKey(geometry.getKalahIndex(player))
+                        - geometry.getHashKey(lastPitId) - captured * geometry.getHashKey(oppositePitId);
+            }
+        }
+
+        if (Controller.updateTurn(next, lastPitType))
+            nextHash += player == Player.PLAYER_1 ? PLAYER_2_HASH_KEY : -PLAYER_2_HASH_KEY;
+
+        Controller.updateStatus(next);
+
+        if (next.getStatus() == GameStatus.GAME_OVER)
+            return new Position(next);
+
+        return new Position(next, nextHash);
+    }
+
+    /**
+     * @param board the board
+     * @return hash of the board, computed from all pits
+     */
+    static long hash(final Board board) {
+        BoardGeometry geometry = board.getGeometry();
+        long hash = board.getNextPlayer() == Player.PLAYER_2 ? PLAYER_2_HASH_KEY : 0;
+
+        for (int pitId = 0; pitId < geometry.getPitCount(); pitId++)
+            hash += board.getPitValue(pitId) * geometry.getHashKey(pitId);
+
+        return hash;
+    }
+}
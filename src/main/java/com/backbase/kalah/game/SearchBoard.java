@@ -0,0 +1,317 @@
+package com.backbase.kalah.game;
+
+import com.backbase.kalah.exceptions.GameOverException;
+import com.backbase.kalah.game.enums.Player;
+
+/**
+ * SearchBoard is a mutable board for tree search and rollouts. {@link #makeMove(int)} applies the rules of
+ * {@link Controller#move(int)} in place and pushes an undo record, and {@link #unmakeMove()} restores the board from
+ * it, so a search runs on one board without copying it or allocating per node.
+ * <p>
+ * An undo record is the pit and stone count of the move (they give the sown range), its last pit, the captured
+ * stones, the player to move, the stone count of each side and the hash before the move. A finished game can not be moved further, so
+ * only the top record can be a game over and the pits it flushed to a Kalah are kept in a single buffer.
+ * <p>
+ * The hash is the same as the hash of {@link Position}. A SearchBoard must only be used by one thread.
+ */
+public final class SearchBoard {
+    private static final int NO_CAPTURE = -1;
+
+    private final BoardGeometry geometry;
+    private final int[] pits;
+    private final int lapLength;
+    private final int player1Kalah;
+    private final int[] sideStones = new int[Player.values().length];
+    private Player nextPlayer;
+    private boolean gameOver;
+    private long hash;
+
+    private final int[] undoPitIds;
+    private final int[] undoStones;
+    private final int[] undoLastPitIds;
+    private final int[] undoCaptured;
+    private final Player[] undoPlayers;
+    private final int[] undoPlayer1Stones;
+    private final int[] undoPlayer2Stones;
+    private final long[] undoHashes;
+    private final int[] flushedPits;
+    private Player flushedPlayer;
+    private int ply;
+
+    /**
+     * @param position position to start from
+     * @param capacity maximum number of moves that can be made before they are unmade
+     */
+    public SearchBoard(final Position position, final int capacity) {
+        this.geometry = BoardGeometry.of(position.getPitCount());
+        this.pits = new int[geometry.getPitCount()];
+        this.lapLength = pits.length - 1;
+        this.player1Kalah = geometry.getPlayer1LastPitIndex();
+
+        for (int pitId = 0; pitId < pits.length; pitId++)
+            pits[pitId] = position.getPitValue(pitId);
+
+        for (Player player : Player.values())
+            sideStones[player.ordinal()] = countStones(player);
+
+        this.nextPlayer = position.getNextPlayer();
+        this.gameOver = position.isGameOver();
+        this.hash = position.getHash();
+
+        this.undoPitIds = new int[capacity];
+        this.undoStones = new int[capacity];
+        this.undoLastPitIds = new int[capacity];
+        this.undoCaptured = new int[capacity];
+        this.undoPlayers = new Player[capacity];
+        this.undoPlayer1Stones = new int[capacity];
+        this.undoPlayer2Stones = new int[capacity];
+        this.undoHashes = new long[capacity];
+        this.flushedPits = new int[pits.length / 2 - 1];
+    }
+
+    /**
+     * @return hash of the pits and the player to move, equal to the hash of the same {@link Position}
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    public int getPitCount() {
+        return pits.length;
+    }
+
+    public int getPitValue(final int pitId) {
+        return pits[pitId];
+    }
+
+    public Player getNextPlayer() {
+        return nextPlayer;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    /**
+     * @return number of moves that are made and not unmade
+     */
+    public int getPly() {
+        return ply;
+    }
+
+    /**
+     * @param player owner of the Kalah
+     * @return stone count of the player's Kalah
+     */
+    public int getKalahValue(final Player player) {
+        return pits[geometry.getKalahIndex(player)];
+    }
+
+    /**
+     * Writes the legal moves of the player to move, in pit order.
+     *
+     * @param pitIds destination, at least {@code getPitCount() / 2 - 1} long
+     * @return number of legal moves, zero if the game is over
+     */
+    public int getLegalMoves(final int[] pitIds) {
+        if (gameOver)
+            return 0;
+
+        int end = geometry.getKalahIndex(nextPlayer);
+        int count = 0;
+
+        for (int pitId = geometry.getFirstPitIndex(nextPlayer); pitId < end; pitId++) {
+            if (pits[pitId] > 0)
+                pitIds[count++] = pitId;
+        }
+
+        return count;
+    }
+
+    /**
+     * @param pitId id of a pit of the player to move
+     * @return true if the last stone of the move lands in the player's Kalah, which gives the player another turn
+     */
+    public boolean isExtraTurn(final int pitId) {
+        return pits[pitId] % lapLength == geometry.getKalahIndex(nextPlayer) - pitId;
+    }
+
+    /**
+     * Applies a move and pushes its undo record. Throws GameOverException if the game is over,
+     * InvalidPlayerException if the pit does not belong to the player to move and InvalidPitIdException if the pit
+     * is a Kalah or is empty.
+     *
+     * @param pitId id of the pit
+     */
+    public void makeMove(final int pitId) {
+        Player player = nextPlayer;
+        int kalah = geometry.getKalahIndex(player);
+
+        if (gameOver || pitId < kalah - flushedPits.length || pitId >= kalah || pits[pitId] == 0)
+            rejectMove(pitId);
+
+        if (ply == undoPitIds.length)
+            throw new IllegalStateException("No more than " + undoPitIds.length + " moves can be made");
+
+        int stones = pits[pitId];
+
+        undoPitIds[ply] = pitId;
+        undoStones[ply] = stones;
+        undoCaptured[ply] = NO_CAPTURE;
+        undoPlayers[ply] = player;
+        undoPlayer1Stones[ply] = sideStones[Player.PLAYER_1.ordinal()];
+        undoPlayer2Stones[ply] = sideStones[Player.PLAYER_2.ordinal()];
+        undoHashes[ply] = hash;
+        ply++;
+
+        int laps = stones / lapLength;
+        pits[pitId] = 0;
+        sideStones[player.ordinal()] -= stones;
+        hash += laps * geometry.getLapHashKey(player) - stones * geometry.getHashKey(pitId);
+
+        if (laps > 0) {
+            for (int i = 0; i < pits.length; i++)
+                pits[i] += laps;
+
+            pits[geometry.getKalahIndex(player.getNext())] -= laps;
+            sideStones[0] += laps * flushedPits.length;
+            sideStones[1] += laps * flushedPits.length;
+        }
+
+        int lastPitId = pitId;
+
+        for (int i = stones % lapLength; i > 0; i--) {
+            lastPitId = geometry.getNextPit(player, lastPitId);
+            pits[lastPitId]++;
+            hash += geometry.getHashKey(lastPitId);
+
+            if (lastPitId != kalah)
+                sideStones[lastPitId < player1Kalah ? 0 : 1]++;
+        }
+
+        undoLastPitIds[ply - 1] = lastPitId;
+
+        if (lastPitId < kalah && lastPitId >= kalah - flushedPits.length && pits[lastPitId] == 1) {
+            int oppositePitId = pits.length - 2 - lastPitId;
+            int captured = pits[oppositePitId];
+
+            if (captured > 0) {
+                undoCaptured[ply - 1] = captured;
+                pits[kalah] += captured + 1;
+                pits[lastPitId] = 0;
+                pits[oppositePitId] = 0;
+                sideStones[player.ordinal()]--;
+                sideStones[player.getNext().ordinal()] -= captured;
+                hash += (captured + 1) * geometry.getHashKey(kalah) - geometry.getHashKey(lastPitId)
+                        - captured * geometry.getHashKey(oppositePitId);
+            }
+        }
+
+        if (lastPitId != kalah) {
+            nextPlayer = player.getNext();
+            hash += player == Player.PLAYER_1 ? Position.PLAYER_2_HASH_KEY : -Position.PLAYER_2_HASH_KEY;
+        }
+
+        if (sideStones[Player.PLAYER_1.ordinal()] == 0)
+            flush(Player.PLAYER_2);
+        else if (sideStones[Player.PLAYER_2.ordinal()] == 0)
+            flush(Player.PLAYER_1);
+    }
+
+    /**
+     * Restores the board to the state before the latest made move.
+     */
+    public void unmakeMove() {
+        if (ply == 0)
+            throw new IllegalStateException("No move to unmake");
+
+        ply--;
+
+        if (gameOver) {
+            int first = geometry.getFirstPitIndex(flushedPlayer);
+            int flushed = 0;
+
+            for (int i = 0; i < flushedPits.length; i++) {
+                pits[first + i] = flushedPits[i];
+                flushed += flushedPits[i];
+            }
+
+            pits[geometry.getKalahIndex(flushedPlayer)] -= flushed;
+            gameOver = false;
+        }
+
+        Player player = undoPlayers[ply];
+        int pitId = undoPitIds[ply];
+        int stones = undoStones[ply];
+        int captured = undoCaptured[ply];
+        int lastPitId = undoLastPitIds[ply];
+
+        if (captured != NO_CAPTURE) {
+            pits[geometry.getKalahIndex(player)] -= captured + 1;
+            pits[lastPitId] = 1;
+            pits[pits.length - 2 - lastPitId] = captured;
+        }
+
+        for (int i = stones % lapLength, sowed = pitId; i > 0; i--) {
+            sowed = geometry.getNextPit(player, sowed);
+            pits[sowed]--;
+        }
+
+        int laps = stones / lapLength;
+
+        if (laps > 0) {
+            for (int i = 0; i < pits.length; i++)
+                pits[i] -= laps;
+
+            pits[geometry.getKalahIndex(player.getNext())] += laps;
+        }
+
+        pits[pitId] = stones;
+        nextPlayer = player;
+        sideStones[Player.PLAYER_1.ordinal()] = undoPlayer1Stones[ply];
+        sideStones[Player.PLAYER_2.ordinal()] = undoPlayer2Stones[ply];
+        hash = undoHashes[ply];
+    }
+
+    /**
+     * Ends the game and moves the stones of the player's pits to the player's Kalah.
+     */
+    private void flush(final Player player) {
+        int first = geometry.getFirstPitIndex(player);
+        int kalah = geometry.getKalahIndex(player);
+
+        for (int i = 0; i < flushedPits.length; i++) {
+            int stones = pits[first + i];
+
+            flushedPits[i] = stones;
+            pits[first + i] = 0;
+            pits[kalah] += stones;
+            hash += stones * (geometry.getHashKey(kalah) - geometry.getHashKey(first + i));
+        }
+
+        sideStones[player.ordinal()] = 0;
+        flushedPlayer = player;
+        gameOver = true;
+    }
+
+    /**
+     * Throws the exception of an illegal move.
+     */
+    private void rejectMove(final int pitId) {
+        if (gameOver)
+            throw new GameOverException("Selected game is over");
+
+        geometry.checkPitId(pitId);
+        geometry.checkMove(geometry.getPitType(pitId), pits[pitId], nextPlayer);
+    }
+
+    private int countStones(final Player player) {
+        int end = geometry.getKalahIndex(player);
+        int stones = 0;
+
+        for (int pitId = geometry.getFirstPitIndex(player); pitId < end; pitId++)
+            stones += pits[pitId];
+
+        return stones;
+    }
+}
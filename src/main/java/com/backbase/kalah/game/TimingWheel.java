@@ -0,0 +1,89 @@
+package com.backbase.kalah.game;
+
+import java.util.Arrays;
+
+/**
+ * TimingWheel is a hashed timing wheel of game ids.
+ * <p>
+ * An id scheduled for a tick is put into the bucket {@code tick % wheelSize}, and {@link #drain(long)} returns
+ * the bucket of the current tick. Buckets are not ordered by rounds: ids that are due in a later rotation are
+ * drained early and the caller schedules them again, so a drain only costs the ids of a single bucket.
+ */
+final class TimingWheel {
+    private static final int[] EMPTY = new int[0];
+
+    private final int[][] buckets;
+    private final int[] sizes;
+    private final int mask;
+
+    /**
+     * @param wheelSize number of buckets, it must be a power of two
+     */
+    TimingWheel(final int wheelSize) {
+        if (Integer.bitCount(wheelSize) != 1)
+            throw new IllegalArgumentException("wheelSize must be a power of two");
+
+        this.buckets = new int[wheelSize][];
+        this.sizes = new int[wheelSize];
+        this.mask = wheelSize - 1;
+
+        Arrays.fill(buckets, EMPTY);
+    }
+
+    /**
+     * @return number of buckets, which is the number of ticks of a single rotation
+     */
+    int getWheelSize() {
+        return mask + 1;
+    }
+
+    /**
+     * @param id   the id
+     * @param tick tick that the id is due
+     */
+    synchronized void schedule(final int id, final long tick) {
+        int index = (int) (tick & mask);
+        int[] bucket = buckets[index];
+
+        if (sizes[index] == bucket.length)
+            buckets[index] = bucket = Arrays.copyOf(bucket, Math.max(8, bucket.length * 2));
+
+        bucket[sizes[index]++] = id;
+    }
+
+    /**
+     * Schedules the ids {@code first .. first + count - 1} for the same tick
+     *
+     * @param first first id
+     * @param count number of ids
+     * @param tick  tick that the ids are due
+     */
+    synchronized void schedule(final int first, final int count, final long tick) {
+        int index = (int) (tick & mask);
+        int size = sizes[index];
+
+        if (size + count > buckets[index].length)
+            buckets[index] = Arrays.copyOf(buckets[index], Math.max(size + count, buckets[index].length * 2));
+
+        for (int i = 0; i < count; i++)
+            buckets[index][size + i] = first + i;
+
+        sizes[index] = size + count;
+    }
+
+    /**
+     * Removes and returns all ids of the bucket of the given tick
+     *
+     * @param tick current tick
+     * @return the ids of the bucket, which may include ids of later rotations
+     */
+    synchronized int[] drain(final long tick) {
+        int index = (int) (tick & mask);
+        int[] ids = Arrays.copyOf(buckets[index], sizes[index]);
+
+        buckets[index] = EMPTY;
+        sizes[index] = 0;
+
+        return ids;
+    }
+}
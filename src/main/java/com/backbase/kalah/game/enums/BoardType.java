@@ -0,0 +1,6 @@
+package com.backbase.kalah.game.enums;
+
+public enum BoardType {
+    STANDARD,
+    PACKED
+}
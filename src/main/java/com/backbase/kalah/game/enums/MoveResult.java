@@ -0,0 +1,53 @@
+package com.backbase.kalah.game.enums;
+
+import com.backbase.kalah.exceptions.GameChangedException;
+import com.backbase.kalah.exceptions.GameOverException;
+import com.backbase.kalah.exceptions.InvalidPitIdException;
+import com.backbase.kalah.exceptions.InvalidPlayerException;
+import com.backbase.kalah.exceptions.KalahException;
+
+import java.util.function.Function;
+
+/**
+ * Result of validating a move. Every rejection has the {@link KalahException} that reports it
+ * when the exception based api is used.
+ */
+public enum MoveResult {
+    ACCEPTED(null, null),
+    GAME_OVER(GameOverException.class, GameOverException::new),
+    INVALID_PIT_ID(InvalidPitIdException.class, InvalidPitIdException::new),
+    WRONG_PLAYER(InvalidPlayerException.class, InvalidPlayerException::new),
+    KALAH_PIT(InvalidPitIdException.class, InvalidPitIdException::new),
+    EMPTY_PIT(InvalidPitIdException.class, InvalidPitIdException::new),
+    VERSION_CONFLICT(GameChangedException.class, GameChangedException::new);
+
+    private final Class<? extends KalahException> exceptionType;
+    private final Function<String, KalahException> exceptionFactory;
+
+    MoveResult(Class<? extends KalahException> exceptionType, Function<String, KalahException> exceptionFactory) {
+        this.exceptionType = exceptionType;
+        this.exceptionFactory = exceptionFactory;
+    }
+
+    public boolean isAccepted() {
+        return this == ACCEPTED;
+    }
+
+    /**
+     * @return type of the exception that reports this rejection, or {@code null} for {@link #ACCEPTED}
+     */
+    public Class<? extends KalahException> getExceptionType() {
+        return exceptionType;
+    }
+
+    /**
+     * @param message message of the exception
+     * @return the exception that reports this rejection
+     */
+    public KalahException toException(final String message) {
+        if (exceptionFactory == null)
+            throw new IllegalStateException("Move was accepted");
+
+        return exceptionFactory.apply(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.backbase.kalah.game.enums;
+
+public enum StorageType {
+    MEMORY,
+    OFF_HEAP,
+    JOURNAL
+}
@@ -0,0 +1,40 @@
+package com.backbase.kalah.metrics;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A monotonic counter. Increments from many threads do not contend on a single variable.
+ */
+public final class Counter implements Metrics.Series {
+    private final LongAdder value = new LongAdder();
+
+    Counter() {
+    }
+
+    public void increment() {
+        value.increment();
+    }
+
+    public void add(final long amount) {
+        value.add(amount);
+    }
+
+    public long get() {
+        return value.sum();
+    }
+
+    @Override
+    public void write(final String name, final String labels, final Appendable out) throws IOException {
+        writeSample(out, name, labels, String.valueOf(get()));
+    }
+
+    static void writeSample(final Appendable out, final String name, final String labels, final String value) throws IOException {
+        out.append(name);
+
+        if (!labels.isEmpty())
+            out.append('{').append(labels).append('}');
+
+        out.append(' ').append(value).append('\n');
+    }
+}
@@ -0,0 +1,168 @@
+package com.backbase.kalah.metrics;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Metrics is the registry of the application metrics. Instrumented classes register their metrics once, usually
+ * in static fields, and {@link #scrape(Appendable)} writes all of them in the Prometheus text format.
+ * <p>
+ * Instrumented code checks {@link #isEnabled()} before it measures anything, so disabled metrics cost a single
+ * volatile read on the move path.
+ */
+public final class Metrics {
+    private static final ConcurrentSkipListMap<String, Family> families = new ConcurrentSkipListMap<>();
+    private static volatile boolean enabled = true;
+
+    private Metrics() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(final boolean enabled) {
+        Metrics.enabled = enabled;
+    }
+
+    /**
+     * Returns the counter with the given name and labels, registering it on the first call
+     *
+     * @param name   name of the metric
+     * @param help   description of the metric
+     * @param labels label names and values, in pairs
+     * @return the counter
+     */
+    public static Counter counter(final String name, final String help, final String... labels) {
+        return (Counter) family(name, help, Family.COUNTER).series(labels(labels), key -> new Counter());
+    }
+
+    /**
+     * Returns the timer with the given name and labels, registering it on the first call
+     *
+     * @param name   name of the metric, in seconds
+     * @param help   description of the metric
+     * @param labels label names and values, in pairs
+     * @return the timer
+     */
+    public static Timer timer(final String name, final String help, final String... labels) {
+        return (Timer) family(name, help, Family.SUMMARY).series(labels(labels), key -> new Timer());
+    }
+
+    /**
+     * Registers a counter whose value is kept by someone else, like a store. A later registration with the same
+     * name and labels replaces the earlier one.
+     *
+     * @param name     name of the metric
+     * @param help     description of the metric
+     * @param supplier current value of the counter
+     * @param labels   label names and values, in pairs
+     */
+    public static void counter(final String name, final String help, final LongSupplier supplier, final String... labels) {
+        family(name, help, Family.COUNTER).replace(labels(labels), new Sampled(supplier));
+    }
+
+    /**
+     * Registers a gauge. A later registration with the same name and labels replaces the earlier one.
+     *
+     * @param name     name of the metric
+     * @param help     description of the metric
+     * @param supplier current value of the gauge
+     * @param labels   label names and values, in pairs
+     */
+    public static void gauge(final String name, final String help, final LongSupplier supplier, final String... labels) {
+        family(name, help, Family.GAUGE).replace(labels(labels), new Sampled(supplier));
+    }
+
+    /**
+     * Writes every registered metric in the Prometheus text format, version 0.0.4
+     *
+     * @param out destination
+     * @throws IOException if the destination can not be written
+     */
+    public static void scrape(final Appendable out) throws IOException {
+        for (Family family : families.values())
+            family.write(out);
+    }
+
+    private static Family family(final String name, final String help, final String type) {
+        Family family = families.computeIfAbsent(name, key -> new Family(name, help, type));
+
+        if (!family.type.equals(type))
+            throw new IllegalArgumentException(name + " is already registered as a " + family.type);
+
+        return family;
+    }
+
+    private static String labels(final String... labels) {
+        if (labels.length % 2 != 0)
+            throw new IllegalArgumentException("labels must be name and value pairs");
+
+        StringBuilder result = new StringBuilder();
+
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0)
+                result.append(',');
+
+            result.append(labels[i]).append("=\"").append(labels[i + 1]).append('"');
+        }
+
+        return result.toString();
+    }
+
+    /**
+     * A sample of a metric, written as one or more lines of the text format
+     */
+    interface Series {
+        void write(final String name, final String labels, final Appendable out) throws IOException;
+    }
+
+    private static final class Sampled implements Series {
+        private final LongSupplier supplier;
+
+        private Sampled(final LongSupplier supplier) {
+            this.supplier = supplier;
+        }
+
+        @Override
+        public void write(final String name, final String labels, final Appendable out) throws IOException {
+            Counter.writeSample(out, name, labels, String.valueOf(supplier.getAsLong()));
+        }
+    }
+
+    private static final class Family {
+        private static final String COUNTER = "counter";
+        private static final String GAUGE = "gauge";
+        private static final String SUMMARY = "summary";
+
+        private final String name;
+        private final String help;
+        private final String type;
+        private final ConcurrentSkipListMap<String, Series> series = new ConcurrentSkipListMap<>();
+
+        private Family(final String name, final String help, final String type) {
+            this.name = name;
+            this.help = help;
+            this.type = type;
+        }
+
+        private Series series(final String labels, final Function<String, Series> factory) {
+            return series.computeIfAbsent(labels, factory);
+        }
+
+        private void replace(final String labels, final Series value) {
+            series.put(labels, value);
+        }
+
+        private void write(final Appendable out) throws IOException {
+            out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+            out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+
+            for (Map.Entry<String, Series> entry : series.entrySet())
+                entry.getValue().write(name, entry.getKey(), out);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.backbase.kalah.metrics;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A latency timer backed by an HdrHistogram {@link Recorder} with three significant digits.
+ * Recording is wait-free; a scrape moves the recorded interval into a cumulative histogram and writes it as a
+ * Prometheus summary in seconds.
+ */
+public final class Timer implements Metrics.Series {
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final Recorder recorder = new Recorder(3);
+    private final LongAdder sum = new LongAdder();
+    private final Histogram total = new Histogram(3);
+    private Histogram interval;
+
+    Timer() {
+    }
+
+    /**
+     * @param nanos duration in nanoseconds
+     */
+    public void record(final long nanos) {
+        long value = Math.max(0, nanos);
+
+        recorder.recordValue(value);
+        sum.add(value);
+    }
+
+    /**
+     * @return number of recorded durations, up to the latest scrape or snapshot
+     */
+    public synchronized long getCount() {
+        return snapshot().getTotalCount();
+    }
+
+    /**
+     * @param percentile percentile between 0 and 100
+     * @return the duration in nanoseconds at the percentile of all recorded durations
+     */
+    public synchronized long getValueAtPercentile(final double percentile) {
+        return snapshot().getValueAtPercentile(percentile);
+    }
+
+    @Override
+    public synchronized void write(final String name, final String labels, final Appendable out) throws IOException {
+        Histogram histogram = snapshot();
+        String prefix = labels.isEmpty() ? "" : labels + ",";
+
+        for (double quantile : QUANTILES) {
+            Counter.writeSample(out, name, prefix + "quantile=\"" + quantile + "\"",
+                    String.valueOf(histogram.getValueAtPercentile(quantile * 100) / NANOS_PER_SECOND));
+        }
+
+        Counter.writeSample(out, name + "_count", labels, String.valueOf(histogram.getTotalCount()));
+        Counter.writeSample(out, name + "_sum", labels, String.valueOf(sum.sum() / NANOS_PER_SECOND));
+    }
+
+    private Histogram snapshot() {
+        interval = recorder.getIntervalHistogram(interval);
+        total.add(interval);
+
+        return total;
+    }
+}
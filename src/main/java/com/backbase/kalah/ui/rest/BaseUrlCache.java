@@ -0,0 +1,67 @@
+package com.backbase.kalah.ui.rest;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * BaseUrlCache builds {@code scheme://host:port/contextPath/games}, the URL of the games collection, for a request.
+ * The path of the request itself is not used, so requests to any endpoint get the same URL.
+ * Almost every request of a server has the same base URL, so the last one is kept and reused while the
+ * request parts are equal, instead of formatting it again for every response.
+ */
+class BaseUrlCache {
+    private static final String ID_TEMPLATE = "/{id}";
+
+    private volatile Entry last;
+
+    /**
+     * @param request the request
+     * @return URL of the games collection
+     */
+    String get(final HttpServletRequest request) {
+        String scheme = request.getScheme();
+        String host = request.getServerName();
+        int port = request.getServerPort();
+        String path = request.getContextPath() + RestUserInterface.PATH;
+        Entry entry = last;
+
+        if (entry == null || entry.port != port || !entry.scheme.equals(scheme) || !entry.host.equals(host) || !entry.path.equals(path)) {
+            entry = new Entry(scheme, host, port, path);
+            last = entry;
+        }
+
+        return entry.url;
+    }
+
+    /**
+     * @param request the request
+     * @param gameId  id of the game
+     * @return URL of the game
+     */
+    String get(final HttpServletRequest request, final int gameId) {
+        return get(request) + '/' + gameId;
+    }
+
+    /**
+     * @param request the request
+     * @return URL template of a game with an {@code {id}} placeholder
+     */
+    String getTemplate(final HttpServletRequest request) {
+        return get(request) + ID_TEMPLATE;
+    }
+
+    private static final class Entry {
+        private final String scheme;
+        private final String host;
+        private final int port;
+        private final String path;
+        private final String url;
+
+        Entry(final String scheme, final String host, final int port, final String path) {
+            this.scheme = scheme;
+            this.host = host;
+            this.port = port;
+            this.path = path;
+            this.url = scheme + "://" + host + ':' + port + path;
+        }
+    }
+}
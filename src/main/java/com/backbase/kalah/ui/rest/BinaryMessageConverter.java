@@ -0,0 +1,78 @@
+package com.backbase.kalah.ui.rest;
+
+import com.backbase.kalah.game.BoardCodec;
+import com.backbase.kalah.ui.rest.entity.BinaryResponse;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * BinaryMessageConverter is the {@code application/x-kalah} encoding of the game API.
+ * Clients that send {@code Accept: application/x-kalah} receive every {@link BinaryResponse} in the binary format,
+ * the other clients keep receiving JSON.
+ * <p>
+ * Request bodies of batched moves are {@code [varint count][varint pitId]...}.
+ */
+@Component
+public class BinaryMessageConverter extends AbstractHttpMessageConverter<Object> {
+    public static final String MEDIA_TYPE_VALUE = "application/x-kalah";
+    public static final MediaType MEDIA_TYPE = MediaType.valueOf(MEDIA_TYPE_VALUE);
+
+    static final int MAX_MOVE_COUNT = 1 << 16;
+
+    public BinaryMessageConverter() {
+        super(MEDIA_TYPE);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return clazz == int[].class || BinaryResponse.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return clazz == int[].class && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        return BinaryResponse.class.isAssignableFrom(clazz) && canWrite(mediaType);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        DataInputStream in = new DataInputStream(inputMessage.getBody());
+
+        try {
+            int count = BoardCodec.readVarInt(in);
+
+            if (count < 0 || count > MAX_MOVE_COUNT)
+                throw new HttpMessageNotReadableException("Move count must be between 0 and " + MAX_MOVE_COUNT);
+
+            int[] pitIds = new int[count];
+
+            for (int i = 0; i < count; i++)
+                pitIds[i] = BoardCodec.readVarInt(in);
+
+            return pitIds;
+        } catch (IOException ex) {
+            throw new HttpMessageNotReadableException("Invalid binary request: " + ex.getMessage(), ex);
+        }
+    }
+
+    @Override
+    protected void writeInternal(Object value, HttpOutputMessage outputMessage) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(outputMessage.getBody(), 256));
+
+        ((BinaryResponse) value).writeBinary(out);
+        out.flush();
+    }
+}
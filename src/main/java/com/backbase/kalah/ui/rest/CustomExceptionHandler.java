@@ -1,6 +1,9 @@
 package com.backbase.kalah.ui.rest;
 
+import com.backbase.kalah.exceptions.GameChangedException;
+import com.backbase.kalah.exceptions.InvalidMoveSequenceException;
 import com.backbase.kalah.exceptions.KalahException;
+import com.backbase.kalah.game.MoveDelta;
 import com.backbase.kalah.ui.rest.entity.ErrorResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -15,23 +18,45 @@ import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExcep
 import javax.servlet.http.HttpServletRequest;
 
 @ControllerAdvice
-@RequestMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+@RequestMapping(produces = {MediaType.APPLICATION_JSON_VALUE, BinaryMessageConverter.MEDIA_TYPE_VALUE})
 public class CustomExceptionHandler extends ResponseEntityExceptionHandler {
-    private static final String detailsFormat = "[Error] [Message: %s] [Ip: %s] [Path: %s]";
+    private static final String detailsFormat = "[Error] [Message: {}] [Ip: {}] [Path: {}]";
     private Logger logger = LoggerFactory.getLogger(CustomExceptionHandler.class);
 
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleAllExceptions(Exception exception, HttpServletRequest request) {
-        if (exception instanceof KalahException)
-            logger.warn(String.format(detailsFormat, exception.getMessage(), request.getRemoteHost(), request.getRequestURI()));
-        else logger.error(exception.getMessage(), exception);
+        if (!(exception instanceof KalahException))
+            logger.error(exception.getMessage(), exception);
+        else if (logger.isWarnEnabled())
+            logger.warn(detailsFormat, exception.getMessage(), request.getRemoteHost(), request.getRequestURI());
 
-        HttpStatus httpStatus = HttpStatus.INTERNAL_SERVER_ERROR;
+        return errorResponse(exception.getClass(), exception.getMessage(), request,
+                exception instanceof InvalidMoveSequenceException ? ((InvalidMoveSequenceException) exception).getMoveIndex() : null);
+    }
+
+    /**
+     * Builds the same response as {@link #handleAllExceptions(Exception, HttpServletRequest)} for a move that was
+     * rejected without an exception
+     *
+     * @param delta   the rejected move
+     * @param request the request
+     * @return the error response
+     */
+    public ResponseEntity<ErrorResponse> handleRejectedMove(MoveDelta delta, HttpServletRequest request) {
+        if (logger.isWarnEnabled())
+            logger.warn(detailsFormat, delta.getRejectionMessage(), request.getRemoteHost(), request.getRequestURI());
+
+        return errorResponse(delta.getResult().getExceptionType(), delta.getRejectionMessage(), request, null);
+    }
+
+    private ResponseEntity<ErrorResponse> errorResponse(Class<?> exceptionType, String message, HttpServletRequest request, Integer moveIndex) {
+        HttpStatus httpStatus = exceptionType == GameChangedException.class ? HttpStatus.CONFLICT : HttpStatus.INTERNAL_SERVER_ERROR;
         return new ResponseEntity<>(new ErrorResponse(
                 httpStatus.value(),
                 httpStatus.getReasonPhrase(),
-                exception.getClass().getName(),
-                exception.getMessage(),
-                request.getRequestURI()), httpStatus);
+                exceptionType.getName(),
+                message,
+                request.getRequestURI(),
+                moveIndex), httpStatus);
     }
 }
@@ -0,0 +1,90 @@
+package com.backbase.kalah.ui.rest;
+
+import com.backbase.kalah.engine.AlphaBetaEngine;
+import com.backbase.kalah.engine.Engine;
+import com.backbase.kalah.engine.EngineType;
+import com.backbase.kalah.engine.MctsEngine;
+import com.backbase.kalah.engine.TranspositionTable;
+import com.backbase.kalah.game.DataAccess;
+import com.backbase.kalah.game.InMemoryDataAccess;
+import com.backbase.kalah.game.JournaledDataAccess;
+import com.backbase.kalah.game.OffHeapDataAccess;
+import com.backbase.kalah.game.enums.BoardType;
+import com.backbase.kalah.game.enums.StorageType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Paths;
+
+@Configuration
+public class GameConfig {
+    @Value("${kalah.board.type:STANDARD}")
+    private BoardType boardType;
+
+    @Value("${kalah.storage.type:MEMORY}")
+    private StorageType storageType;
+
+    @Value("${kalah.storage.memory.game-over-ttl-ms:300000}")
+    private long memoryGameOverTtlMillis;
+
+    @Value("${kalah.storage.memory.idle-ttl-ms:1800000}")
+    private long memoryIdleTtlMillis;
+
+    @Value("${kalah.storage.off-heap.capacity:1000000}")
+    private int offHeapCapacity;
+
+    @Value("${kalah.storage.journal.directory:journal}")
+    private String journalDirectory;
+
+    @Value("${kalah.storage.journal.segment-size:67108864}")
+    private int journalSegmentSize;
+
+    @Value("${kalah.storage.journal.flush-interval-ms:10}")
+    private long journalFlushIntervalMillis;
+
+    @Value("${kalah.storage.journal.snapshot-interval-ms:60000}")
+    private long journalSnapshotIntervalMillis;
+
+    @Value("${kalah.storage.journal.recovery-threads:0}")
+    private int journalRecoveryThreads;
+
+    @Value("${kalah.engine.type:ALPHA_BETA}")
+    private EngineType engineType;
+
+    @Value("${kalah.engine.transposition-table-entries:1048576}")
+    private int transpositionTableEntries;
+
+    @Value("${kalah.engine.mcts.threads:0}")
+    private int mctsThreads;
+
+    @Value("${kalah.engine.mcts.playouts:200000}")
+    private long mctsPlayouts;
+
+    @Value("${kalah.engine.mcts.arena-nodes:1048576}")
+    private int mctsArenaNodes;
+
+    @Bean
+    public Engine engine() {
+        if (engineType == EngineType.MCTS)
+            return new MctsEngine(mctsThreads, mctsPlayouts, mctsArenaNodes);
+
+        return new AlphaBetaEngine(new TranspositionTable(transpositionTableEntries));
+    }
+
+    @Bean
+    public DataAccess dataAccess() {
+        if (storageType == StorageType.OFF_HEAP)
+            return new OffHeapDataAccess(offHeapCapacity);
+
+        if (storageType == StorageType.JOURNAL)
+            return new JournaledDataAccess(Paths.get(journalDirectory), boardType, journalSegmentSize, journalFlushIntervalMillis,
+                    journalSnapshotIntervalMillis, journalRecoveryThreads);
+
+        InMemoryDataAccess dataAccess = InMemoryDataAccess.getInstance();
+        dataAccess.setBoardType(boardType);
+        dataAccess.setEviction(memoryGameOverTtlMillis, memoryIdleTtlMillis);
+
+        return dataAccess;
+    }
+}
@@ -0,0 +1,43 @@
+package com.backbase.kalah.ui.rest;
+
+import com.backbase.kalah.game.DataAccess;
+import com.backbase.kalah.game.InMemoryDataAccess;
+import com.backbase.kalah.game.OffHeapDataAccess;
+import com.backbase.kalah.metrics.Metrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurerAdapter;
+
+import javax.annotation.PostConstruct;
+
+@Configuration
+public class MetricsConfig extends WebMvcConfigurerAdapter {
+    @Autowired
+    private DataAccess dataAccess;
+
+    @Value("${kalah.metrics.enabled:true}")
+    private boolean enabled;
+
+    @PostConstruct
+    public void register() {
+        Metrics.setEnabled(enabled);
+        Metrics.gauge("kalah_games_live", "Games in the store", dataAccess::getGameCount);
+
+        if (dataAccess instanceof InMemoryDataAccess) {
+            InMemoryDataAccess memory = (InMemoryDataAccess) dataAccess;
+            Metrics.counter("kalah_games_evicted_total", "Games evicted from the store", memory::getGameOverEvictionCount, "reason", "game_over");
+            Metrics.counter("kalah_games_evicted_total", "Games evicted from the store", memory::getIdleEvictionCount, "reason", "idle");
+        }
+
+        if (dataAccess instanceof OffHeapDataAccess)
+            Metrics.gauge("kalah_off_heap_reserved_bytes", "Off-heap bytes reserved by the store", ((OffHeapDataAccess) dataAccess)::getReservedBytes);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (enabled)
+            registry.addInterceptor(new MetricsInterceptor()).addPathPatterns("/games/**");
+    }
+}
@@ -0,0 +1,44 @@
+package com.backbase.kalah.ui.rest;
+
+import com.backbase.kalah.metrics.Metrics;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * MetricsInterceptor records the duration of every REST request by handler method and response status.
+ * Requests that are completed asynchronously, like long polls, are not recorded.
+ */
+class MetricsInterceptor extends HandlerInterceptorAdapter {
+    private static final String START_ATTRIBUTE = MetricsInterceptor.class.getName() + ".start";
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (Metrics.isEnabled() && handler instanceof HandlerMethod && request.getDispatcherType() != DispatcherType.ASYNC)
+            request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        request.removeAttribute(START_ATTRIBUTE);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object start = request.getAttribute(START_ATTRIBUTE);
+
+        if (start == null)
+            return;
+
+        request.removeAttribute(START_ATTRIBUTE);
+        Metrics.timer("kalah_http_request_duration_seconds", "Duration of REST requests",
+                "handler", ((HandlerMethod) handler).getMethod().getName(),
+                "status", String.valueOf(response.getStatus()))
+                .record(System.nanoTime() - (Long) start);
+    }
+}
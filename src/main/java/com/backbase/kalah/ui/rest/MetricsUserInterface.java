@@ -0,0 +1,27 @@
+package com.backbase.kalah.ui.rest;
+
+import com.backbase.kalah.metrics.Metrics;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+@Api(produces = MetricsUserInterface.CONTENT_TYPE)
+@RestController("kalah-metrics-api")
+public class MetricsUserInterface {
+    static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    private static final MediaType MEDIA_TYPE = MediaType.parseMediaType(CONTENT_TYPE);
+
+    @ApiOperation(value = "Returns the counters, latency summaries and gauges of the game in the Prometheus text format")
+    @GetMapping(path = "/metrics")
+    public ResponseEntity<String> scrape() throws IOException {
+        StringBuilder body = new StringBuilder(4096);
+        Metrics.scrape(body);
+
+        return ResponseEntity.ok().contentType(MEDIA_TYPE).body(body.toString());
+    }
+}
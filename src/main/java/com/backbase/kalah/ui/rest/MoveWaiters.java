@@ -0,0 +1,92 @@
+package com.backbase.kalah.ui.rest;
+
+import com.backbase.kalah.game.Controller;
+import com.backbase.kalah.game.GameState;
+import com.backbase.kalah.game.MoveDelta;
+import com.backbase.kalah.game.MoveListener;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * MoveWaiters keeps the long-poll requests that wait for the next move of a game, and completes them from
+ * {@link #onMove(Controller, MoveDelta)}. A waiting request does not hold a thread, only an entry of this registry.
+ * <p>
+ * A queue is removed only inside {@code compute} when it is empty, so a waiter is never added to a removed queue.
+ */
+class MoveWaiters implements MoveListener {
+    private final ConcurrentHashMap<Integer, Queue<Waiter>> waiters = new ConcurrentHashMap<>();
+
+    /**
+     * Registers a callback that is called once with the state of the game after its version passes {@code version}.
+     * The caller must check the version again after registering, because a move may have happened in between.
+     *
+     * @param gameId   id of the game
+     * @param version  version the caller already knows
+     * @param callback called with the new state, while the game lock is held
+     * @return an action that unregisters the callback
+     */
+    Runnable add(final int gameId, final int version, final Consumer<GameState> callback) {
+        Waiter waiter = new Waiter(version, callback);
+
+        waiters.compute(gameId, (key, queue) -> {
+            Queue<Waiter> result = queue == null ? new ConcurrentLinkedQueue<>() : queue;
+            result.add(waiter);
+            return result;
+        });
+
+        return () -> remove(gameId, waiter);
+    }
+
+    /**
+     * @return number of registered callbacks
+     */
+    int size() {
+        int size = 0;
+
+        for (Queue<Waiter> queue : waiters.values())
+            size += queue.size();
+
+        return size;
+    }
+
+    @Override
+    public void onMove(final Controller controller, final MoveDelta delta) {
+        Queue<Waiter> queue = waiters.get(delta.getGameId());
+
+        if (queue == null)
+            return;
+
+        GameState state = null;
+
+        for (Waiter waiter : queue) {
+            if (waiter.version < delta.getVersion() && queue.remove(waiter)) {
+                if (state == null)
+                    state = controller.getState();
+
+                waiter.callback.accept(state);
+            }
+        }
+
+        waiters.computeIfPresent(delta.getGameId(), (key, current) -> current.isEmpty() ? null : current);
+    }
+
+    private void remove(final int gameId, final Waiter waiter) {
+        Queue<Waiter> queue = waiters.get(gameId);
+
+        if (queue != null && queue.remove(waiter))
+            waiters.computeIfPresent(gameId, (key, current) -> current.isEmpty() ? null : current);
+    }
+
+    private static final class Waiter {
+        private final int version;
+        private final Consumer<GameState> callback;
+
+        private Waiter(final int version, final Consumer<GameState> callback) {
+            this.version = version;
+            this.callback = callback;
+        }
+    }
+}
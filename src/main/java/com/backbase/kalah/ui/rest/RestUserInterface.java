@@ -1,25 +1,85 @@
 package com.backbase.kalah.ui.rest;
 
+import com.backbase.kalah.engine.Engine;
+import com.backbase.kalah.engine.SearchResult;
+import com.backbase.kalah.exceptions.InvalidGameCountException;
+import com.backbase.kalah.exceptions.InvalidMoveCountException;
 import com.backbase.kalah.game.Controller;
 import com.backbase.kalah.game.DataAccess;
-import com.backbase.kalah.game.InMemoryDataAccess;
+import com.backbase.kalah.game.GameState;
+import com.backbase.kalah.game.MoveDelta;
+import com.backbase.kalah.game.Position;
+import com.backbase.kalah.game.enums.Player;
+import com.backbase.kalah.ui.rest.entity.AiMoveResponse;
+import com.backbase.kalah.ui.rest.entity.BoardResponse;
+import com.backbase.kalah.ui.rest.entity.BulkCreateResponse;
 import com.backbase.kalah.ui.rest.entity.CreateResponse;
+import com.backbase.kalah.ui.rest.entity.MoveDeltaResponse;
 import com.backbase.kalah.ui.rest.entity.MoveResponse;
+import com.backbase.kalah.ui.rest.entity.MoveResponseMode;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.servlet.http.HttpServletRequest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
-@Api(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+@Api(consumes = MediaType.APPLICATION_JSON_VALUE + ", " + BinaryMessageConverter.MEDIA_TYPE_VALUE,
+        produces = MediaType.APPLICATION_JSON_VALUE + ", " + BinaryMessageConverter.MEDIA_TYPE_VALUE)
 @RestController("kalah-rest-api")
-@RequestMapping(path = "/games", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+@RequestMapping(path = RestUserInterface.PATH,
+        consumes = {MediaType.APPLICATION_JSON_VALUE, BinaryMessageConverter.MEDIA_TYPE_VALUE},
+        produces = {MediaType.APPLICATION_JSON_VALUE, BinaryMessageConverter.MEDIA_TYPE_VALUE})
 public class RestUserInterface {
-    private static final String URI_TEMPLATE = "%s://%s:%d%s/%d";
+    static final String PATH = "/games";
 
-    private DataAccess dataAccess = InMemoryDataAccess.getInstance();
+    private final BaseUrlCache baseUrls = new BaseUrlCache();
+    private final MoveWaiters moveWaiters = new MoveWaiters();
+
+    @Autowired
+    private DataAccess dataAccess;
+
+    @Autowired
+    private CustomExceptionHandler exceptionHandler;
+
+    @Autowired
+    private Engine engine;
+
+    @Value("${kalah.games.bulk-create.max-count:1000000}")
+    private int bulkCreateMaxCount;
+
+    @Value("${kalah.games.long-poll.max-timeout-ms:30000}")
+    private long longPollMaxTimeout;
+
+    @Value("${kalah.engine.move-time-ms:200}")
+    private long engineMoveTime;
+
+    @Value("${kalah.engine.max-move-time-ms:5000}")
+    private long engineMaxMoveTime;
+
+    @Value("${kalah.engine.max-turn-time-ms:10000}")
+    private long engineMaxTurnTime;
+
+    @PostConstruct
+    public void register() {
+        dataAccess.addMoveListener(moveWaiters);
+    }
+
+    @PreDestroy
+    public void unregister() {
+        dataAccess.removeMoveListener(moveWaiters);
+    }
 
     @ApiOperation(value = "Creates a new game")
     @ResponseStatus(HttpStatus.CREATED)
@@ -27,29 +87,155 @@ public class RestUserInterface {
     public CreateResponse createGame(HttpServletRequest request) {
         int gameId = dataAccess.create();
 
-        return new CreateResponse(gameId, String.format(URI_TEMPLATE,
-                request.getScheme(),
-                request.getServerName(),
-                request.getServerPort(),
-                request.getContextPath() + request.getServletPath(),
-                gameId));
+        return new CreateResponse(gameId, baseUrls.get(request, gameId));
+    }
+
+    @ApiOperation(value = "Creates count new games with contiguous ids and returns the id range")
+    @ResponseStatus(HttpStatus.CREATED)
+    @PostMapping(path = "/bulk")
+    public BulkCreateResponse createGames(HttpServletRequest request,
+                                          @RequestParam(name = "count") final int count) {
+        if (count > bulkCreateMaxCount)
+            throw new InvalidGameCountException("count must not be greater than " + bulkCreateMaxCount);
+
+        int firstId = dataAccess.create(count);
+
+        return new BulkCreateResponse(firstId, count, baseUrls.getTemplate(request));
+    }
+
+    @ApiOperation(value = "Returns the board of the selected gameId without making a move. " +
+            "The ETag is the version of the game, so a request with a matching If-None-Match gets 304 Not Modified")
+    @GetMapping(path = "/{gameId}", consumes = MediaType.ALL_VALUE)
+    public BoardResponse getGame(HttpServletRequest request, WebRequest webRequest,
+                                 @PathVariable(name = "gameId") final int gameId) {
+        GameState state = dataAccess.get(gameId).getState();
+
+        if (webRequest.checkNotModified(eTag(gameId, state.getVersion())))
+            return null;
+
+        return new BoardResponse(gameId, baseUrls.get(request, gameId), state);
+    }
+
+    @ApiOperation(value = "Waits until the version of the selected gameId is greater than the given version and returns the board. " +
+            "Returns 304 Not Modified if no move happens before the timeout (milliseconds, at most kalah.games.long-poll.max-timeout-ms)")
+    @GetMapping(path = "/{gameId}/moves", consumes = MediaType.ALL_VALUE)
+    public DeferredResult<ResponseEntity<BoardResponse>> awaitMove(HttpServletRequest request,
+                                                                   @PathVariable(name = "gameId") final int gameId,
+                                                                   @RequestParam(name = "version") final int version,
+                                                                   @RequestParam(name = "timeout", required = false) final Long timeout) {
+        Controller controller = dataAccess.get(gameId);
+        String url = baseUrls.get(request, gameId);
+        long timeoutMillis = timeout == null ? longPollMaxTimeout : Math.max(1, Math.min(timeout, longPollMaxTimeout));
+
+        DeferredResult<ResponseEntity<BoardResponse>> result = new DeferredResult<>(timeoutMillis,
+                ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag(gameId, version)).build());
+
+        result.onCompletion(moveWaiters.add(gameId, version, state -> result.setResult(boardEntity(url, state))));
+
+        if (controller.getVersion() > version)
+            result.setResult(boardEntity(url, controller.getState()));
+
+        return result;
     }
 
-    @ApiOperation(value = "Moves stones of selected pitId in the selected gameId and returns the final status of the game")
+    @ApiOperation(value = "Moves stones of selected pitId in the selected gameId and returns the final status of the game. " +
+            "The response is a map of all pits (MAP), only the pits changed by the move (DELTA) or the board as an array (BOARD)")
     @ResponseStatus(HttpStatus.OK)
     @PutMapping(path = "/{gameId}/pits/{pitId}")
-    public MoveResponse move(HttpServletRequest request,
-                             @PathVariable(name = "gameId") final int gameId,
-                             @PathVariable(name = "pitId") final int pitId) {
+    public Object move(HttpServletRequest request,
+                       @PathVariable(name = "gameId") final int gameId,
+                       @PathVariable(name = "pitId") final int pitId,
+                       @RequestParam(name = "response", defaultValue = "MAP") final MoveResponseMode mode) {
         Controller controller = dataAccess.get(gameId);
-        controller.move(pitId - 1);
+        MoveDelta delta = controller.tryMove(pitId - 1, mode == MoveResponseMode.DELTA);
+
+        if (!delta.isAccepted())
+            return exceptionHandler.handleRejectedMove(delta, request);
+
         dataAccess.save(controller);
 
-        return new MoveResponse(gameId, String.format(URI_TEMPLATE,
-                request.getScheme(),
-                request.getServerName(),
-                request.getServerPort(),
-                request.getContextPath() + request.getServletPath(),
-                gameId), controller);
+        String url = baseUrls.get(request, gameId);
+
+        if (mode == MoveResponseMode.DELTA)
+            return new MoveDeltaResponse(gameId, url, delta);
+
+        if (mode == MoveResponseMode.BOARD)
+            return new BoardResponse(gameId, url, controller.getState());
+
+        return new MoveResponse(gameId, url, controller.getState());
+    }
+
+    @ApiOperation(value = "Plays the turn of the player to move with the AI and returns the moves and the final status of the game. " +
+            "The AI keeps playing while its moves give it an extra turn; moveTime is the search time of every move " +
+            "(milliseconds, at most kalah.engine.max-move-time-ms) and the whole turn searches at most " +
+            "kalah.engine.max-turn-time-ms. If another move changes the game during a search, the turn stops with 409 Conflict")
+    @ResponseStatus(HttpStatus.OK)
+    @PutMapping(path = "/{gameId}/ai-moves")
+    public Object aiMove(HttpServletRequest request,
+                         @PathVariable(name = "gameId") final int gameId,
+                         @RequestParam(name = "moveTime", required = false) final Long moveTime) {
+        Controller controller = dataAccess.get(gameId);
+        long moveTimeMillis = moveTime == null ? engineMoveTime : Math.max(0, Math.min(moveTime, engineMaxMoveTime));
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(engineMaxTurnTime);
+        Position position = controller.getPosition();
+        Player player = position.getNextPlayer();
+        List<SearchResult> results = new ArrayList<>();
+
+        do {
+            long remainingMillis = Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+            SearchResult result = engine.search(position, Math.min(moveTimeMillis, remainingMillis));
+            MoveDelta delta = controller.tryMoveAtVersion(result.getPitId(), position.getVersion());
+
+            if (!delta.isAccepted())
+                return exceptionHandler.handleRejectedMove(delta, request);
+
+            dataAccess.save(controller);
+            results.add(result);
+            position = controller.getPosition();
+        } while (!position.isGameOver() && position.getNextPlayer() == player);
+
+        return new AiMoveResponse(gameId, baseUrls.get(request, gameId), results, controller.getState());
+    }
+
+    @ApiOperation(value = "Applies the moves of the given pitIds in order as a single unit and returns the final status of the game. " +
+            "If a move is illegal no move is applied and the error reports its moveIndex. At most 65536 moves are accepted")
+    @ResponseStatus(HttpStatus.OK)
+    @PutMapping(path = "/{gameId}/pits")
+    public MoveResponse moves(HttpServletRequest request,
+                              @PathVariable(name = "gameId") final int gameId,
+                              @RequestBody final int[] pitIds) {
+        if (pitIds.length > BinaryMessageConverter.MAX_MOVE_COUNT)
+            throw new InvalidMoveCountException("pitIds must not contain more than " + BinaryMessageConverter.MAX_MOVE_COUNT + " moves");
+
+        int[] moves = new int[pitIds.length];
+
+        for (int i = 0; i < pitIds.length; i++)
+            moves[i] = pitIds[i] - 1;
+
+        Controller controller = dataAccess.get(gameId);
+        controller.move(moves);
+        dataAccess.save(controller);
+
+        return new MoveResponse(gameId, baseUrls.get(request, gameId), controller.getState());
+    }
+
+    /**
+     * @param url   url of the game
+     * @param state state of the game
+     * @return the board with the ETag of its version
+     */
+    private static ResponseEntity<BoardResponse> boardEntity(final String url, final GameState state) {
+        return ResponseEntity.ok()
+                .eTag(eTag(state.getGameId(), state.getVersion()))
+                .body(new BoardResponse(state.getGameId(), url, state));
+    }
+
+    /**
+     * @param gameId  id of the game
+     * @param version version of the game
+     * @return strong ETag of the given version of the game
+     */
+    private static String eTag(final int gameId, final int version) {
+        return "\"" + gameId + "." + version + "\"";
     }
 }
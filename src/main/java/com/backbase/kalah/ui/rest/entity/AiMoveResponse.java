@@ -0,0 +1,96 @@
+package com.backbase.kalah.ui.rest.entity;
+
+import com.backbase.kalah.engine.SearchResult;
+import com.backbase.kalah.game.BoardCodec;
+import com.backbase.kalah.game.GameState;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.List;
+
+@JsonPropertyOrder({"id", "url", "moves", "version", "pits", "status", "nextPlayer", "winner"})
+public class AiMoveResponse implements BinaryResponse {
+    @JsonProperty
+    private String id;
+
+    @JsonProperty
+    private String url;
+
+    @JsonProperty
+    private Move[] moves;
+
+    @JsonProperty
+    private int version;
+
+    @JsonProperty
+    private int[] pits;
+
+    @JsonProperty
+    private String status;
+
+    @JsonProperty
+    private String nextPlayer;
+
+    @JsonProperty
+    private String winner;
+
+    @JsonIgnore
+    private GameState state;
+
+    public AiMoveResponse(int id, String url, List<SearchResult> results, GameState state) {
+        this.state = state;
+        this.id = String.valueOf(id);
+        this.url = url;
+        this.moves = new Move[results.size()];
+
+        for (int i = 0; i < moves.length; i++)
+            moves[i] = new Move(results.get(i));
+
+        this.version = state.getVersion();
+        this.pits = state.getPits();
+        this.status = state.getStatus().name();
+        this.nextPlayer = state.getNextPlayer().name();
+        this.winner = state.getWinner().map(Enum::name).orElse(null);
+    }
+
+    @Override
+    public void writeBinary(DataOutput out) throws IOException {
+        out.writeByte(TYPE_AI_MOVE);
+        BoardCodec.writeVarInt(out, state.getGameId());
+        BoardCodec.writeVarInt(out, moves.length);
+
+        for (Move move : moves)
+            BoardCodec.writeVarInt(out, move.pitId);
+
+        BoardCodec.write(state, out);
+    }
+
+    @JsonPropertyOrder({"pitId", "score", "depth", "nodes", "timeMs"})
+    public static class Move {
+        @JsonProperty
+        private int pitId;
+
+        @JsonProperty
+        private int score;
+
+        @JsonProperty
+        private int depth;
+
+        @JsonProperty
+        private long nodes;
+
+        @JsonProperty
+        private long timeMs;
+
+        Move(SearchResult result) {
+            this.pitId = result.getPitId() + 1;
+            this.score = result.getScore();
+            this.depth = result.getDepth();
+            this.nodes = result.getNodes();
+            this.timeMs = result.getElapsedMillis();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.backbase.kalah.ui.rest.entity;
+
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * A response that can be written in the binary wire format. Every message starts with its type byte,
+ * followed by the fields of the response; numbers are varints and boards use
+ * {@link com.backbase.kalah.game.BoardCodec}.
+ */
+public interface BinaryResponse {
+    int TYPE_CREATE = 1;
+    int TYPE_STATE = 2;
+    int TYPE_DELTA = 3;
+    int TYPE_BULK_CREATE = 4;
+    int TYPE_ERROR = 5;
+    int TYPE_AI_MOVE = 6;
+
+    /**
+     * @param out destination
+     * @throws IOException if the destination can not be written
+     */
+    void writeBinary(final DataOutput out) throws IOException;
+}
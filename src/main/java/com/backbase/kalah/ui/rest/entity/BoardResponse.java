@@ -0,0 +1,55 @@
+package com.backbase.kalah.ui.rest.entity;
+
+import com.backbase.kalah.game.BoardCodec;
+import com.backbase.kalah.game.GameState;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.io.DataOutput;
+import java.io.IOException;
+
+@JsonPropertyOrder({"id", "url", "version", "pits", "status", "nextPlayer", "winner"})
+public class BoardResponse implements BinaryResponse {
+    @JsonProperty
+    private String id;
+
+    @JsonProperty
+    private String url;
+
+    @JsonProperty
+    private int version;
+
+    @JsonProperty
+    private int[] pits;
+
+    @JsonProperty
+    private String status;
+
+    @JsonProperty
+    private String nextPlayer;
+
+    @JsonProperty
+    private String winner;
+
+    @JsonIgnore
+    private GameState state;
+
+    public BoardResponse(int id, String url, GameState state) {
+        this.state = state;
+        this.id = String.valueOf(id);
+        this.url = url;
+        this.version = state.getVersion();
+        this.pits = state.getPits();
+        this.status = state.getStatus().name();
+        this.nextPlayer = state.getNextPlayer().name();
+        this.winner = state.getWinner().map(Enum::name).orElse(null);
+    }
+
+    @Override
+    public void writeBinary(DataOutput out) throws IOException {
+        out.writeByte(TYPE_STATE);
+        BoardCodec.writeVarInt(out, state.getGameId());
+        BoardCodec.write(state, out);
+    }
+}
@@ -0,0 +1,38 @@
+package com.backbase.kalah.ui.rest.entity;
+
+import com.backbase.kalah.game.BoardCodec;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.io.DataOutput;
+import java.io.IOException;
+
+@JsonPropertyOrder({"firstId", "lastId", "count", "uriTemplate"})
+public class BulkCreateResponse implements BinaryResponse {
+    @JsonProperty
+    private String firstId;
+
+    @JsonProperty
+    private String lastId;
+
+    @JsonProperty
+    private int count;
+
+    @JsonProperty
+    private String uriTemplate;
+
+    public BulkCreateResponse(int firstId, int count, String uriTemplate) {
+        this.firstId = String.valueOf(firstId);
+        this.lastId = String.valueOf(firstId + count - 1);
+        this.count = count;
+        this.uriTemplate = uriTemplate;
+    }
+
+    @Override
+    public void writeBinary(DataOutput out) throws IOException {
+        out.writeByte(TYPE_BULK_CREATE);
+        BoardCodec.writeVarInt(out, Integer.parseInt(firstId));
+        BoardCodec.writeVarInt(out, count);
+        out.writeUTF(uriTemplate);
+    }
+}
@@ -1,18 +1,42 @@
 package com.backbase.kalah.ui.rest.entity;
 
-import com.fasterxml.jackson.annotation.JsonProperty;
-import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.backbase.kalah.game.BoardCodec;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
 
-@JsonPropertyOrder({"id", "uri"})
-public class CreateResponse {
-    @JsonProperty
-    private String id;
+import java.io.DataOutput;
+import java.io.IOException;
 
-    @JsonProperty
-    private String uri;
+@JsonSerialize(using = CreateResponse.Serializer.class)
+public class CreateResponse implements BinaryResponse {
+    private final int id;
+    private final String uri;
 
     public CreateResponse(int id, String uri) {
-        this.id = String.valueOf(id);
+        this.id = id;
         this.uri = uri;
     }
+
+    @Override
+    public void writeBinary(DataOutput out) throws IOException {
+        out.writeByte(TYPE_CREATE);
+        BoardCodec.writeVarInt(out, id);
+        out.writeUTF(uri);
+    }
+
+    public static class Serializer extends StdSerializer<CreateResponse> {
+        public Serializer() {
+            super(CreateResponse.class);
+        }
+
+        @Override
+        public void serialize(CreateResponse value, JsonGenerator json, SerializerProvider provider) throws IOException {
+            json.writeStartObject();
+            json.writeStringField("id", String.valueOf(value.id));
+            json.writeStringField("uri", value.uri);
+            json.writeEndObject();
+        }
+    }
 }
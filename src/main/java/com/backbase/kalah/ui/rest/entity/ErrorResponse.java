@@ -1,12 +1,16 @@
 package com.backbase.kalah.ui.rest.entity;
 
+import com.backbase.kalah.game.BoardCodec;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.Date;
 
-@JsonPropertyOrder({"timestamp", "status", "error", "exception", "message", "path"})
-public class ErrorResponse {
+@JsonPropertyOrder({"timestamp", "status", "error", "exception", "message", "path", "moveIndex"})
+public class ErrorResponse implements BinaryResponse {
     @JsonProperty
     private Date timestamp = new Date();
 
@@ -25,6 +29,10 @@ public class ErrorResponse {
     @JsonProperty
     private String path;
 
+    @JsonProperty
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer moveIndex;
+
     public ErrorResponse(int status, String error, String exception, String message, String path) {
         this.status = status;
         this.error = error;
@@ -32,4 +40,21 @@ public class ErrorResponse {
         this.message = message;
         this.path = path;
     }
+
+    public ErrorResponse(int status, String error, String exception, String message, String path, Integer moveIndex) {
+        this(status, error, exception, message, path);
+        this.moveIndex = moveIndex;
+    }
+
+    /**
+     * Writes {@code [type][varint status][utf exception][utf message][varint moveIndex + 1]}, zero means no move index
+     */
+    @Override
+    public void writeBinary(DataOutput out) throws IOException {
+        out.writeByte(TYPE_ERROR);
+        BoardCodec.writeVarInt(out, status);
+        out.writeUTF(exception);
+        out.writeUTF(message == null ? "" : message);
+        BoardCodec.writeVarInt(out, moveIndex == null ? 0 : moveIndex + 1);
+    }
 }
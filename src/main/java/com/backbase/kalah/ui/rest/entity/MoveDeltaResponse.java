@@ -0,0 +1,71 @@
+package com.backbase.kalah.ui.rest.entity;
+
+import com.backbase.kalah.game.BoardCodec;
+import com.backbase.kalah.game.MoveDelta;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.io.DataOutput;
+import java.io.IOException;
+
+@JsonPropertyOrder({"id", "url", "version", "pitId", "changes", "status", "nextPlayer", "winner", "capture", "extraTurn"})
+public class MoveDeltaResponse implements BinaryResponse {
+    @JsonProperty
+    private String id;
+
+    @JsonProperty
+    private String url;
+
+    @JsonProperty
+    private int version;
+
+    @JsonProperty
+    private int pitId;
+
+    @JsonProperty
+    private int[][] changes;
+
+    @JsonProperty
+    private String status;
+
+    @JsonProperty
+    private String nextPlayer;
+
+    @JsonProperty
+    private String winner;
+
+    @JsonProperty
+    private boolean capture;
+
+    @JsonProperty
+    private boolean extraTurn;
+
+    @JsonIgnore
+    private MoveDelta delta;
+
+    public MoveDeltaResponse(int id, String url, MoveDelta delta) {
+        this.delta = delta;
+        this.id = String.valueOf(id);
+        this.url = url;
+        this.version = delta.getVersion();
+        this.pitId = delta.getPitId() + 1;
+        this.changes = new int[delta.getChangeCount()][];
+
+        for (int i = 0; i < changes.length; i++)
+            changes[i] = new int[]{delta.getChangedPitId(i) + 1, delta.getChangedValue(i)};
+
+        this.status = delta.getStatus().name();
+        this.nextPlayer = delta.getNextPlayer().name();
+        this.winner = delta.getWinner().map(Enum::name).orElse(null);
+        this.capture = delta.isCapture();
+        this.extraTurn = delta.isExtraTurn();
+    }
+
+    @Override
+    public void writeBinary(DataOutput out) throws IOException {
+        out.writeByte(TYPE_DELTA);
+        BoardCodec.writeVarInt(out, delta.getGameId());
+        BoardCodec.write(delta, out);
+    }
+}
@@ -1,30 +1,81 @@
 package com.backbase.kalah.ui.rest.entity;
 
-import com.backbase.kalah.game.Controller;
-import com.fasterxml.jackson.annotation.JsonProperty;
-import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.backbase.kalah.game.BoardCodec;
+import com.backbase.kalah.game.GameState;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.io.DataOutput;
+import java.io.IOException;
 
-@JsonPropertyOrder({"id", "url", "status"})
-public class MoveResponse {
-    @JsonProperty
-    private String id;
+/**
+ * The pits are written as a map from 1-based pit id to stone count, both as strings:
+ * {@code {"id": "1", "url": "...", "status": {"1": "6", ...}}}.
+ * <p>
+ * The response is written straight from the {@link GameState} by {@link Serializer}, without building the map.
+ */
+@JsonSerialize(using = MoveResponse.Serializer.class)
+public class MoveResponse implements BinaryResponse {
+    private static final int CACHED_NAMES = 64;
+    private static final int CACHED_VALUES = 256;
+    private static final SerializableString[] PIT_NAMES = new SerializableString[CACHED_NAMES];
+    private static final String[] VALUES = new String[CACHED_VALUES];
 
-    @JsonProperty
-    private String url;
+    static {
+        for (int i = 0; i < CACHED_NAMES; i++)
+            PIT_NAMES[i] = new SerializedString(String.valueOf(i + 1));
 
-    @JsonProperty
-    private Map<String, String> status;
+        for (int i = 0; i < CACHED_VALUES; i++)
+            VALUES[i] = String.valueOf(i);
+    }
+
+    private final int id;
+    private final String url;
+    private final GameState state;
 
-    public MoveResponse(int id, String url, Controller controller) {
-        this.id = String.valueOf(id);
+    public MoveResponse(int id, String url, GameState state) {
+        this.id = id;
         this.url = url;
-        this.status = new HashMap<>();
+        this.state = state;
+    }
+
+    @Override
+    public void writeBinary(DataOutput out) throws IOException {
+        out.writeByte(TYPE_STATE);
+        BoardCodec.writeVarInt(out, id);
+        BoardCodec.write(state, out);
+    }
+
+    public static class Serializer extends StdSerializer<MoveResponse> {
+        public Serializer() {
+            super(MoveResponse.class);
+        }
+
+        @Override
+        public void serialize(MoveResponse value, JsonGenerator json, SerializerProvider provider) throws IOException {
+            GameState state = value.state;
+
+            json.writeStartObject();
+            json.writeStringField("id", String.valueOf(value.id));
+            json.writeStringField("url", value.url);
+            json.writeObjectFieldStart("status");
+
+            for (int pitId = 0; pitId < state.getPitCount(); pitId++) {
+                int stones = state.getPit(pitId);
+
+                if (pitId < CACHED_NAMES)
+                    json.writeFieldName(PIT_NAMES[pitId]);
+                else json.writeFieldName(String.valueOf(pitId + 1));
+
+                json.writeString(stones < CACHED_VALUES ? VALUES[stones] : String.valueOf(stones));
+            }
 
-        AtomicInteger idx = new AtomicInteger(1);
-        controller.streamBoard().forEach(stoneCount -> status.put(String.valueOf(idx.getAndIncrement()), String.valueOf(stoneCount)));
+            json.writeEndObject();
+            json.writeEndObject();
+        }
     }
 }
@@ -0,0 +1,21 @@
+package com.backbase.kalah.ui.rest.entity;
+
+/**
+ * Selects the body of a move response
+ */
+public enum MoveResponseMode {
+    /**
+     * {@link MoveResponse}, a map of every pit
+     */
+    MAP,
+
+    /**
+     * {@link MoveDeltaResponse}, only the pits changed by the move
+     */
+    DELTA,
+
+    /**
+     * {@link BoardResponse}, the whole board as an array
+     */
+    BOARD
+}
@@ -0,0 +1,111 @@
+package com.backbase.kalah.ui.websocket;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * SessionSender queues the outgoing messages of one WebSocket session and writes them on an executor, so callers
+ * never do socket I/O. Move listeners run under the game lock, and a slow subscriber must not stall the moves of a
+ * game.
+ * <p>
+ * At most one task per session runs at a time, so messages are written in the order they were queued. When more
+ * than {@code queueLimit} messages are waiting the subscriber can not keep up, and the session is closed.
+ */
+class SessionSender implements Runnable {
+    private static final String LOG_ERROR_TEMPLATE = "[WebSocket send failed] [Session: {}] [Message: {}]";
+    private static final String LOG_OVERFLOW_TEMPLATE = "[WebSocket queue full, closing session] [Session: {}] [Limit: {}]";
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionSender.class);
+
+    private final WebSocketSession session;
+    private final Executor executor;
+    private final int queueLimit;
+    private final Queue<TextMessage> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private volatile boolean overflowed;
+
+    SessionSender(final WebSocketSession session, final Executor executor, final int queueLimit) {
+        this.session = session;
+        this.executor = executor;
+        this.queueLimit = queueLimit;
+    }
+
+    WebSocketSession getSession() {
+        return session;
+    }
+
+    /**
+     * Queues a message without blocking
+     *
+     * @param message message to send
+     */
+    void send(final TextMessage message) {
+        if (overflowed)
+            return;
+
+        if (size.incrementAndGet() > queueLimit) {
+            overflowed = true;
+            logger.warn(LOG_OVERFLOW_TEMPLATE, session.getId(), queueLimit);
+        } else {
+            queue.add(message);
+        }
+
+        schedule();
+    }
+
+    @Override
+    public void run() {
+        TextMessage message;
+
+        while ((message = queue.poll()) != null && !overflowed) {
+            size.decrementAndGet();
+
+            try {
+                session.sendMessage(message);
+            } catch (IOException | RuntimeException ex) {
+                logger.warn(LOG_ERROR_TEMPLATE, session.getId(), ex.getMessage());
+            }
+        }
+
+        if (overflowed) {
+            queue.clear();
+            close();
+            return;
+        }
+
+        scheduled.set(false);
+
+        if (!queue.isEmpty())
+            schedule();
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(this);
+            } catch (RejectedExecutionException ex) {
+                scheduled.set(false);
+            }
+        }
+    }
+
+    private void close() {
+        try {
+            session.close(CloseStatus.SESSION_NOT_RELIABLE);
+        } catch (IOException ex) {
+            logger.warn(LOG_ERROR_TEMPLATE, session.getId(), ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.backbase.kalah.ui.websocket;
+
+import com.backbase.kalah.exceptions.KalahException;
+import com.backbase.kalah.game.Controller;
+import com.backbase.kalah.game.DataAccess;
+import com.backbase.kalah.game.GameState;
+import com.backbase.kalah.game.MoveDelta;
+import com.backbase.kalah.game.MoveListener;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * WebSocket user interface of the game.
+ * <p>
+ * Clients send {@code {"action": "subscribe" | "unsubscribe" | "move", "gameId": 1, "pitId": 1}} messages.
+ * A subscriber receives the full board once and then a delta with only the changed pits after every move of
+ * the game, no matter if the move was played over WebSocket or REST. Pit ids are 1-based like in the REST api.
+ * <p>
+ * A subscription is registered and its board is queued while the game lock is held, so every later move arrives as a
+ * delta with a higher version. Messages are written by a {@link SessionSender} per session on a small pool, because
+ * moves are published under the game lock and must not wait for a slow client.
+ */
+@Component
+public class WebSocketUserInterface extends TextWebSocketHandler implements MoveListener {
+    private static final String SUBSCRIPTIONS = "kalah.subscriptions";
+    private static final String LOG_ERROR_TEMPLATE = "[WebSocket error] [Session: {}] [Message: {}]";
+
+    private Logger logger = LoggerFactory.getLogger(WebSocketUserInterface.class);
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final Map<Integer, Set<SessionSender>> subscribers = new ConcurrentHashMap<>();
+    private final Map<String, SessionSender> sessions = new ConcurrentHashMap<>();
+    private ExecutorService senders;
+
+    @Autowired
+    private DataAccess dataAccess;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${kalah.websocket.send-time-limit-ms:5000}")
+    private int sendTimeLimit;
+
+    @Value("${kalah.websocket.buffer-size-limit:65536}")
+    private int bufferSizeLimit;
+
+    @Value("${kalah.websocket.sender-threads:4}")
+    private int senderThreads;
+
+    @Value("${kalah.websocket.queue-limit:1024}")
+    private int queueLimit;
+
+    @PostConstruct
+    public void register() {
+        AtomicInteger threadCount = new AtomicInteger();
+        senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "websocket-sender-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        dataAccess.addMoveListener(this);
+    }
+
+    @PreDestroy
+    public void unregister() {
+        dataAccess.removeMoveListener(this);
+        senders.shutdown();
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        session.getAttributes().put(SUBSCRIPTIONS, ConcurrentHashMap.newKeySet());
+        sessions.put(session.getId(), new SessionSender(new ConcurrentWebSocketSessionDecorator(session, sendTimeLimit, bufferSizeLimit),
+                senders, queueLimit));
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        for (Integer gameId : subscriptions(session))
+            unsubscribe(session, gameId);
+
+        sessions.remove(session.getId());
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws IOException {
+        SessionSender out = sessions.get(session.getId());
+        Integer gameId = null;
+
+        try {
+            JsonNode request = objectMapper.readTree(message.getPayload());
+            String action = request.path("action").asText();
+
+            if (!request.path("gameId").canConvertToInt()) {
+                out.send(new TextMessage(errorMessage(null, "gameId is missing")));
+                return;
+            }
+
+            gameId = request.path("gameId").asInt();
+
+            if ("subscribe".equals(action)) {
+                int subscribedGameId = gameId;
+
+                dataAccess.get(gameId).getState(state -> {
+                    subscriptions(session).add(subscribedGameId);
+                    subscribers.computeIfAbsent(subscribedGameId, id -> ConcurrentHashMap.newKeySet()).add(out);
+                    out.send(new TextMessage(boardMessage(state)));
+                });
+            } else if ("unsubscribe".equals(action)) {
+                unsubscribe(session, gameId);
+            } else if ("move".equals(action)) {
+                Controller controller = dataAccess.get(gameId);
+                boolean subscribed = subscriptions(session).contains(gameId);
+                MoveDelta delta = controller.tryMove(request.path("pitId").asInt() - 1, !subscribed);
+
+                if (!delta.isAccepted()) {
+                    logger.warn(LOG_ERROR_TEMPLATE, session.getId(), delta.getRejectionMessage());
+                    out.send(new TextMessage(errorMessage(gameId, delta.getRejectionMessage())));
+                    return;
+                }
+
+                dataAccess.save(controller);
+
+                if (!subscribed)
+                    out.send(new TextMessage(deltaMessage(delta)));
+            } else {
+                out.send(new TextMessage(errorMessage(gameId, "Unknown action: " + action)));
+            }
+        } catch (KalahException | IOException ex) {
+            logger.warn(LOG_ERROR_TEMPLATE, session.getId(), ex.getMessage());
+            out.send(new TextMessage(errorMessage(gameId, ex.getMessage())));
+        }
+    }
+
+    /**
+     * Queues the delta of the move for every subscriber of the game. The message is serialized once, and no socket
+     * I/O happens under the game lock.
+     *
+     * @param controller controller of the game
+     * @param delta      effect of the move
+     */
+    @Override
+    public void onMove(final Controller controller, final MoveDelta delta) {
+        Set<SessionSender> targets = subscribers.get(delta.getGameId());
+
+        if (targets == null || targets.isEmpty())
+            return;
+
+        TextMessage message = new TextMessage(deltaMessage(delta));
+
+        for (SessionSender target : targets)
+            target.send(message);
+    }
+
+    private void unsubscribe(final WebSocketSession session, final int gameId) {
+        subscriptions(session).remove(gameId);
+        SessionSender out = sessions.get(session.getId());
+
+        subscribers.computeIfPresent(gameId, (id, targets) -> {
+            targets.remove(out);
+            return targets.isEmpty() ? null : targets;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Set<Integer> subscriptions(final WebSocketSession session) {
+        return (Set<Integer>) session.getAttributes().get(SUBSCRIPTIONS);
+    }
+
+    private String boardMessage(final GameState state) {
+        return write(json -> {
+            json.writeStringField("type", "board");
+            json.writeNumberField("gameId", state.getGameId());
+            json.writeNumberField("version", state.getVersion());
+            json.writeArrayFieldStart("pits");
+
+            for (int pitId = 0; pitId < state.getPitCount(); pitId++)
+                json.writeNumber(state.getPit(pitId));
+
+            json.writeEndArray();
+            json.writeStringField("status", state.getStatus().name());
+            json.writeStringField("nextPlayer", state.getNextPlayer().name());
+            json.writeStringField("winner", state.getWinner().map(Enum::name).orElse(null));
+        });
+    }
+
+    private String deltaMessage(final MoveDelta delta) {
+        return write(json -> {
+            json.writeStringField("type", "delta");
+            json.writeNumberField("gameId", delta.getGameId());
+            json.writeNumberField("version", delta.getVersion());
+            json.writeNumberField("pitId", delta.getPitId() + 1);
+            json.writeArrayFieldStart("changes");
+
+            for (int i = 0; i < delta.getChangeCount(); i++) {
+                json.writeStartArray();
+                json.writeNumber(delta.getChangedPitId(i) + 1);
+                json.writeNumber(delta.getChangedValue(i));
+                json.writeEndArray();
+            }
+
+            json.writeEndArray();
+            json.writeStringField("status", delta.getStatus().name());
+            json.writeStringField("nextPlayer", delta.getNextPlayer().name());
+            json.writeStringField("winner", delta.getWinner().map(Enum::name).orElse(null));
+            json.writeBooleanField("capture", delta.isCapture());
+            json.writeBooleanField("extraTurn", delta.isExtraTurn());
+        });
+    }
+
+    private String errorMessage(final Integer gameId, final String message) {
+        return write(json -> {
+            json.writeStringField("type", "error");
+
+            if (gameId != null)
+                json.writeNumberField("gameId", gameId);
+
+            json.writeStringField("message", message);
+        });
+    }
+
+    private String write(final Fields fields) {
+        StringWriter writer = new StringWriter(128);
+
+        try (JsonGenerator json = jsonFactory.createGenerator(writer)) {
+            json.writeStartObject();
+            fields.write(json);
+            json.writeEndObject();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+
+        return writer.toString();
+    }
+
+    @FunctionalInterface
+    private interface Fields {
+        void write(final JsonGenerator json) throws IOException;
+    }
+}
@@ -0,0 +1,83 @@
+package com.backbase.kalah.engine;
+
+import com.backbase.kalah.exceptions.GameOverException;
+import com.backbase.kalah.game.Controller;
+import com.backbase.kalah.game.DataAccess;
+import com.backbase.kalah.game.OffHeapDataAccess;
+import com.backbase.kalah.game.Position;
+import com.backbase.kalah.game.enums.Player;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Optional;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class AlphaBetaEngineTest {
+    private AlphaBetaEngine engine;
+    private DataAccess dataAccess;
+
+    @Before
+    public void setUp() {
+        engine = new AlphaBetaEngine(new TranspositionTable(1 << 16));
+        dataAccess = new OffHeapDataAccess(16);
+    }
+
+    @Test
+    public void searchReturnsLegalMove() {
+        Position position = newGame().getPosition();
+        SearchResult result = engine.search(position, 20);
+
+        assertTrue(result.getDepth() >= 1);
+        assertTrue(result.getNodes() > 0);
+        assertTrue(result.getPitId() >= 0 && result.getPitId() < 6);
+    }
+
+    @Test
+    public void zeroBudgetFinishesFirstIteration() {
+        SearchResult result = engine.search(newGame().getPosition(), 0);
+
+        assertEquals(1, result.getDepth());
+    }
+
+    @Test
+    public void beatsRandomPlayer() {
+        SplittableRandom random = new SplittableRandom(3);
+        int[] moves = new int[6];
+
+        for (int game = 0; game < 3; game++) {
+            Controller controller = newGame();
+
+            while (!controller.getPosition().isGameOver()) {
+                Position position = controller.getPosition();
+
+                if (position.getNextPlayer() == Player.PLAYER_1)
+                    controller.move(engine.search(position, 5).getPitId());
+                else
+                    controller.move(moves[random.nextInt(position.getLegalMoves(moves))]);
+            }
+
+            Optional<Player> winner = controller.getState().getWinner();
+            assertNotEquals(Optional.of(Player.PLAYER_2), winner);
+        }
+    }
+
+    @Test(expected = GameOverException.class)
+    public void searchGameOver() {
+        Controller controller = newGame();
+        SplittableRandom random = new SplittableRandom(5);
+        int[] moves = new int[6];
+
+        while (!controller.getPosition().isGameOver())
+            controller.move(moves[random.nextInt(controller.getPosition().getLegalMoves(moves))]);
+
+        engine.search(controller.getPosition(), 10);
+    }
+
+    private Controller newGame() {
+        return dataAccess.get(dataAccess.create());
+    }
+}
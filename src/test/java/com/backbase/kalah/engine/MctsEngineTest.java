@@ -0,0 +1,142 @@
+package com.backbase.kalah.engine;
+
+import com.backbase.kalah.exceptions.GameOverException;
+import com.backbase.kalah.game.Controller;
+import com.backbase.kalah.game.DataAccess;
+import com.backbase.kalah.game.OffHeapDataAccess;
+import com.backbase.kalah.game.Position;
+import com.backbase.kalah.game.enums.Player;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MctsEngineTest {
+    private MctsEngine engine;
+    private DataAccess dataAccess;
+
+    @Before
+    public void setUp() {
+        engine = new MctsEngine(4, 2000, 1 << 16);
+        dataAccess = new OffHeapDataAccess(16);
+    }
+
+    @After
+    public void tearDown() {
+        engine.close();
+    }
+
+    @Test
+    public void searchReturnsLegalMove() {
+        SearchResult result = engine.search(newGame().getPosition(), 10000);
+
+        assertEquals(2000, result.getNodes());
+        assertTrue(result.getDepth() >= 1);
+        assertTrue(result.getPitId() >= 0 && result.getPitId() < 6);
+        assertTrue(result.getScore() >= 0 && result.getScore() <= 1000);
+    }
+
+    @Test
+    public void playoutBudget() {
+        Position position = newGame().getPosition();
+
+        assertEquals(1, engine.search(position, 1, 10000).getNodes());
+        assertEquals(5000, engine.search(position, 5000, 10000).getNodes());
+    }
+
+    @Test
+    public void arenaPoolIsBounded() throws Exception {
+        Position position = newGame().getPosition();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<SearchResult>> searches = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < 16; i++)
+                searches.add(executor.submit(() -> engine.search(position, 2000, 10000)));
+
+            for (Future<SearchResult> search : searches)
+                assertTrue(search.get(1, TimeUnit.MINUTES).getPitId() >= 0);
+        } finally {
+            executor.shutdown();
+        }
+
+        assertTrue(engine.getPooledArenas() >= 1);
+        assertTrue(engine.getPooledArenas() <= MctsEngine.MAX_POOLED_ARENAS);
+    }
+
+    @Test
+    public void zeroBudgetReturnsLegalMove() {
+        SearchResult result = engine.search(newGame().getPosition(), 0);
+
+        assertTrue(result.getPitId() >= 0 && result.getPitId() < 6);
+    }
+
+    @Test
+    public void fullArenaKeepsSearching() {
+        MctsEngine small = new MctsEngine(2, 5000, 16);
+
+        try {
+            SearchResult result = small.search(newGame().getPosition(), 10000);
+
+            assertEquals(5000, result.getNodes());
+            assertTrue(result.getPitId() >= 0 && result.getPitId() < 6);
+        } finally {
+            small.close();
+        }
+    }
+
+    @Test
+    public void beatsRandomPlayer() {
+        SplittableRandom random = new SplittableRandom(3);
+        int[] moves = new int[6];
+
+        for (int game = 0; game < 3; game++) {
+            Controller controller = newGame();
+
+            while (!controller.getPosition().isGameOver()) {
+                Position position = controller.getPosition();
+
+                if (position.getNextPlayer() == Player.PLAYER_1)
+                    controller.move(engine.search(position, 10000).getPitId());
+                else
+                    controller.move(moves[random.nextInt(position.getLegalMoves(moves))]);
+            }
+
+            Optional<Player> winner = controller.getState().getWinner();
+            assertNotEquals(Optional.of(Player.PLAYER_2), winner);
+        }
+    }
+
+    @Test(expected = GameOverException.class)
+    public void searchGameOver() {
+        Controller controller = newGame();
+        SplittableRandom random = new SplittableRandom(5);
+        int[] moves = new int[6];
+
+        while (!controller.getPosition().isGameOver())
+            controller.move(moves[random.nextInt(controller.getPosition().getLegalMoves(moves))]);
+
+        engine.search(controller.getPosition(), 10);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidPlayouts() {
+        new MctsEngine(1, 0, 16);
+    }
+
+    private Controller newGame() {
+        return dataAccess.get(dataAccess.create());
+    }
+}
@@ -0,0 +1,64 @@
+package com.backbase.kalah.engine;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class NodeArenaTest {
+    @Test
+    public void statistics() {
+        NodeArena arena = new NodeArena(4);
+
+        arena.addVisit(NodeArena.ROOT);
+        arena.addVisit(NodeArena.ROOT);
+        arena.addReward(NodeArena.ROOT, 2);
+        arena.addReward(NodeArena.ROOT, 1);
+
+        assertEquals(2, NodeArena.visits(arena.stats(NodeArena.ROOT)));
+        assertEquals(3, NodeArena.rewards(arena.stats(NodeArena.ROOT)));
+    }
+
+    @Test
+    public void expand() {
+        NodeArena arena = new NodeArena(8);
+
+        assertTrue(arena.claim(NodeArena.ROOT));
+        assertFalse(arena.claim(NodeArena.ROOT));
+        assertEquals(NodeArena.EXPANDING, arena.firstChild(NodeArena.ROOT));
+
+        int first = arena.expand(NodeArena.ROOT, new int[]{0, 2, 5}, 3);
+
+        assertEquals(1, first);
+        assertEquals(first, arena.firstChild(NodeArena.ROOT));
+        assertEquals(3, arena.childCount(NodeArena.ROOT));
+        assertEquals(5, arena.move(first + 2));
+        assertEquals(NodeArena.UNEXPANDED, arena.firstChild(first));
+        assertEquals(4, arena.size());
+    }
+
+    @Test
+    public void expandFull() {
+        NodeArena arena = new NodeArena(4);
+
+        assertTrue(arena.claim(NodeArena.ROOT));
+        assertEquals(NodeArena.FULL, arena.expand(NodeArena.ROOT, new int[]{0, 1, 2, 3}, 4));
+        assertEquals(NodeArena.FULL, arena.firstChild(NodeArena.ROOT));
+        assertFalse(arena.claim(NodeArena.ROOT));
+    }
+
+    @Test
+    public void reset() {
+        NodeArena arena = new NodeArena(4);
+
+        arena.addVisit(NodeArena.ROOT);
+        arena.claim(NodeArena.ROOT);
+        arena.expand(NodeArena.ROOT, new int[]{0, 1}, 2);
+        arena.reset();
+
+        assertEquals(1, arena.size());
+        assertEquals(0, arena.stats(NodeArena.ROOT));
+        assertEquals(NodeArena.UNEXPANDED, arena.firstChild(NodeArena.ROOT));
+    }
+}
@@ -0,0 +1,53 @@
+package com.backbase.kalah.engine;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class TranspositionTableTest {
+    @Test
+    public void storeAndProbe() {
+        TranspositionTable table = new TranspositionTable(1024);
+        table.store(42L, 7, -13, TranspositionTable.LOWER_BOUND, 5);
+
+        long entry = table.probe(42L);
+
+        assertEquals(7, TranspositionTable.depth(entry));
+        assertEquals(-13, TranspositionTable.score(entry));
+        assertEquals(TranspositionTable.LOWER_BOUND, TranspositionTable.bound(entry));
+        assertEquals(5, TranspositionTable.move(entry));
+        assertEquals(TranspositionTable.MISS, table.probe(43L));
+    }
+
+    @Test
+    public void keepsDeeperEntry() {
+        TranspositionTable table = new TranspositionTable(1024);
+        table.store(42L, 7, 1, TranspositionTable.EXACT, -1);
+        table.store(42L, 3, 2, TranspositionTable.EXACT, 2);
+
+        assertEquals(1, TranspositionTable.score(table.probe(42L)));
+        assertEquals(-1, TranspositionTable.move(table.probe(42L)));
+
+        table.store(42L + 1024, 1, 3, TranspositionTable.UPPER_BOUND, 0);
+
+        assertEquals(TranspositionTable.MISS, table.probe(42L));
+        assertEquals(3, TranspositionTable.score(table.probe(42L + 1024)));
+    }
+
+    @Test
+    public void size() {
+        assertEquals(1, new TranspositionTable(1).size());
+        assertEquals(4, new TranspositionTable(3).size());
+        assertEquals(1024, new TranspositionTable(1024).size());
+        assertEquals(2048, new TranspositionTable(1025).size());
+    }
+
+    @Test
+    public void clear() {
+        TranspositionTable table = new TranspositionTable(16);
+        table.store(42L, 7, 1, TranspositionTable.EXACT, 3);
+        table.clear();
+
+        assertEquals(TranspositionTable.MISS, table.probe(42L));
+    }
+}
@@ -0,0 +1,210 @@
+package com.backbase.kalah.game;
+
+import com.backbase.kalah.exceptions.InvalidStoneCountException;
+import com.backbase.kalah.game.enums.BoardType;
+import com.backbase.kalah.game.enums.GameStatus;
+import com.backbase.kalah.game.enums.Player;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+
+public class BoardCodecTest {
+    @Test
+    public void roundTrip() {
+        Board board = new BoardEntity(14, 6);
+        board.move(0);
+        board.incrementVersion();
+        board.move(1);
+        board.incrementVersion();
+        board.changeNextPlayer();
+
+        byte[] bytes = BoardCodec.encode(board);
+
+        assertEquals(18, bytes.length);
+
+        for (BoardType type : BoardType.values()) {
+            Board decoded = BoardCodec.decode(bytes, type);
+
+            assertArrayEquals(board.toArray(), decoded.toArray());
+            assertEquals(2, decoded.getVersion());
+            assertEquals(Player.PLAYER_2, decoded.getNextPlayer());
+            assertEquals(GameStatus.RUNNING, decoded.getStatus());
+            assertEquals(Optional.empty(), decoded.getWinner());
+        }
+    }
+
+    @Test
+    public void roundTripGameOver() {
+        Board board = new PackedBoardEntity(6, 2);
+        board.gameOver();
+        board.setWinner(Player.PLAYER_2);
+
+        Board decoded = BoardCodec.decode(BoardCodec.encode(board), BoardType.STANDARD);
+
+        assertEquals(GameStatus.GAME_OVER, decoded.getStatus());
+        assertEquals(Optional.of(Player.PLAYER_2), decoded.getWinner());
+        assertArrayEquals(board.toArray(), decoded.toArray());
+    }
+
+    @Test
+    public void roundTripLargeValues() {
+        Board board = new BoardEntity(14, 100000);
+
+        for (int i = 0; i < 300; i++)
+            board.incrementVersion();
+
+        Board decoded = BoardCodec.decode(BoardCodec.encode(board), BoardType.STANDARD);
+
+        assertArrayEquals(board.toArray(), decoded.toArray());
+        assertEquals(300, decoded.getVersion());
+    }
+
+    @Test(expected = InvalidStoneCountException.class)
+    public void decodeTooManyStonesForPacked() {
+        BoardCodec.decode(BoardCodec.encode(new BoardEntity(14, 300)), BoardType.PACKED);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void decodeUnknownFormat() {
+        byte[] bytes = BoardCodec.encode(new BoardEntity(14, 6));
+        bytes[0] = (byte) (BoardCodec.FORMAT + 1);
+        BoardCodec.decode(bytes, BoardType.STANDARD);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void decodeTruncated() {
+        byte[] bytes = BoardCodec.encode(new BoardEntity(14, 6));
+        BoardCodec.decode(Arrays.copyOf(bytes, bytes.length - 1), BoardType.STANDARD);
+    }
+
+    @Test
+    public void readRejectsCorruptInput() throws IOException {
+        byte[] valid = BoardCodec.encode(new BoardEntity(14, 6));
+        byte[][] corrupt = {
+                withPitCount(valid, 2_000_000_000),
+                withPitCount(valid, BoardCodec.MAX_PIT_COUNT + 2),
+                withPitCount(valid, 4),
+                withPitCount(valid, 15),
+                withByte(valid, 2, 0x0C),
+                withByte(valid, 2, 0x40),
+                withFirstPit(valid, -1)
+        };
+
+        for (byte[] bytes : corrupt) {
+            try {
+                BoardCodec.read(new DataInputStream(new ByteArrayInputStream(bytes)), BoardType.STANDARD);
+                fail();
+            } catch (IOException ignored) {
+            }
+
+            try {
+                BoardCodec.readState(0, new DataInputStream(new ByteArrayInputStream(bytes)));
+                fail();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    @Test
+    public void varInt() throws IOException {
+        int[] values = {0, 1, 127, 128, 16383, 16384, Integer.MAX_VALUE, -1};
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        for (int value : values)
+            BoardCodec.writeVarInt(out, value);
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+
+        for (int value : values)
+            assertEquals(value, BoardCodec.readVarInt(in));
+    }
+
+    @Test
+    public void gameStateRoundTrip() throws IOException {
+        Board board = new BoardEntity(14, 6);
+        board.move(2);
+        board.incrementVersion();
+        board.gameOver();
+        board.setWinner(Player.PLAYER_1);
+
+        GameState state = new GameState(7, board);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        BoardCodec.write(state, new DataOutputStream(bytes));
+
+        assertArrayEquals(BoardCodec.encode(board), bytes.toByteArray());
+
+        GameState decoded = BoardCodec.readState(7, new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals(7, decoded.getGameId());
+        assertEquals(1, decoded.getVersion());
+        assertArrayEquals(board.toArray(), decoded.getPits());
+        assertEquals(GameStatus.GAME_OVER, decoded.getStatus());
+        assertEquals(Optional.of(Player.PLAYER_1), decoded.getWinner());
+    }
+
+    @Test
+    public void moveDelta() throws IOException {
+        Board board = new BoardEntity(14, 6);
+        int lastPitId = board.move(0);
+        board.incrementVersion();
+
+        MoveDelta delta = MoveDelta.of(3, 0, Player.PLAYER_1, 6, lastPitId, board, false, false, true);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        BoardCodec.write(delta, new DataOutputStream(bytes));
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+
+        assertEquals(BoardCodec.FORMAT, in.readUnsignedByte());
+        assertEquals(0, BoardCodec.readVarInt(in));
+        assertEquals(0x20, in.readUnsignedByte());
+        assertEquals(1, BoardCodec.readVarInt(in));
+        assertEquals(7, BoardCodec.readVarInt(in));
+        assertEquals(0, BoardCodec.readVarInt(in));
+        assertEquals(0, BoardCodec.readVarInt(in));
+
+        for (int pitId = 1; pitId < 7; pitId++) {
+            assertEquals(pitId, BoardCodec.readVarInt(in));
+            assertEquals(pitId == 6 ? 1 : 7, BoardCodec.readVarInt(in));
+        }
+
+        assertEquals(-1, in.read());
+    }
+
+    private static byte[] withPitCount(final byte[] bytes, final int pitCount) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(out);
+
+        data.writeByte(bytes[0]);
+        BoardCodec.writeVarInt(data, pitCount);
+        data.write(bytes, 2, bytes.length - 2);
+
+        return out.toByteArray();
+    }
+
+    private static byte[] withFirstPit(final byte[] bytes, final int pit) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(out);
+
+        data.write(bytes, 0, 4);
+        BoardCodec.writeVarInt(data, pit);
+        data.write(bytes, 5, bytes.length - 5);
+
+        return out.toByteArray();
+    }
+
+    private static byte[] withByte(final byte[] bytes, final int index, final int value) {
+        byte[] copy = bytes.clone();
+        copy[index] = (byte) value;
+
+        return copy;
+    }
+}
@@ -165,6 +165,21 @@ public class BoardEntityTest {
         assertEquals(3, exceptionCount);
     }
 
+    @Test
+    public void moveWithFullLaps() {
+        BoardEntity smallBoard = new BoardEntity(6, 2);
+        smallBoard.getPits()[0] = 11;
+
+        assertEquals(1, smallBoard.move(0));
+        assertArrayEquals(new int[]{2, 5, 2, 4, 4, 0}, smallBoard.getPits());
+
+        smallBoard = new BoardEntity(6, 2);
+        smallBoard.getPits()[0] = 10;
+
+        assertEquals(0, smallBoard.move(0));
+        assertArrayEquals(new int[]{2, 4, 2, 4, 4, 0}, smallBoard.getPits());
+    }
+
     @Test
     public void getPitType() {
         assertEquals(PitType.PLAYER_1_KALAH, board.getPitType(6));
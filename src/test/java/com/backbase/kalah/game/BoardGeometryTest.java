@@ -0,0 +1,54 @@
+package com.backbase.kalah.game;
+
+import com.backbase.kalah.exceptions.InvalidPitCountException;
+import com.backbase.kalah.exceptions.InvalidPitIdException;
+import com.backbase.kalah.game.enums.PitType;
+import com.backbase.kalah.game.enums.Player;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BoardGeometryTest {
+    private BoardGeometry geometry = BoardGeometry.of(14);
+
+    @Test
+    public void of() {
+        assertSame(geometry, BoardGeometry.of(14));
+        assertNotSame(geometry, BoardGeometry.of(6));
+        assertEquals(14, geometry.getPitCount());
+    }
+
+    @Test(expected = InvalidPitCountException.class)
+    public void ofInvalid() {
+        BoardGeometry.of(7);
+    }
+
+    @Test
+    public void getKalahIndex() {
+        assertEquals(6, geometry.getKalahIndex(Player.PLAYER_1));
+        assertEquals(13, geometry.getKalahIndex(Player.PLAYER_2));
+    }
+
+    @Test
+    public void getPitType() {
+        assertEquals(PitType.PLAYER_1_PIT, geometry.getPitType(0));
+        assertEquals(PitType.PLAYER_1_KALAH, geometry.getPitType(6));
+        assertEquals(PitType.PLAYER_2_PIT, geometry.getPitType(7));
+        assertEquals(PitType.PLAYER_2_KALAH, geometry.getPitType(13));
+    }
+
+    @Test(expected = InvalidPitIdException.class)
+    public void getPitTypeInvalid() {
+        geometry.getPitType(14);
+    }
+
+    @Test
+    public void getNextPit() {
+        assertEquals(1, geometry.getNextPit(Player.PLAYER_1, 0));
+        assertEquals(0, geometry.getNextPit(Player.PLAYER_1, 12));
+        assertEquals(13, geometry.getNextPit(Player.PLAYER_2, 12));
+        assertEquals(0, geometry.getNextPit(Player.PLAYER_2, 13));
+        assertEquals(7, geometry.getNextPit(Player.PLAYER_1, 6));
+        assertEquals(7, geometry.getNextPit(Player.PLAYER_2, 5));
+    }
+}
@@ -0,0 +1,108 @@
+package com.backbase.kalah.game;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class ConcurrentIntMapTest {
+    private ConcurrentIntMap<String> map;
+
+    @Before
+    public void setUp() {
+        map = new ConcurrentIntMap<>();
+    }
+
+    @Test
+    public void putGetRemove() {
+        assertNull(map.get(1));
+        assertNull(map.put(1, "a"));
+        assertEquals("a", map.put(1, "b"));
+        assertEquals("b", map.get(1));
+        assertEquals(1, map.size());
+
+        assertEquals("b", map.remove(1));
+        assertNull(map.remove(1));
+        assertNull(map.get(1));
+        assertEquals(0, map.size());
+
+        assertNull(map.put(1, "c"));
+        assertEquals("c", map.get(1));
+    }
+
+    @Test
+    public void reservedKey() {
+        for (int key = 0; key < 100; key++)
+            map.put(key, String.valueOf(key));
+
+        assertNull(map.get(Integer.MIN_VALUE));
+        assertNull(map.remove(Integer.MIN_VALUE));
+        assertEquals(100, map.size());
+
+        try {
+            map.put(Integer.MIN_VALUE, "x");
+            fail();
+        } catch (IllegalArgumentException ignored) {
+        }
+    }
+
+    @Test
+    public void resize() {
+        for (int key = 0; key < 100_000; key++)
+            map.put(key, String.valueOf(key));
+
+        for (int key = 0; key < 100_000; key += 2)
+            map.remove(key);
+
+        for (int key = 0; key < 100_000; key++)
+            assertEquals(key % 2 == 0 ? null : String.valueOf(key), map.get(key));
+
+        assertEquals(50_000, map.size());
+    }
+
+    @Test
+    public void churn() {
+        for (int round = 0; round < 100; round++) {
+            for (int key = round * 1000; key < round * 1000 + 1000; key++)
+                map.put(key, "x");
+
+            for (int key = round * 1000; key < round * 1000 + 1000; key++)
+                map.remove(key);
+        }
+
+        assertEquals(0, map.size());
+        assertNull(map.get(500));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void putReservedKey() {
+        map.put(Integer.MIN_VALUE, "a");
+    }
+
+    @Test
+    public void concurrentPuts() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        for (int thread = 0; thread < 8; thread++) {
+            int base = thread * 10_000;
+
+            executor.submit(() -> {
+                for (int key = base; key < base + 10_000; key++) {
+                    map.put(key, "v");
+                    assertEquals("v", map.get(key));
+                }
+            });
+        }
+
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+        assertEquals(80_000, map.size());
+
+        for (int key = 0; key < 80_000; key++)
+            assertEquals("v", map.get(key));
+    }
+}
@@ -1,14 +1,33 @@
 package com.backbase.kalah.game;
 
+import com.backbase.kalah.exceptions.GameChangedException;
+import com.backbase.kalah.exceptions.InvalidMoveSequenceException;
+import com.backbase.kalah.exceptions.InvalidPlayerException;
+import com.backbase.kalah.exceptions.KalahException;
 import com.backbase.kalah.game.enums.GameStatus;
+import com.backbase.kalah.game.enums.MoveResult;
 import com.backbase.kalah.game.enums.Player;
+import com.backbase.kalah.metrics.Counter;
+import com.backbase.kalah.metrics.Metrics;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public class ControllerTest {
     private BoardEntity board;
@@ -62,4 +81,277 @@ public class ControllerTest {
         assertEquals(GameStatus.RUNNING, board.getStatus());
         assertEquals(Optional.empty(), board.getWinner());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void concurrentMoves() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        for (int i = 0; i < 8; i++) {
+            executor.submit(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    try {
+                        controller.move(ThreadLocalRandom.current().nextInt(14));
+                    } catch (KalahException ignored) {
+                    }
+                }
+            });
+        }
+
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+        assertEquals(72, controller.streamBoard().sum());
+    }
+
+    @Test
+    public void contentionCount() throws Exception {
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Controller held = new Controller(0, new BoardEntity(14, 6), new ReentrantLock(), (game, delta) -> {
+            locked.countDown();
+
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            Future<MoveDelta> holder = executor.submit(() -> held.move(0));
+            assertTrue(locked.await(10, TimeUnit.SECONDS));
+
+            long before = Controller.getContentionCount();
+            controller.move(0);
+            assertEquals(before, Controller.getContentionCount());
+
+            Future<MoveDelta> waiter = executor.submit(() -> held.move(1));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+
+            while (Controller.getContentionCount() == before && System.nanoTime() < deadline)
+                Thread.sleep(1);
+
+            assertEquals(before + 1, Controller.getContentionCount());
+            assertFalse(waiter.isDone());
+
+            release.countDown();
+            assertTrue(holder.get(10, TimeUnit.SECONDS).isAccepted());
+            assertTrue(waiter.get(10, TimeUnit.SECONDS).isAccepted());
+            assertEquals(2, held.getVersion());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void moveSequence() {
+        controller.move(new int[]{0, 1, 7});
+        assertArrayEquals(new int[]{1, 0, 8, 8, 8, 8, 2, 0, 8, 7, 7, 7, 7, 1}, controller.streamBoard().toArray());
+        assertEquals(Player.PLAYER_1, board.getNextPlayer());
+        assertEquals(3, controller.getVersion());
+    }
+
+    @Test
+    public void moveSequenceCountsFinishedGameOnce() {
+        Counter finished = Metrics.counter("kalah_games_finished_total", "Finished games by winner", "winner", Player.PLAYER_2.name());
+        long before = finished.get();
+        int[] beforeWinSituation = {0, 0, 0, 0, 0, 6, 0, 12, 12, 12, 12, 12, 12, 0};
+        System.arraycopy(beforeWinSituation, 0, board.getPits(), 0, beforeWinSituation.length);
+
+        controller.move(new int[]{5});
+        assertEquals(GameStatus.GAME_OVER, board.getStatus());
+        assertEquals(before + 1, finished.get());
+
+        controller.move(new int[0]);
+        assertEquals(before + 1, finished.get());
+    }
+
+    @Test
+    public void moveSequenceRejected() {
+        try {
+            controller.move(new int[]{0, 1, 0});
+            fail();
+        } catch (InvalidMoveSequenceException ex) {
+            assertEquals(2, ex.getMoveIndex());
+        }
+
+        assertArrayEquals(new int[]{6, 6, 6, 6, 6, 6, 0, 6, 6, 6, 6, 6, 6, 0}, controller.streamBoard().toArray());
+        assertEquals(0, controller.getVersion());
+    }
+
+    @Test
+    public void moveDelta() {
+        MoveDelta delta = controller.move(0);
+
+        assertEquals(0, delta.getPitId());
+        assertEquals(1, delta.getVersion());
+        assertEquals(7, delta.getChangeCount());
+        assertEquals(0, delta.getChangedPitId(0));
+        assertEquals(0, delta.getChangedValue(0));
+        assertEquals(6, delta.getChangedPitId(6));
+        assertEquals(1, delta.getChangedValue(6));
+        assertTrue(delta.isExtraTurn());
+        assertFalse(delta.isCapture());
+        assertEquals(Player.PLAYER_1, delta.getNextPlayer());
+
+        delta = controller.move(1);
+
+        assertFalse(delta.isExtraTurn());
+        assertEquals(Player.PLAYER_2, delta.getNextPlayer());
+        assertArrayEquals(controller.streamBoard().toArray(), controller.getState().getPits());
+    }
+
+    @Test
+    public void moveDeltaCapture() {
+        int[] pits = board.getPits();
+        int[] beforeGainSituation = {0, 0, 0, 0, 1, 8, 0, 12, 12, 12, 12, 12, 12, 0};
+        System.arraycopy(beforeGainSituation, 0, pits, 0, pits.length);
+
+        MoveDelta delta = controller.move(5);
+
+        assertTrue(delta.isCapture());
+        assertEquals(GameStatus.RUNNING, delta.getStatus());
+    }
+
+    @Test
+    public void moveDeltaMatchesBoard() {
+        SplittableRandom random = new SplittableRandom(11);
+        int[] pitCounts = {14, 14, 30, 62};
+        int[] stoneCounts = {6, 20, 3, 40};
+
+        for (int i = 0; i < pitCounts.length; i++) {
+            for (int game = 0; game < 20; game++) {
+                Controller current = new Controller(0, new BoardEntity(pitCounts[i], stoneCounts[i]));
+                Position position = current.getPosition();
+                int[] moves = new int[pitCounts[i] / 2 - 1];
+
+                while (!position.isGameOver()) {
+                    int[] before = current.streamBoard().toArray();
+                    MoveDelta delta = current.move(moves[random.nextInt(position.getLegalMoves(moves))]);
+                    int[] after = current.streamBoard().toArray();
+                    int[] expected = new int[after.length];
+                    int[] changes = new int[after.length];
+                    Arrays.fill(expected, -1);
+                    Arrays.fill(changes, -1);
+
+                    for (int pitId = 0; pitId < after.length; pitId++) {
+                        if (before[pitId] != after[pitId])
+                            expected[pitId] = after[pitId];
+                    }
+
+                    for (int j = 0; j < delta.getChangeCount(); j++) {
+                        assertTrue(j == 0 || delta.getChangedPitId(j) > delta.getChangedPitId(j - 1));
+                        assertEquals(after[delta.getChangedPitId(j)], delta.getChangedValue(j));
+                        changes[delta.getChangedPitId(j)] = delta.getChangedValue(j);
+                    }
+
+                    for (int pitId = 0; pitId < after.length; pitId++) {
+                        if (delta.getStatus() == GameStatus.GAME_OVER)
+                            assertTrue(expected[pitId] < 0 || changes[pitId] == expected[pitId]);
+                        else
+                            assertEquals(expected[pitId], changes[pitId]);
+                    }
+
+                    position = current.getPosition();
+                }
+            }
+        }
+    }
+
+    @Test
+    public void tryMoveRecordsChangesOnRequest() {
+        MoveDelta delta = controller.tryMove(0);
+
+        try {
+            delta.getChangeCount();
+            fail();
+        } catch (IllegalStateException ignored) {
+        }
+
+        assertEquals(8, controller.tryMove(1, true).getChangeCount());
+    }
+
+    @Test
+    public void listenerReadsChanges() {
+        int[] changeCount = new int[1];
+        Controller listened = new Controller(0, new BoardEntity(14, 6), new ReentrantLock(),
+                (game, delta) -> changeCount[0] = delta.getChangeCount());
+
+        listened.tryMove(0);
+
+        assertEquals(7, changeCount[0]);
+    }
+
+    @Test
+    public void tryMoveRejected() {
+        assertEquals(MoveResult.INVALID_PIT_ID, controller.tryMove(14).getResult());
+        assertEquals(MoveResult.WRONG_PLAYER, controller.tryMove(7).getResult());
+        assertEquals(MoveResult.KALAH_PIT, controller.tryMove(6).getResult());
+
+        controller.move(2);
+        int[] afterMove = board.toArray();
+        board.changeNextPlayer();
+
+        MoveDelta delta = controller.tryMove(2);
+
+        assertFalse(delta.isAccepted());
+        assertEquals(MoveResult.EMPTY_PIT, delta.getResult());
+        assertEquals("Selected pit is empty", delta.getRejectionMessage());
+        assertEquals(0, delta.getChangeCount());
+        assertEquals(1, delta.getVersion());
+        assertArrayEquals(afterMove, board.toArray());
+
+        board.gameOver();
+        assertEquals(MoveResult.GAME_OVER, controller.tryMove(0).getResult());
+    }
+
+    @Test
+    public void tryMoveAtVersion() {
+        Position position = controller.getPosition();
+        controller.move(0);
+
+        MoveDelta delta = controller.tryMoveAtVersion(1, position.getVersion());
+
+        assertEquals(MoveResult.VERSION_CONFLICT, delta.getResult());
+        assertEquals(GameChangedException.class, delta.getResult().getExceptionType());
+        assertEquals(1, controller.getVersion());
+
+        delta = controller.tryMoveAtVersion(1, controller.getPosition().getVersion());
+
+        assertTrue(delta.isAccepted());
+        assertEquals(2, controller.getVersion());
+    }
+
+    @Test
+    public void rejectedMoveHasNoStackTrace() {
+        try {
+            controller.move(7);
+            fail();
+        } catch (InvalidPlayerException ex) {
+            assertEquals(Player.PLAYER_1 + "'s turn", ex.getMessage());
+            assertEquals(0, ex.getStackTrace().length);
+        }
+    }
+
+    @Test
+    public void moveMetrics() {
+        long moves = GameMetrics.moves.get();
+        long durations = GameMetrics.moveDuration.getCount();
+
+        controller.move(0);
+        controller.tryMove(0);
+        controller.move(new int[]{1, 7});
+
+        assertEquals(moves + 3, GameMetrics.moves.get());
+        assertEquals(durations + 1, GameMetrics.moveDuration.getCount());
+
+        Metrics.setEnabled(false);
+        try {
+            controller.move(2);
+            assertEquals(moves + 3, GameMetrics.moves.get());
+        } finally {
+            Metrics.setEnabled(true);
+        }
+    }
+}
@@ -1,9 +1,16 @@
 package com.backbase.kalah.game;
 
 import com.backbase.kalah.exceptions.GameNotFoundException;
+import com.backbase.kalah.exceptions.InvalidGameCountException;
+import com.backbase.kalah.exceptions.KalahException;
+import com.backbase.kalah.game.enums.GameStatus;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
 import static org.junit.Assert.*;
 
 public class InMemoryDataAccessTest {
@@ -39,4 +46,96 @@ public class InMemoryDataAccessTest {
         assertNotNull(controller);
         assertEquals(gameId, controller.getGameId());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void evictIdleGame() {
+        InMemoryDataAccess store = new InMemoryDataAccess(1000, false);
+        store.setEviction(2000, 3000);
+
+        int gameId = store.create();
+        store.advance();
+        store.advance();
+        store.get(gameId);
+        store.advance();
+        store.advance();
+
+        assertEquals(1, store.getGameCount());
+        assertEquals(0, store.getIdleEvictionCount());
+
+        store.advance();
+
+        assertEquals(0, store.getGameCount());
+        assertEquals(1, store.getIdleEvictionCount());
+        assertEquals(0, store.getGameOverEvictionCount());
+    }
+
+    @Test
+    public void evictFinishedGame() {
+        InMemoryDataAccess store = new InMemoryDataAccess(1000, false);
+        store.setEviction(2000, 60000);
+
+        int gameId = store.create();
+        Controller controller = store.get(gameId);
+        Random random = new Random(7);
+
+        while (controller.getStatus() != GameStatus.GAME_OVER) {
+            try {
+                controller.move(random.nextInt(14));
+            } catch (KalahException ignored) {
+            }
+        }
+
+        store.advance();
+        assertEquals(1, store.getGameCount());
+
+        store.advance();
+        assertEquals(0, store.getGameCount());
+        assertEquals(1, store.getGameOverEvictionCount());
+        assertEquals(0, store.getIdleEvictionCount());
+    }
+
+    @Test
+    public void evictionDisabled() {
+        InMemoryDataAccess store = new InMemoryDataAccess(1000, false);
+        store.setEviction(0, 0);
+        store.create();
+
+        for (int i = 0; i < 2048; i++)
+            store.advance();
+
+        assertEquals(1, store.getGameCount());
+    }
+
+    @Test
+    public void createBulk() {
+        InMemoryDataAccess store = new InMemoryDataAccess(1000, false);
+
+        assertEquals(0, store.create());
+        assertEquals(1, store.create(5000));
+        assertEquals(5001, store.getGameCount());
+        assertArrayEquals(new int[]{6, 6, 6, 6, 6, 6, 0, 6, 6, 6, 6, 6, 6, 0}, store.get(5000).streamBoard().toArray());
+        assertEquals(5001, store.create());
+    }
+
+    @Test(expected = InvalidGameCountException.class)
+    public void createBulkInvalidCount() {
+        new InMemoryDataAccess(1000, false).create(0);
+    }
+
+    @Test
+    public void moveListener() {
+        InMemoryDataAccess store = new InMemoryDataAccess(1000, false);
+        List<MoveDelta> deltas = new ArrayList<>();
+        MoveListener listener = (controller, delta) -> deltas.add(delta);
+
+        store.addMoveListener(listener);
+        int gameId = store.create();
+        store.get(gameId).move(0);
+        store.removeMoveListener(listener);
+        store.get(gameId).move(1);
+
+        assertEquals(1, deltas.size());
+        assertEquals(gameId, deltas.get(0).getGameId());
+        assertEquals(1, deltas.get(0).getVersion());
+    }
+}
@@ -0,0 +1,255 @@
+package com.backbase.kalah.game;
+
+import com.backbase.kalah.exceptions.GameNotFoundException;
+import com.backbase.kalah.exceptions.KalahException;
+import com.backbase.kalah.game.enums.BoardType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class JournaledDataAccessTest {
+    private Path directory;
+    private JournaledDataAccess dataAccess;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("kalah-journal");
+        dataAccess = open(1 << 20);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        dataAccess.close();
+
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void recover() throws IOException {
+        int gameId = dataAccess.create();
+        int deletedGameId = dataAccess.create();
+
+        dataAccess.get(gameId).move(0);
+        dataAccess.get(gameId).move(1);
+        dataAccess.delete(deletedGameId);
+
+        int[] board = dataAccess.get(gameId).streamBoard().toArray();
+
+        dataAccess.close();
+        dataAccess = open(1 << 20);
+
+        assertArrayEquals(board, dataAccess.get(gameId).streamBoard().toArray());
+        assertEquals(2, dataAccess.get(gameId).getVersion());
+        assertEquals(2, dataAccess.create());
+
+        try {
+            dataAccess.get(deletedGameId);
+            fail();
+        } catch (GameNotFoundException ignored) {
+        }
+    }
+
+    @Test
+    public void recoverBulk() throws IOException {
+        int first = dataAccess.create(3000);
+        dataAccess.get(first + 2999).move(0);
+        dataAccess.close();
+        dataAccess = open(1 << 20);
+
+        assertEquals(first + 3000, dataAccess.create());
+        assertEquals(1, dataAccess.get(first + 2999).getVersion());
+        assertEquals(0, dataAccess.get(first).getVersion());
+    }
+
+    @Test
+    public void recoverFromSnapshot() throws IOException {
+        dataAccess.close();
+        dataAccess = open(MoveJournal.RECORD_SIZE * 4);
+
+        int gameId = dataAccess.create();
+        int[] pits = {0, 1, 7, 2, 8};
+
+        for (int pitId : pits)
+            dataAccess.get(gameId).move(pitId);
+
+        int[] board = dataAccess.get(gameId).streamBoard().toArray();
+
+        dataAccess.close();
+
+        try (Stream<Path> paths = Files.list(directory)) {
+            assertTrue(paths.anyMatch(path -> path.getFileName().toString().startsWith("snapshot-")));
+        }
+
+        dataAccess = open(MoveJournal.RECORD_SIZE * 4);
+
+        assertArrayEquals(board, dataAccess.get(gameId).streamBoard().toArray());
+        assertEquals(pits.length, dataAccess.get(gameId).getVersion());
+    }
+
+    @Test
+    public void truncatedSnapshotIsRejected() throws IOException {
+        Path snapshot = writeSnapshot();
+        byte[] bytes = Files.readAllBytes(snapshot);
+        Files.write(snapshot, Arrays.copyOf(bytes, bytes.length - 4));
+
+        try {
+            open(MoveJournal.RECORD_SIZE * 4);
+            fail();
+        } catch (UncheckedIOException ignored) {
+        }
+    }
+
+    @Test
+    public void corruptSnapshotIsRejected() throws IOException {
+        Path snapshot = writeSnapshot();
+        byte[] bytes = Files.readAllBytes(snapshot);
+        bytes[11] ^= 0x01;
+        Files.write(snapshot, bytes);
+
+        try {
+            open(MoveJournal.RECORD_SIZE * 4);
+            fail();
+        } catch (UncheckedIOException ex) {
+            assertTrue(ex.getMessage().contains("checksum"));
+        }
+    }
+
+    @Test
+    public void recoverIgnoresTornRecord() throws IOException {
+        int gameId = dataAccess.create();
+        dataAccess.get(gameId).move(0);
+        dataAccess.close();
+
+        try (Stream<Path> paths = Files.list(directory)) {
+            Path segment = paths.filter(path -> path.getFileName().toString().startsWith("segment-")).sorted().findFirst().get();
+            byte[] bytes = Files.readAllBytes(segment);
+            bytes[MoveJournal.RECORD_SIZE + 4] ^= 0x7F;
+            Files.write(segment, bytes);
+        }
+
+        dataAccess = open(1 << 20);
+        assertEquals(0, dataAccess.get(gameId).getVersion());
+    }
+
+    @Test
+    public void periodicSnapshot() throws IOException, InterruptedException {
+        dataAccess.close();
+        dataAccess = new JournaledDataAccess(directory, BoardType.STANDARD, 1 << 20, 10, 20, 2);
+
+        int gameId = dataAccess.create();
+        dataAccess.get(gameId).move(0);
+
+        for (int i = 0; i < 250 && !hasFile("snapshot-"); i++)
+            Thread.sleep(20);
+
+        assertTrue(hasFile("snapshot-"));
+
+        dataAccess.close();
+        dataAccess = open(1 << 20);
+
+        assertEquals(1, dataAccess.get(gameId).getVersion());
+    }
+
+    @Test
+    public void recoverPartitions() throws IOException {
+        int[] gameIds = new int[64];
+        int[][] boards = new int[gameIds.length][];
+
+        for (int i = 0; i < gameIds.length; i++) {
+            gameIds[i] = dataAccess.create();
+
+            for (int pitId = 0; pitId < i % 6; pitId++) {
+                try {
+                    dataAccess.get(gameIds[i]).move(pitId);
+                } catch (KalahException ignored) {
+                }
+            }
+        }
+
+        for (int i = 0; i < gameIds.length; i++)
+            boards[i] = dataAccess.get(gameIds[i]).streamBoard().toArray();
+
+        dataAccess.close();
+        dataAccess = new JournaledDataAccess(directory, BoardType.STANDARD, 1 << 20, 10, 0, 4);
+
+        for (int i = 0; i < gameIds.length; i++)
+            assertArrayEquals(boards[i], dataAccess.get(gameIds[i]).streamBoard().toArray());
+    }
+
+    @Test
+    public void moveAfterCloseIsRejected() throws IOException {
+        dataAccess.close();
+        dataAccess = open(MoveJournal.RECORD_SIZE * 2);
+
+        int gameId = dataAccess.create();
+        dataAccess.get(gameId).move(0);
+        dataAccess.close();
+        long segments = countFiles("segment-");
+
+        try {
+            dataAccess.get(gameId).move(1);
+            fail();
+        } catch (IllegalStateException ignored) {
+        }
+
+        try {
+            dataAccess.create();
+            fail();
+        } catch (IllegalStateException ignored) {
+        }
+
+        assertEquals(segments, countFiles("segment-"));
+
+        dataAccess = open(1 << 20);
+
+        assertEquals(1, dataAccess.get(gameId).getVersion());
+        assertEquals(1, dataAccess.create());
+    }
+
+    /**
+     * @return the snapshot written by a closed store whose moves filled several segments
+     */
+    private Path writeSnapshot() throws IOException {
+        dataAccess.close();
+        dataAccess = open(MoveJournal.RECORD_SIZE * 4);
+
+        int gameId = dataAccess.create();
+
+        for (int pitId : new int[]{0, 1, 7, 2, 8})
+            dataAccess.get(gameId).move(pitId);
+
+        dataAccess.close();
+
+        try (Stream<Path> paths = Files.list(directory)) {
+            return paths.filter(path -> path.getFileName().toString().endsWith(".bin")).findFirst().get();
+        }
+    }
+
+    private long countFiles(final String prefix) throws IOException {
+        try (Stream<Path> paths = Files.list(directory)) {
+            return paths.filter(path -> path.getFileName().toString().startsWith(prefix)).count();
+        }
+    }
+
+    private boolean hasFile(final String prefix) throws IOException {
+        try (Stream<Path> paths = Files.list(directory)) {
+            return paths.anyMatch(path -> path.getFileName().toString().startsWith(prefix));
+        }
+    }
+
+    private JournaledDataAccess open(final int segmentSize) {
+        return new JournaledDataAccess(directory, BoardType.STANDARD, segmentSize, 10, 0, 2);
+    }
+}
@@ -0,0 +1,128 @@
+package com.backbase.kalah.game;
+
+import com.backbase.kalah.exceptions.GameNotFoundException;
+import com.backbase.kalah.exceptions.KalahException;
+import com.backbase.kalah.game.enums.GameStatus;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class OffHeapDataAccessTest {
+    private OffHeapDataAccess dataAccess;
+
+    @Before
+    public void setUp() {
+        dataAccess = new OffHeapDataAccess(4);
+    }
+
+    @Test
+    public void create() {
+        assertEquals(0, dataAccess.create());
+        assertEquals(1, dataAccess.create());
+        assertArrayEquals(new int[]{6, 6, 6, 6, 6, 6, 0, 6, 6, 6, 6, 6, 6, 0}, dataAccess.get(1).streamBoard().toArray());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void createFull() {
+        for (int i = 0; i < 5; i++)
+            dataAccess.create();
+    }
+
+    @Test
+    public void move() {
+        int gameId = dataAccess.create();
+        dataAccess.get(gameId).move(0);
+
+        assertArrayEquals(new int[]{0, 7, 7, 7, 7, 7, 1, 6, 6, 6, 6, 6, 6, 0}, dataAccess.get(gameId).streamBoard().toArray());
+    }
+
+    @Test
+    public void sameGameAsBoardEntity() {
+        Random random = new Random(7);
+        BoardEntity standard = new BoardEntity(14, 6);
+        Controller standardController = new Controller(0, standard);
+        int gameId = dataAccess.create();
+
+        while (standard.getStatus() == GameStatus.RUNNING) {
+            int pitId = random.nextInt(14);
+
+            try {
+                standardController.move(pitId);
+            } catch (KalahException ex) {
+                continue;
+            }
+
+            dataAccess.get(gameId).move(pitId);
+            assertArrayEquals(standard.getPits(), dataAccess.get(gameId).streamBoard().toArray());
+        }
+
+        try {
+            dataAccess.get(gameId).move(0);
+            fail();
+        } catch (KalahException ignored) {
+        }
+    }
+
+    @Test
+    public void deleteReusesSlot() {
+        int gameId = dataAccess.create();
+        Controller stale = dataAccess.get(gameId);
+
+        dataAccess.delete(gameId);
+        dataAccess.delete(gameId);
+
+        int newGameId = dataAccess.create();
+        assertNotEquals(gameId, newGameId);
+        assertEquals(gameId, newGameId % 4);
+
+        try {
+            dataAccess.get(gameId);
+            fail();
+        } catch (GameNotFoundException ignored) {
+        }
+
+        try {
+            stale.move(0);
+            fail();
+        } catch (GameNotFoundException ignored) {
+        }
+
+        assertEquals(newGameId, dataAccess.get(newGameId).getGameId());
+    }
+
+    @Test(expected = GameNotFoundException.class)
+    public void getInvalid() {
+        dataAccess.get(0);
+    }
+
+    @Test
+    public void getReservedBytes() {
+        assertEquals(0, dataAccess.getReservedBytes());
+        dataAccess.create();
+        assertEquals(4 * OffHeapBoardEntity.slotSize(14), dataAccess.getReservedBytes());
+    }
+
+    @Test
+    public void createBulk() {
+        dataAccess.create();
+        assertEquals(1, dataAccess.create(3));
+        assertArrayEquals(new int[]{6, 6, 6, 6, 6, 6, 0, 6, 6, 6, 6, 6, 6, 0}, dataAccess.get(3).streamBoard().toArray());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void createBulkFull() {
+        dataAccess.create(5);
+    }
+
+    @Test
+    public void createBulkLarge() {
+        OffHeapDataAccess store = new OffHeapDataAccess(200000);
+
+        assertEquals(0, store.create(150000));
+        assertEquals(149999, store.get(149999).getGameId());
+        assertEquals(150000, store.create());
+    }
+}
@@ -0,0 +1,103 @@
+package com.backbase.kalah.game;
+
+import com.backbase.kalah.exceptions.InvalidPitIdException;
+import com.backbase.kalah.exceptions.InvalidStoneCountException;
+import com.backbase.kalah.exceptions.KalahException;
+import com.backbase.kalah.game.enums.GameStatus;
+import com.backbase.kalah.game.enums.KalahType;
+import com.backbase.kalah.game.enums.Player;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class PackedBoardEntityTest {
+    private PackedBoardEntity board;
+
+    @Before
+    public void setUp() {
+        board = new PackedBoardEntity(14, 6);
+    }
+
+    @Test
+    public void testBoard() {
+        assertArrayEquals(new int[]{6, 6, 6, 6, 6, 6, 0, 6, 6, 6, 6, 6, 6, 0}, board.toArray());
+        assertArrayEquals(new int[]{2, 2, 0, 2, 2, 0}, new PackedBoardEntity(6, 2).toArray());
+    }
+
+    @Test(expected = InvalidStoneCountException.class)
+    public void testBoardTooManyStones() {
+        new PackedBoardEntity(14, 22);
+    }
+
+    @Test
+    public void move() {
+        assertEquals(6, board.move(0));
+        assertEquals(Player.PLAYER_1, board.getNextPlayer());
+        assertArrayEquals(new int[]{0, 7, 7, 7, 7, 7, 1, 6, 6, 6, 6, 6, 6, 0}, board.toArray());
+
+        assertEquals(8, board.move(1));
+        board.changeNextPlayer();
+        assertEquals(Player.PLAYER_2, board.getNextPlayer());
+        assertArrayEquals(new int[]{0, 0, 8, 8, 8, 8, 2, 7, 7, 6, 6, 6, 6, 0}, board.toArray());
+    }
+
+    @Test(expected = InvalidPitIdException.class)
+    public void moveEmptyPit() {
+        board.move(0);
+        board.move(0);
+    }
+
+    @Test
+    public void moveStonesToKalah() {
+        board.moveStonesToKalah(0, KalahType.PLAYER_2_KALAH);
+        assertEquals(0, board.getPitValue(0));
+        assertEquals(6, board.getPitValue(13));
+    }
+
+    @Test
+    public void flags() {
+        assertEquals(GameStatus.RUNNING, board.getStatus());
+        assertEquals(Optional.empty(), board.getWinner());
+
+        board.changeNextPlayer();
+        board.setWinner(Player.PLAYER_2);
+        board.gameOver();
+
+        assertEquals(Player.PLAYER_2, board.getNextPlayer());
+        assertEquals(Optional.of(Player.PLAYER_2), board.getWinner());
+        assertEquals(GameStatus.GAME_OVER, board.getStatus());
+
+        board.setWinner(Player.PLAYER_1);
+        assertEquals(Optional.of(Player.PLAYER_1), board.getWinner());
+        assertEquals(Player.PLAYER_2, board.getNextPlayer());
+    }
+
+    @Test
+    public void sameGameAsBoardEntity() {
+        Random random = new Random(42);
+        BoardEntity standard = new BoardEntity(14, 6);
+        Controller standardController = new Controller(0, standard);
+        Controller packedController = new Controller(1, board);
+
+        while (standard.getStatus() == GameStatus.RUNNING) {
+            int pitId = random.nextInt(14);
+
+            try {
+                standardController.move(pitId);
+            } catch (KalahException ex) {
+                continue;
+            }
+
+            packedController.move(pitId);
+            assertArrayEquals(standard.getPits(), board.toArray());
+            assertEquals(standard.getNextPlayer(), board.getNextPlayer());
+        }
+
+        assertEquals(GameStatus.GAME_OVER, board.getStatus());
+        assertEquals(standard.getWinner(), board.getWinner());
+    }
+}
@@ -0,0 +1,86 @@
+package com.backbase.kalah.game;
+
+import com.backbase.kalah.exceptions.InvalidPlayerException;
+import com.backbase.kalah.game.enums.BoardType;
+import com.backbase.kalah.game.enums.GameStatus;
+import org.junit.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PositionTest {
+    @Test
+    public void playMatchesController() {
+        SplittableRandom random = new SplittableRandom(7);
+        int[][] sizes = {{6, 4}, {14, 6}, {14, 40}, {30, 3}};
+
+        for (int[] size : sizes) {
+            for (int game = 0; game < 50; game++) {
+                Board board = Board.create(BoardType.STANDARD, size[0], size[1]);
+                Controller controller = new Controller(0, board);
+                Position position = controller.getPosition();
+                int[] moves = new int[size[0]];
+
+                while (board.getStatus() != GameStatus.GAME_OVER) {
+                    int count = position.getLegalMoves(moves);
+                    int pitId = moves[random.nextInt(count)];
+
+                    boolean extraTurn = position.isExtraTurn(pitId);
+                    MoveDelta delta = controller.move(pitId);
+                    position = position.play(pitId);
+
+                    assertArrayEquals(board.toArray(), toArray(position));
+                    assertEquals(board.getNextPlayer(), position.getNextPlayer());
+                    assertEquals(board.getStatus() == GameStatus.GAME_OVER, position.isGameOver());
+                    assertEquals(Position.hash(board), position.getHash());
+
+                    if (!position.isGameOver())
+                        assertEquals(delta.isExtraTurn(), extraTurn);
+                }
+
+                assertEquals(0, position.getLegalMoves(moves));
+            }
+        }
+    }
+
+    @Test
+    public void playDoesNotChangeGame() {
+        Controller controller = new Controller(0, new BoardEntity(14, 6));
+        Position position = controller.getPosition();
+
+        Position next = position.play(2);
+
+        assertEquals(6, position.getPitValue(2));
+        assertEquals(0, next.getPitValue(2));
+        assertEquals(0, controller.getVersion());
+        assertNotEquals(position.getHash(), next.getHash());
+    }
+
+    @Test(expected = InvalidPlayerException.class)
+    public void playWrongPlayer() {
+        new Controller(0, new BoardEntity(14, 6)).getPosition().play(7);
+    }
+
+    @Test
+    public void extraTurn() {
+        Position position = new Controller(0, new BoardEntity(14, 6)).getPosition();
+
+        assertTrue(position.isExtraTurn(0));
+        assertFalse(position.isExtraTurn(1));
+        assertEquals(1, position.play(0).getKalahValue(position.getNextPlayer()));
+    }
+
+    private static int[] toArray(final Position position) {
+        int[] pits = new int[position.getPitCount()];
+
+        for (int pitId = 0; pitId < pits.length; pitId++)
+            pits[pitId] = position.getPitValue(pitId);
+
+        return pits;
+    }
+}
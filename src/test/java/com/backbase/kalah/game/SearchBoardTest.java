@@ -0,0 +1,165 @@
+package com.backbase.kalah.game;
+
+import com.backbase.kalah.exceptions.GameOverException;
+import com.backbase.kalah.exceptions.InvalidPitIdException;
+import com.backbase.kalah.exceptions.InvalidPlayerException;
+import com.backbase.kalah.game.enums.Player;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SearchBoardTest {
+    @Test
+    public void makeAndUnmakeMatchPosition() {
+        SplittableRandom random = new SplittableRandom(11);
+        int[][] sizes = {{6, 4}, {14, 6}, {14, 40}, {30, 3}};
+
+        for (int[] size : sizes) {
+            for (int game = 0; game < 50; game++) {
+                Position position = new Controller(0, new BoardEntity(size[0], size[1])).getPosition();
+                SearchBoard board = new SearchBoard(position, 1000);
+                List<Position> history = new ArrayList<>();
+                int[] moves = new int[size[0]];
+
+                while (!position.isGameOver()) {
+                    history.add(position);
+
+                    int pitId = moves[random.nextInt(position.getLegalMoves(moves))];
+                    assertEquals(position.isExtraTurn(pitId), board.isExtraTurn(pitId));
+
+                    position = position.play(pitId);
+                    board.makeMove(pitId);
+
+                    assertSame(position, board);
+                }
+
+                assertEquals(0, board.getLegalMoves(moves));
+
+                for (int ply = history.size() - 1; ply >= 0; ply--) {
+                    board.unmakeMove();
+                    assertSame(history.get(ply), board);
+                    assertEquals(ply, board.getPly());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void perftMatchesPosition() {
+        Position position = new Controller(0, new BoardEntity(14, 6)).getPosition();
+        SearchBoard board = new SearchBoard(position, 8);
+
+        assertEquals(perft(position, 6), perft(board, 6));
+        assertSame(position, board);
+    }
+
+    @Test
+    public void capture() {
+        BoardEntity entity = new BoardEntity(14, 6);
+        System.arraycopy(new int[]{1, 0, 6, 6, 6, 6, 0, 6, 6, 6, 6, 6, 6, 0}, 0, entity.getPits(), 0, 14);
+        SearchBoard board = new SearchBoard(new Controller(0, entity).getPosition(), 4);
+
+        board.makeMove(0);
+
+        assertEquals(7, board.getKalahValue(Player.PLAYER_1));
+        assertEquals(0, board.getPitValue(11));
+        assertEquals(Player.PLAYER_2, board.getNextPlayer());
+
+        board.unmakeMove();
+
+        assertEquals(1, board.getPitValue(0));
+        assertEquals(0, board.getPitValue(1));
+        assertEquals(6, board.getPitValue(11));
+        assertEquals(0, board.getKalahValue(Player.PLAYER_1));
+    }
+
+    @Test(expected = InvalidPlayerException.class)
+    public void makeMoveWrongPlayer() {
+        new SearchBoard(new Controller(0, new BoardEntity(14, 6)).getPosition(), 4).makeMove(7);
+    }
+
+    @Test(expected = InvalidPitIdException.class)
+    public void makeMoveKalah() {
+        new SearchBoard(new Controller(0, new BoardEntity(14, 6)).getPosition(), 4).makeMove(6);
+    }
+
+    @Test(expected = GameOverException.class)
+    public void makeMoveGameOver() {
+        BoardEntity entity = new BoardEntity(14, 6);
+        System.arraycopy(new int[]{0, 0, 0, 0, 0, 1, 30, 6, 6, 6, 6, 6, 6, 5}, 0, entity.getPits(), 0, 14);
+        SearchBoard board = new SearchBoard(new Controller(0, entity).getPosition(), 4);
+
+        board.makeMove(5);
+        assertTrue(board.isGameOver());
+
+        board.makeMove(7);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void unmakeWithoutMove() {
+        new SearchBoard(new Controller(0, new BoardEntity(14, 6)).getPosition(), 4).unmakeMove();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void capacity() {
+        SearchBoard board = new SearchBoard(new Controller(0, new BoardEntity(14, 6)).getPosition(), 1);
+
+        board.makeMove(0);
+        assertFalse(board.isGameOver());
+
+        board.makeMove(1);
+    }
+
+    private static void assertSame(final Position position, final SearchBoard board) {
+        int[] expected = new int[position.getPitCount()];
+        int[] actual = new int[board.getPitCount()];
+
+        for (int pitId = 0; pitId < expected.length; pitId++) {
+            expected[pitId] = position.getPitValue(pitId);
+            actual[pitId] = board.getPitValue(pitId);
+        }
+
+        assertArrayEquals(expected, actual);
+        assertEquals(position.getNextPlayer(), board.getNextPlayer());
+        assertEquals(position.isGameOver(), board.isGameOver());
+        assertEquals(position.getHash(), board.getHash());
+    }
+
+    private static long perft(final Position position, final int depth) {
+        if (depth == 0 || position.isGameOver())
+            return 1;
+
+        int[] moves = new int[position.getPitCount()];
+        int count = position.getLegalMoves(moves);
+        long nodes = 0;
+
+        for (int i = 0; i < count; i++)
+            nodes += perft(position.play(moves[i]), depth - 1);
+
+        return nodes;
+    }
+
+    private static long perft(final SearchBoard board, final int depth) {
+        if (depth == 0 || board.isGameOver())
+            return 1;
+
+        int[] moves = new int[board.getPitCount()];
+        int count = board.getLegalMoves(moves);
+        long nodes = 0;
+
+        for (int i = 0; i < count; i++) {
+            board.makeMove(moves[i]);
+            nodes += perft(board, depth - 1);
+            board.unmakeMove();
+        }
+
+        return nodes;
+    }
+}
@@ -0,0 +1,70 @@
+package com.backbase.kalah.metrics;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class MetricsTest {
+    @Test
+    public void counter() throws IOException {
+        Counter counter = Metrics.counter("test_counter_total", "Test counter", "kind", "a");
+        counter.increment();
+        counter.add(2);
+
+        assertSame(counter, Metrics.counter("test_counter_total", "Test counter", "kind", "a"));
+        assertEquals(3, counter.get());
+
+        String scrape = scrape();
+
+        assertTrue(scrape.contains("# HELP test_counter_total Test counter\n# TYPE test_counter_total counter\n"));
+        assertTrue(scrape.contains("test_counter_total{kind=\"a\"} 3\n"));
+    }
+
+    @Test
+    public void timer() throws IOException {
+        Timer timer = Metrics.timer("test_duration_seconds", "Test timer");
+
+        for (int i = 1; i <= 100; i++)
+            timer.record(i * 1000000L);
+
+        assertEquals(100, timer.getCount());
+        assertEquals(50000000L, timer.getValueAtPercentile(50), 50000);
+
+        String scrape = scrape();
+
+        assertTrue(scrape.contains("# TYPE test_duration_seconds summary\n"));
+        assertTrue(scrape.contains("test_duration_seconds{quantile=\"0.99\"} 0.099"));
+        assertTrue(scrape.contains("test_duration_seconds_count 100\n"));
+        assertTrue(scrape.contains("test_duration_seconds_sum 5.05\n"));
+    }
+
+    @Test
+    public void gaugeIsReplaced() throws IOException {
+        AtomicLong value = new AtomicLong(7);
+
+        Metrics.gauge("test_gauge", "Test gauge", () -> 1);
+        Metrics.gauge("test_gauge", "Test gauge", value::get);
+
+        assertTrue(scrape().contains("test_gauge 7\n"));
+
+        value.set(9);
+        assertTrue(scrape().contains("test_gauge 9\n"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void typeMismatch() {
+        Metrics.counter("test_mismatch", "Test");
+        Metrics.timer("test_mismatch", "Test");
+    }
+
+    private static String scrape() throws IOException {
+        StringBuilder out = new StringBuilder();
+        Metrics.scrape(out);
+        return out.toString();
+    }
+}
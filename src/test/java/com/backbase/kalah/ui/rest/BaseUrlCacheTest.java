@@ -0,0 +1,46 @@
+package com.backbase.kalah.ui.rest;
+
+import org.junit.Test;
+
+import javax.servlet.http.HttpServletRequest;
+import java.lang.reflect.Proxy;
+
+import static org.junit.Assert.assertEquals;
+
+public class BaseUrlCacheTest {
+    private final BaseUrlCache baseUrls = new BaseUrlCache();
+
+    @Test
+    public void bulkTemplate() {
+        HttpServletRequest request = request("/kalah", "/games/bulk");
+
+        assertEquals("http://localhost:8080/kalah/games/{id}", baseUrls.getTemplate(request));
+    }
+
+    @Test
+    public void gameUrlIgnoresRequestPath() {
+        assertEquals("http://localhost:8080/games/5", baseUrls.get(request("", "/games"), 5));
+        assertEquals("http://localhost:8080/games/5", baseUrls.get(request("", "/games/5/pits/3"), 5));
+        assertEquals("http://localhost:8080/kalah/games/5", baseUrls.get(request("/kalah", "/games/5/ai-moves"), 5));
+    }
+
+    private static HttpServletRequest request(final String contextPath, final String servletPath) {
+        return (HttpServletRequest) Proxy.newProxyInstance(BaseUrlCacheTest.class.getClassLoader(),
+                new Class<?>[]{HttpServletRequest.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getScheme":
+                            return "http";
+                        case "getServerName":
+                            return "localhost";
+                        case "getServerPort":
+                            return 8080;
+                        case "getContextPath":
+                            return contextPath;
+                        case "getServletPath":
+                            return servletPath;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+}
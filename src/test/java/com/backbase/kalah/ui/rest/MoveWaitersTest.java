@@ -0,0 +1,151 @@
+package com.backbase.kalah.ui.rest;
+
+import com.backbase.kalah.game.Controller;
+import com.backbase.kalah.game.DataAccess;
+import com.backbase.kalah.game.GameState;
+import com.backbase.kalah.game.OffHeapDataAccess;
+import com.backbase.kalah.game.Position;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MoveWaitersTest {
+    private MoveWaiters waiters;
+    private DataAccess dataAccess;
+    private int gameId;
+    private Controller controller;
+
+    @Before
+    public void setUp() {
+        waiters = new MoveWaiters();
+        dataAccess = new OffHeapDataAccess(16);
+        dataAccess.addMoveListener(waiters);
+        gameId = dataAccess.create();
+        controller = dataAccess.get(gameId);
+    }
+
+    @Test
+    public void completesOnlyOlderVersions() {
+        List<GameState> current = new ArrayList<>();
+        List<GameState> ahead = new ArrayList<>();
+
+        waiters.add(gameId, 0, current::add);
+        waiters.add(gameId, 1, ahead::add);
+        controller.move(0);
+
+        assertEquals(1, current.size());
+        assertEquals(1, current.get(0).getVersion());
+        assertEquals(0, ahead.size());
+        assertEquals(1, waiters.size());
+
+        controller.move(1);
+
+        assertEquals(1, current.size());
+        assertEquals(1, ahead.size());
+        assertEquals(2, ahead.get(0).getVersion());
+        assertEquals(0, waiters.size());
+    }
+
+    @Test
+    public void ignoresOtherGames() {
+        AtomicInteger calls = new AtomicInteger();
+
+        waiters.add(gameId, 0, state -> calls.incrementAndGet());
+        dataAccess.get(dataAccess.create()).move(0);
+
+        assertEquals(0, calls.get());
+        assertEquals(1, waiters.size());
+    }
+
+    @Test
+    public void removedOnTimeout() {
+        AtomicInteger calls = new AtomicInteger();
+        Runnable remove = waiters.add(gameId, 0, state -> calls.incrementAndGet());
+
+        remove.run();
+        assertEquals(0, waiters.size());
+
+        controller.move(0);
+        remove.run();
+
+        assertEquals(0, calls.get());
+        assertEquals(0, waiters.size());
+    }
+
+    @Test
+    public void waitersAddedDuringMovesAreNotLost() throws Exception {
+        int waiterCount = 3000;
+        int[] versions = new int[waiterCount];
+        AtomicIntegerArray calls = new AtomicIntegerArray(waiterCount);
+        AtomicInteger wrongVersions = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> tasks = new ArrayList<>();
+
+        try {
+            tasks.add(executor.submit(() -> {
+                int[] moves = new int[6];
+
+                for (Position position = controller.getPosition(); !position.isGameOver(); position = controller.getPosition()) {
+                    controller.tryMove(moves[position.getLegalMoves(moves) - 1]);
+                    Thread.yield();
+                }
+            }));
+
+            for (int thread = 0; thread < 3; thread++) {
+                int first = thread;
+
+                tasks.add(executor.submit(() -> {
+                    for (int id = first; id < waiterCount; id += 3) {
+                        int waiter = id;
+                        int version = controller.getVersion();
+                        versions[waiter] = version;
+
+                        Runnable remove = waiters.add(gameId, version, state -> {
+                            if (state.getVersion() <= version)
+                                wrongVersions.incrementAndGet();
+
+                            calls.incrementAndGet(waiter);
+                        });
+
+                        // Same check as the long-poll endpoint, a move may have happened before the waiter was added
+                        if (controller.getVersion() > version) {
+                            remove.run();
+                            calls.incrementAndGet(waiter);
+                        }
+                    }
+                }));
+            }
+
+            for (Future<?> task : tasks)
+                task.get(1, TimeUnit.MINUTES);
+        } finally {
+            executor.shutdown();
+        }
+
+        int pending = 0;
+
+        for (int id = 0; id < waiterCount; id++) {
+            assertTrue(calls.get(id) <= 2);
+
+            // A waiter is only left if no move happened after its version
+            if (calls.get(id) == 0) {
+                assertEquals(controller.getVersion(), versions[id]);
+                pending++;
+            }
+        }
+
+        assertEquals(0, wrongVersions.get());
+        assertEquals(pending, waiters.size());
+    }
+}
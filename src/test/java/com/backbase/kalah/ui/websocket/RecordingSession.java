@@ -0,0 +1,82 @@
+package com.backbase.kalah.ui.websocket;
+
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * WebSocketSession of the tests, records sent messages and the close status
+ */
+final class RecordingSession {
+    private final String id;
+    private final WebSocketSession session;
+    private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+    private final List<String> messages = new CopyOnWriteArrayList<>();
+    private volatile CloseStatus closeStatus;
+    private volatile int failures;
+
+    RecordingSession(final String id) {
+        this.id = id;
+        this.session = (WebSocketSession) Proxy.newProxyInstance(RecordingSession.class.getClassLoader(),
+                new Class<?>[]{WebSocketSession.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getId":
+                            return id;
+                        case "getAttributes":
+                            return attributes;
+                        case "isOpen":
+                            return closeStatus == null;
+                        case "sendMessage":
+                            if (failures > 0) {
+                                failures--;
+                                throw new IOException("Send failed");
+                            }
+
+                            messages.add(((TextMessage) args[0]).getPayload());
+                            return null;
+                        case "close":
+                            closeStatus = args == null ? CloseStatus.NORMAL : (CloseStatus) args[0];
+                            return null;
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        case "toString":
+                            return "RecordingSession " + id;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    WebSocketSession getSession() {
+        return session;
+    }
+
+    List<String> getMessages() {
+        return messages;
+    }
+
+    CloseStatus getCloseStatus() {
+        return closeStatus;
+    }
+
+    /**
+     * @param failures number of the next sends that fail
+     */
+    void failSends(final int failures) {
+        this.failures = failures;
+    }
+
+    @Override
+    public String toString() {
+        return "RecordingSession " + id;
+    }
+}
@@ -0,0 +1,102 @@
+package com.backbase.kalah.ui.websocket;
+
+import org.junit.Test;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SessionSenderTest {
+    @Test
+    public void sendsInOrder() throws InterruptedException {
+        RecordingSession session = new RecordingSession("ordered");
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        SessionSender sender = new SessionSender(session.getSession(), executor, 100_000);
+        List<String> expected = new ArrayList<>();
+
+        for (int i = 0; i < 10_000; i++) {
+            expected.add(String.valueOf(i));
+            sender.send(new TextMessage(String.valueOf(i)));
+        }
+
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+
+        assertEquals(expected, session.getMessages());
+        assertNull(session.getCloseStatus());
+    }
+
+    @Test
+    public void sendsWithoutCallingThread() {
+        RecordingSession session = new RecordingSession("queued");
+        List<Runnable> tasks = new ArrayList<>();
+        SessionSender sender = new SessionSender(session.getSession(), tasks::add, 10);
+
+        sender.send(new TextMessage("a"));
+        sender.send(new TextMessage("b"));
+
+        assertEquals(0, session.getMessages().size());
+        assertEquals(1, tasks.size());
+
+        tasks.remove(0).run();
+
+        assertEquals(2, session.getMessages().size());
+        assertTrue(tasks.isEmpty());
+    }
+
+    @Test
+    public void overflowClosesSession() {
+        RecordingSession session = new RecordingSession("slow");
+        List<Runnable> tasks = new ArrayList<>();
+        SessionSender sender = new SessionSender(session.getSession(), tasks::add, 3);
+
+        for (int i = 0; i < 4; i++)
+            sender.send(new TextMessage(String.valueOf(i)));
+
+        sender.send(new TextMessage("dropped"));
+
+        while (!tasks.isEmpty())
+            tasks.remove(0).run();
+
+        assertEquals(CloseStatus.SESSION_NOT_RELIABLE, session.getCloseStatus());
+        assertTrue(session.getMessages().isEmpty());
+    }
+
+    @Test
+    public void failedSendDoesNotStopQueue() {
+        RecordingSession session = new RecordingSession("failing");
+        List<Runnable> tasks = new ArrayList<>();
+        SessionSender sender = new SessionSender(session.getSession(), tasks::add, 10);
+
+        session.failSends(1);
+        sender.send(new TextMessage("lost"));
+        sender.send(new TextMessage("sent"));
+        tasks.remove(0).run();
+
+        assertEquals(1, session.getMessages().size());
+        assertEquals("sent", session.getMessages().get(0));
+        assertNull(session.getCloseStatus());
+    }
+
+    @Test
+    public void rejectedExecutionIsIgnored() {
+        RecordingSession session = new RecordingSession("stopped");
+        SessionSender sender = new SessionSender(session.getSession(), task -> {
+            throw new RejectedExecutionException();
+        }, 10);
+
+        sender.send(new TextMessage("a"));
+        sender.send(new TextMessage("b"));
+
+        assertTrue(session.getMessages().isEmpty());
+    }
+}
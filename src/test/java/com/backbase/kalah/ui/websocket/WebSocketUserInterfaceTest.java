@@ -0,0 +1,188 @@
+package com.backbase.kalah.ui.websocket;
+
+import com.backbase.kalah.game.Controller;
+import com.backbase.kalah.game.DataAccess;
+import com.backbase.kalah.game.OffHeapDataAccess;
+import com.backbase.kalah.game.Position;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class WebSocketUserInterfaceTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private DataAccess dataAccess;
+    private WebSocketUserInterface handler;
+
+    @Before
+    public void setUp() throws ReflectiveOperationException {
+        dataAccess = new OffHeapDataAccess(64);
+        handler = new WebSocketUserInterface();
+
+        set("dataAccess", dataAccess);
+        set("objectMapper", objectMapper);
+        set("sendTimeLimit", 5000);
+        set("bufferSizeLimit", 65536);
+        set("senderThreads", 2);
+        set("queueLimit", 1024);
+
+        handler.register();
+    }
+
+    @After
+    public void tearDown() {
+        handler.unregister();
+    }
+
+    @Test
+    public void subscribeDuringMoves() throws Exception {
+        for (int round = 0; round < 50; round++) {
+            int gameId = dataAccess.create();
+            Controller controller = dataAccess.get(gameId);
+            RecordingSession session = new RecordingSession("subscriber-" + round);
+            handler.afterConnectionEstablished(session.getSession());
+
+            Thread mover = new Thread(() -> {
+                int[] moves = new int[6];
+
+                for (Position position = controller.getPosition(); !position.isGameOver(); position = controller.getPosition()) {
+                    controller.tryMove(moves[position.getLegalMoves(moves) - 1]);
+                    Thread.yield();
+                }
+            });
+
+            mover.start();
+
+            while (controller.getVersion() < round % 8 && mover.isAlive())
+                Thread.yield();
+
+            handler.handleTextMessage(session.getSession(), request("subscribe", gameId, 0));
+            mover.join(TimeUnit.MINUTES.toMillis(1));
+
+            List<JsonNode> messages = awaitVersion(session, controller.getVersion());
+            JsonNode board = messages.get(0);
+            int[] pits = objectMapper.convertValue(board.get("pits"), int[].class);
+
+            assertEquals("board", board.get("type").asText());
+
+            for (int i = 1; i < messages.size(); i++) {
+                JsonNode delta = messages.get(i);
+
+                assertEquals("delta", delta.get("type").asText());
+                assertEquals(board.get("version").asInt() + i, delta.get("version").asInt());
+
+                for (JsonNode change : delta.get("changes"))
+                    pits[change.get(0).asInt() - 1] = change.get(1).asInt();
+            }
+
+            assertArrayEquals(controller.streamBoard().toArray(), pits);
+
+            handler.afterConnectionClosed(session.getSession(), CloseStatus.NORMAL);
+        }
+    }
+
+    @Test
+    public void moveIsSentOnce() throws Exception {
+        int gameId = dataAccess.create();
+        RecordingSession player = new RecordingSession("player");
+        RecordingSession subscriber = new RecordingSession("subscriber");
+
+        handler.afterConnectionEstablished(player.getSession());
+        handler.afterConnectionEstablished(subscriber.getSession());
+        handler.handleTextMessage(subscriber.getSession(), request("subscribe", gameId, 0));
+        handler.handleTextMessage(player.getSession(), request("move", gameId, 1));
+        handler.handleTextMessage(subscriber.getSession(), request("move", gameId, 2));
+
+        List<JsonNode> played = awaitVersion(player, 1);
+        List<JsonNode> subscribed = awaitVersion(subscriber, 2);
+
+        assertEquals(1, played.size());
+        assertEquals(7, played.get(0).get("changes").size());
+        assertEquals(3, subscribed.size());
+        assertEquals(2, subscribed.get(2).get("pitId").asInt());
+    }
+
+    @Test
+    public void unsubscribedSessionGetsNoDeltas() throws Exception {
+        int gameId = dataAccess.create();
+        RecordingSession session = new RecordingSession("unsubscribed");
+
+        handler.afterConnectionEstablished(session.getSession());
+        handler.handleTextMessage(session.getSession(), request("subscribe", gameId, 0));
+        awaitVersion(session, 0);
+        handler.handleTextMessage(session.getSession(), request("unsubscribe", gameId, 0));
+
+        RecordingSession player = new RecordingSession("player");
+        handler.afterConnectionEstablished(player.getSession());
+        handler.handleTextMessage(player.getSession(), request("move", gameId, 1));
+        awaitVersion(player, 1);
+
+        assertEquals(1, session.getMessages().size());
+    }
+
+    @Test
+    public void rejectedMoveIsReported() throws Exception {
+        int gameId = dataAccess.create();
+        RecordingSession session = new RecordingSession("rejected");
+
+        handler.afterConnectionEstablished(session.getSession());
+        handler.handleTextMessage(session.getSession(), request("move", gameId, 8));
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+
+        while (session.getMessages().isEmpty() && System.nanoTime() < deadline)
+            Thread.sleep(1);
+
+        JsonNode error = objectMapper.readTree(session.getMessages().get(0));
+
+        assertEquals("error", error.get("type").asText());
+        assertEquals(gameId, error.get("gameId").asInt());
+        assertEquals(0, dataAccess.get(gameId).getVersion());
+    }
+
+    private TextMessage request(final String action, final int gameId, final int pitId) {
+        return new TextMessage("{\"action\": \"" + action + "\", \"gameId\": " + gameId + ", \"pitId\": " + pitId + "}");
+    }
+
+    /**
+     * Waits until the session received a message of the given version and returns all messages
+     */
+    private List<JsonNode> awaitVersion(final RecordingSession session, final int version) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+
+        while (System.nanoTime() < deadline) {
+            List<String> messages = session.getMessages();
+
+            if (!messages.isEmpty() && objectMapper.readTree(messages.get(messages.size() - 1)).get("version").asInt() >= version) {
+                List<JsonNode> nodes = new ArrayList<>();
+
+                for (String message : messages)
+                    nodes.add(objectMapper.readTree(message));
+
+                return nodes;
+            }
+
+            Thread.sleep(1);
+        }
+
+        throw new AssertionError("No message of version " + version + " in " + session.getMessages());
+    }
+
+    private void set(final String name, final Object value) throws ReflectiveOperationException {
+        Field field = WebSocketUserInterface.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(handler, value);
+    }
+}